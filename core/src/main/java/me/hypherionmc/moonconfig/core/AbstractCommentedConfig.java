@@ -74,11 +74,10 @@ public abstract class AbstractCommentedConfig extends AbstractConfig implements
 	public String getComment(List<String> path) {
 		final int lastIndex = path.size() - 1;
 		final String lastKey = path.get(lastIndex);
-		if (lastIndex == 0) {
-			return commentMap.get(lastKey);
-		}
-		Object parent = getRaw(path.subList(0, lastIndex));
-		if (parent instanceof UnmodifiableCommentedConfig) {
+		Object parent = getRaw(path, lastIndex);
+		if (parent instanceof AbstractCommentedConfig) {
+			return ((AbstractCommentedConfig)parent).commentMap.get(lastKey);
+		} else if (parent instanceof UnmodifiableCommentedConfig) {
 			List<String> lastPath = Collections.singletonList(lastKey);
 			return ((UnmodifiableCommentedConfig)parent).getComment(lastPath);
 		}
@@ -89,21 +88,22 @@ public abstract class AbstractCommentedConfig extends AbstractConfig implements
 	public String setComment(List<String> path, String comment) {
 		final int lastIndex = path.size() - 1;
 		final String lastKey = path.get(lastIndex);
-		if (lastIndex == 0) {
-			if (comment != null) {
-				return commentMap.put(lastKey, comment);
-			}
-			return commentMap.remove(lastKey);
+		Object parent = getRaw(path, lastIndex);
+		if (parent instanceof AbstractCommentedConfig) {
+			Map<String, String> parentComments = ((AbstractCommentedConfig)parent).commentMap;
+			String previous = (comment == null) ? parentComments.remove(lastKey)
+												: parentComments.put(lastKey, comment);
+			modified(parent);
+			return previous;
 		}
-		final List<String> parentPath = path.subList(0, lastIndex);
-		Object parent = getRaw(parentPath);
 		List<String> lastPath = Collections.singletonList(lastKey);
 		if (parent instanceof CommentedConfig) {
 			return ((CommentedConfig)parent).setComment(lastPath, comment);
 		} else if (parent == null) {
-			CommentedConfig commentedParent = createSubConfig();
-			set(parentPath, commentedParent);
-			return commentedParent.setComment(lastPath, comment);
+			// Only adds the parent if it's still missing, then sets the comment to the parent
+			// that is actually in the config, which may have been created by another thread.
+			add(path.subList(0, lastIndex), createSubConfig());
+			return setComment(path, comment);
 		}
 		throw new IllegalArgumentException("Cannot set a comment to path "
 										   + path
@@ -115,11 +115,14 @@ public abstract class AbstractCommentedConfig extends AbstractConfig implements
 	public String removeComment(List<String> path) {
 		final int lastIndex = path.size() - 1;
 		final String lastKey = path.get(lastIndex);
-		if (lastIndex == 0) {
-			return commentMap.remove(lastKey);
-		}
-		Object parent = getRaw(path.subList(0, lastIndex));
-		if (parent instanceof CommentedConfig) {
+		Object parent = getRaw(path, lastIndex);
+		if (parent instanceof AbstractCommentedConfig) {
+			String previous = ((AbstractCommentedConfig)parent).commentMap.remove(lastKey);
+			if (previous != null) {
+				modified(parent);
+			}
+			return previous;
+		} else if (parent instanceof CommentedConfig) {
 			List<String> lastPath = Collections.singletonList(lastKey);
 			return ((CommentedConfig)parent).removeComment(lastPath);
 		}
@@ -130,11 +133,10 @@ public abstract class AbstractCommentedConfig extends AbstractConfig implements
 	public boolean containsComment(List<String> path) {
 		final int lastIndex = path.size() - 1;
 		final String lastKey = path.get(lastIndex);
-		if (lastIndex == 0) {
-			return commentMap.containsKey(lastKey);
-		}
-		Object parent = getRaw(path.subList(0, lastIndex));
-		if (parent instanceof CommentedConfig) {
+		Object parent = getRaw(path, lastIndex);
+		if (parent instanceof AbstractCommentedConfig) {
+			return ((AbstractCommentedConfig)parent).commentMap.containsKey(lastKey);
+		} else if (parent instanceof CommentedConfig) {
 			List<String> lastPath = Collections.singletonList(lastKey);
 			return ((CommentedConfig)parent).containsComment(lastPath);
 		}
@@ -219,6 +221,7 @@ public abstract class AbstractCommentedConfig extends AbstractConfig implements
 	@Override
 	public void clearComments() {
 		commentMap.clear();
+		modified();
 		// Recursively clears the comments of the subconfigs:
 		for (Object o : map.values()) {
 			if (o instanceof CommentedConfig) {
@@ -4,6 +4,8 @@ import me.hypherionmc.moonconfig.core.utils.TransformingSet;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static me.hypherionmc.moonconfig.core.NullObject.NULL_OBJECT;
@@ -12,6 +14,10 @@ import static me.hypherionmc.moonconfig.core.NullObject.NULL_OBJECT;
  * An abstract Config that uses a {@link java.util.Map} to store its values. In practice it's
  * often a HashMap, or a ConcurrentHashMap if the config is concurrent, but it accepts any type
  * of Map.
+ * <p>
+ * The numbers and booleans are stored boxed in the map. The primitive setters like
+ * {@link #setInt(List, int)} keep the existing box when the value doesn't change, and the
+ * primitive getters unbox the stored value.
  *
  * @author TheElectronWill
  */
@@ -22,6 +28,11 @@ public abstract class AbstractConfig implements Config, Cloneable {
 
 	final Map<String, Object> map;
 
+	private volatile long version;
+	private volatile AbstractConfig container;// the config that contains this one, if known
+	private static final AtomicLongFieldUpdater<AbstractConfig> VERSION =
+		AtomicLongFieldUpdater.newUpdater(AbstractConfig.class, "version");
+
 	/**
 	 * Creates a new AbstractConfig backed by a new {@link Map}.
 	 */
@@ -86,7 +97,7 @@ public abstract class AbstractConfig implements Config, Cloneable {
 	@Override
 	public <T> T getRaw(List<String> path) {
 		final int lastIndex = path.size() - 1;
-		Map<String, Object> parentMap = getMap(path.subList(0, lastIndex));
+		Map<String, Object> parentMap = getMap(path, lastIndex);
 		if (parentMap == null) {
 			return null;
 		}
@@ -97,36 +108,224 @@ public abstract class AbstractConfig implements Config, Cloneable {
 	@Override
 	public <T> T set(List<String> path, Object value) {
 		final int lastIndex = path.size() - 1;
-		Map<String, Object> parentMap = getOrCreateMap(path.subList(0, lastIndex));
+		Config parent = getOrCreateLevel(path, lastIndex);
+		Map<String, Object> parentMap = parent.valueMap();
 		String lastKey = path.get(lastIndex);
 		Object nonNull = (value == null) ? NULL_OBJECT : value;
-		return (T)parentMap.put(lastKey, nonNull);
+		T previous = (T)parentMap.put(lastKey, nonNull);
+		linkSubConfig(value, parent);
+		modified(parent);
+		return previous;
+	}
+
+	@Override
+	public void setInt(List<String> path, int value) {
+		final int lastIndex = path.size() - 1;
+		Config parent = getOrCreateLevel(path, lastIndex);
+		Map<String, Object> parentMap = parent.valueMap();
+		String lastKey = path.get(lastIndex);
+		Object current = parentMap.get(lastKey);
+		if (!(current instanceof Integer) || (Integer)current != value) {// avoids boxing if possible
+			parentMap.put(lastKey, value);
+			modified(parent);
+		}
+	}
+
+	@Override
+	public void setLong(List<String> path, long value) {
+		final int lastIndex = path.size() - 1;
+		Config parent = getOrCreateLevel(path, lastIndex);
+		Map<String, Object> parentMap = parent.valueMap();
+		String lastKey = path.get(lastIndex);
+		Object current = parentMap.get(lastKey);
+		if (!(current instanceof Long) || (Long)current != value) {
+			parentMap.put(lastKey, value);
+			modified(parent);
+		}
+	}
+
+	@Override
+	public void setDouble(List<String> path, double value) {
+		final int lastIndex = path.size() - 1;
+		Config parent = getOrCreateLevel(path, lastIndex);
+		Map<String, Object> parentMap = parent.valueMap();
+		String lastKey = path.get(lastIndex);
+		Object current = parentMap.get(lastKey);
+		if (!(current instanceof Double)
+			|| Double.doubleToLongBits((Double)current) != Double.doubleToLongBits(value)) {
+			parentMap.put(lastKey, value);
+			modified(parent);
+		}
+	}
+
+	@Override
+	public void setBoolean(List<String> path, boolean value) {
+		final int lastIndex = path.size() - 1;
+		Config parent = getOrCreateLevel(path, lastIndex);
+		Map<String, Object> parentMap = parent.valueMap();
+		if (parentMap.put(path.get(lastIndex), value) != Boolean.valueOf(value)) {// never allocates
+			modified(parent);
+		}
 	}
 
 	@Override
 	public boolean add(List<String> path, Object value) {
 		final int lastIndex = path.size() - 1;
-		Map<String, Object> parentMap = getOrCreateMap(path.subList(0, lastIndex));
+		Config parent = getOrCreateLevel(path, lastIndex);
+		Map<String, Object> parentMap = parent.valueMap();
 		String lastKey = path.get(lastIndex);
 		Object nonNull = (value == null) ? NULL_OBJECT : value;
-		return parentMap.putIfAbsent(lastKey, nonNull) == null;
+		if (parentMap.putIfAbsent(lastKey, nonNull) != null) {
+			return false;
+		}
+		linkSubConfig(value, parent);
+		modified(parent);
+		return true;
+	}
+
+	@Override
+	public <T> T compute(List<String> path, Function<? super T, ? extends T> remappingFunction) {
+		final int lastIndex = path.size() - 1;
+		Config parent = getOrCreateLevel(path, lastIndex);
+		Map<String, Object> parentMap = parent.valueMap();
+		String lastKey = path.get(lastIndex);
+		// Atomic on the ConcurrentHashMap of a concurrent config, without any other lock.
+		T result = (T)parentMap.compute(lastKey, (k, v) -> remap(v, remappingFunction));
+		linkSubConfig(result, parent);
+		modified(parent);
+		return result;
+	}
+
+	private static <T> Object remap(Object value, Function<? super T, ? extends T> function) {
+		return function.apply((value == NULL_OBJECT) ? null : (T)value);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * On a concurrent config, the values are put while holding the lock of this config (the
+	 * monitor of its map), so two calls of putAll or {@link #removeAll(UnmodifiableConfig)} on the
+	 * same config never interleave. This is the only guarantee: set, remove and compute don't
+	 * take the lock, and may modify the config or see a partial batch in the middle of putAll.
+	 */
+	@Override
+	public void putAll(UnmodifiableConfig config) {
+		Map<String, Object> values = config.valueMap();
+		if (!(map instanceof ConcurrentMap)) {
+			map.putAll(values);
+		} else {
+			synchronized (map) {
+				map.putAll(values);
+			}
+		}
+		modified();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * On a concurrent config, this method is atomic with respect to the other calls of removeAll
+	 * and {@link #putAll(UnmodifiableConfig)} on this config, but not with respect to set, remove
+	 * and compute.
+	 */
+	@Override
+	public void removeAll(UnmodifiableConfig config) {
+		Set<String> keys = config.valueMap().keySet();
+		boolean removed;
+		if (!(map instanceof ConcurrentMap)) {
+			removed = map.keySet().removeAll(keys);
+		} else {
+			synchronized (map) {
+				removed = map.keySet().removeAll(keys);
+			}
+		}
+		if (removed) {
+			modified();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The entries are applied in the iteration order of the map, like with sequential calls to
+	 * set. When consecutive paths share a prefix, the levels of the prefix are reused instead of
+	 * being found again from the root. The consecutive values that go to the same level are put
+	 * with a single {@link Map#putAll(Map)}, so that a level whose map reacts to its
+	 * modifications (like an {@link me.hypherionmc.moonconfig.core.utils.ObservedMap}) is
+	 * notified once for all of them.
+	 */
+	@Override
+	public void setAll(Map<? extends List<String>, ?> values) {
+		Config[] levels = new Config[8];// levels[i] is the config at depth i of the path
+		levels[0] = this;
+		List<String> previous = Collections.emptyList();
+		Config pendingLevel = null;
+		Map<String, Object> pending = new LinkedHashMap<>();// the values to put in pendingLevel
+		for (Map.Entry<? extends List<String>, ?> entry : values.entrySet()) {
+			List<String> path = entry.getKey();
+			final int lastIndex = path.size() - 1;
+			if (lastIndex >= levels.length) {
+				levels = Arrays.copyOf(levels, lastIndex + 1);
+			}
+			// The intermediate levels of the previous path are still valid: the previous value
+			// has been put deeper than them, so it can't have replaced one of them.
+			int depth = 0;
+			final int shared = Math.min(previous.size() - 1, lastIndex);
+			while (depth < shared && previous.get(depth).equals(path.get(depth))) {
+				depth++;
+			}
+			if (depth < lastIndex) {// the walk may read the pending level: applies it first
+				putPending(pendingLevel, pending);
+			}
+			for (; depth < lastIndex; depth++) {
+				levels[depth + 1] = getOrCreateSubConfig(levels[depth], path.get(depth));
+			}
+			Config parent = levels[lastIndex];
+			if (parent != pendingLevel) {
+				putPending(pendingLevel, pending);
+				pendingLevel = parent;
+			}
+			Object value = entry.getValue();
+			pending.put(path.get(lastIndex), (value == null) ? NULL_OBJECT : value);
+			previous = path;
+		}
+		putPending(pendingLevel, pending);
+	}
+
+	/**
+	 * Puts the pending values of {@link #setAll(Map)} in their level, and clears them.
+	 */
+	private void putPending(Config level, Map<String, Object> pending) {
+		if (pending.isEmpty()) {
+			return;
+		}
+		level.valueMap().putAll(pending);
+		for (Object value : pending.values()) {
+			linkSubConfig(value, level);
+		}
+		modified(level);
+		pending.clear();
 	}
 
 	@Override
 	public <T> T remove(List<String> path) {
 		final int lastIndex = path.size() - 1;
-		Map<String, Object> parentMap = getMap(path.subList(0, lastIndex));
-		if (parentMap == null) {
+		Config parent = getLevel(path, lastIndex);
+		if (parent == null) {
 			return null;
 		}
 		String lastKey = path.get(lastIndex);
-		return (T)parentMap.remove(lastKey);
+		T previous = (T)parent.valueMap().remove(lastKey);
+		if (previous != null) {
+			modified(parent);
+		}
+		return previous;
 	}
 
 	@Override
 	public boolean contains(List<String> path) {
 		final int lastIndex = path.size() - 1;
-		Map<String, Object> parentMap = getMap(path.subList(0, lastIndex));
+		Map<String, Object> parentMap = getMap(path, lastIndex);
 		if (parentMap == null) {
 			return false;
 		}
@@ -137,7 +336,7 @@ public abstract class AbstractConfig implements Config, Cloneable {
 	@Override
 	public boolean isNull(List<String> path) {
 		final int lastIndex = path.size() - 1;
-		Map<String, Object> parentMap = getMap(path.subList(0, lastIndex));
+		Map<String, Object> parentMap = getMap(path, lastIndex);
 		if (parentMap == null) {
 			return false;
 		}
@@ -147,41 +346,98 @@ public abstract class AbstractConfig implements Config, Cloneable {
 	}
 
 	/**
-	 * Returns the Map associated to the given path. Any missing level is created.
+	 * Gets the raw value associated to the first {@code length} parts of the given path.
+	 * Unlike {@code getRaw(path.subList(0, length))}, this doesn't create any intermediate object.
 	 *
-	 * @param path the map's path
-	 * @return the Map, not null
+	 * @param path   the value's path
+	 * @param length the number of parts of the path to use
+	 * @return the value, or null if there is none
 	 */
-	private Map<String, Object> getOrCreateMap(List<String> path) {
-		Map<String, Object> currentMap = map;
-		for (String currentKey : path) {
-			final Object currentValue = currentMap.get(currentKey);
-			final Config config;
-			if (currentValue == null) {// missing intermediary level
-				config = createSubConfig();
-				currentMap.put(currentKey, config);
-			} else if (!(currentValue instanceof Config)) {// incompatible intermediary level
-				throw new IllegalArgumentException(
-						"Cannot add an element to an intermediary value of type: "
-						+ currentValue.getClass());
-			} else {//existing intermediary level
-				config = (Config)currentValue;
+	final Object getRaw(List<String> path, int length) {
+		if (length == 0) {
+			return this;
+		}
+		final int lastIndex = length - 1;
+		Map<String, Object> parentMap = getMap(path, lastIndex);
+		if (parentMap == null) {
+			return null;
+		}
+		return parentMap.get(path.get(lastIndex));
+	}
+
+	/**
+	 * Returns the config associated to the first {@code length} parts of the given path. Any
+	 * missing level is created.
+	 *
+	 * @param path   the config's path
+	 * @param length the number of parts of the path to use
+	 * @return the config, not null
+	 */
+	private Config getOrCreateLevel(List<String> path, int length) {
+		Config current = this;
+		for (int i = 0; i < length; i++) {
+			current = getOrCreateSubConfig(current, path.get(i));
+		}
+		return current;
+	}
+
+	/**
+	 * Returns the sub config associated to the given key. If there is no such sub config, it is
+	 * created.
+	 *
+	 * @param parent the config that contains the sub config
+	 * @param key    the sub config's key
+	 * @return the sub config, not null
+	 */
+	private Config getOrCreateSubConfig(Config parent, String key) {
+		final Map<String, Object> parentMap = parent.valueMap();
+		Object value = parentMap.get(key);
+		if (value == null) {// missing intermediary level
+			// computeIfAbsent is atomic on a concurrent map, so two threads that create the
+			// same level at the same time get the same sub config, and no write is lost.
+			value = parentMap.computeIfAbsent(key, k -> createSubConfig());
+		}
+		if (!(value instanceof Config)) {// incompatible intermediary level
+			throw new IllegalArgumentException(
+					"Cannot add an element to an intermediary value of type: "
+					+ value.getClass());
+		}
+		linkSubConfig(value, parent);
+		return (Config)value;
+	}
+
+	/**
+	 * Returns the config associated to the first {@code length} parts of the given path, or null
+	 * if there is none.
+	 *
+	 * @param path   the config's path
+	 * @param length the number of parts of the path to use
+	 * @return the config if any, or null if none
+	 */
+	private Config getLevel(List<String> path, int length) {
+		Config current = this;
+		for (int i = 0; i < length; i++) {
+			Object value = current.valueMap().get(path.get(i));
+			if (!(value instanceof Config)) {// missing or incompatible intermediary level
+				return null;
 			}
-			currentMap = config.valueMap();
+			current = (Config)value;
 		}
-		return currentMap;
+		return current;
 	}
 
 	/**
-	 * Returns the Map associated to the given path, or null if there is none.
+	 * Returns the Map associated to the first {@code length} parts of the given path, or null if
+	 * there is none.
 	 *
-	 * @param path the map's path
+	 * @param path   the map's path
+	 * @param length the number of parts of the path to use
 	 * @return the Map if any, or null if none
 	 */
-	private Map<String, Object> getMap(List<String> path) {
+	private Map<String, Object> getMap(List<String> path, int length) {
 		Map<String, Object> currentMap = map;
-		for (String key : path) {
-			Object value = currentMap.get(key);
+		for (int i = 0; i < length; i++) {
+			Object value = currentMap.get(path.get(i));
 			if (!(value instanceof Config)) {// missing or incompatible intermediary level
 				return null;// the specified path doesn't exist -> stop here
 			}
@@ -193,6 +449,69 @@ public abstract class AbstractConfig implements Config, Cloneable {
 	@Override
 	public void clear() {
 		map.clear();
+		modified();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The version of an AbstractConfig is incremented by every modification made through the
+	 * methods of the config, including the modifications of its sub-configs made through their
+	 * full path or directly on the sub-config. The modifications made directly on the
+	 * {@link #valueMap()} or on the entries aren't counted.
+	 */
+	@Override
+	public long version() {
+		return version;
+	}
+
+	/**
+	 * Increments the version of this config and of the configs that contain it.
+	 */
+	final void modified() {
+		for (AbstractConfig c = this; c != null; c = c.container) {
+			VERSION.incrementAndGet(c);
+		}
+	}
+
+	/**
+	 * Increments the version of a modified level of this config, of the configs that contain it,
+	 * and of this config.
+	 *
+	 * @param level the config that has been modified, this config or one of its sub-configs
+	 */
+	final void modified(Object level) {
+		if (level instanceof AbstractConfig) {
+			boolean reachedThis = false;
+			for (AbstractConfig c = (AbstractConfig)level; c != null; c = c.container) {
+				VERSION.incrementAndGet(c);
+				reachedThis |= (c == this);
+			}
+			if (reachedThis) {
+				return;
+			}
+		}
+		modified();// the level isn't linked to this config, for instance because of a foreign level
+	}
+
+	/**
+	 * Records that a sub-config is contained in a config, so that its modifications increment
+	 * the version of the config. A sub-config has only one parent: if it is inserted in several
+	 * configs, the last one wins.
+	 * <p>
+	 * The configs link their sub-configs themselves. This method is only needed when a sub-config
+	 * is created outside of the methods of its parent, for instance by a lazy parser.
+	 *
+	 * @param value  the sub-config, does nothing if it's not an AbstractConfig
+	 * @param parent the config that contains it, does nothing if it's not an AbstractConfig
+	 */
+	public static void linkSubConfig(Object value, Config parent) {
+		if (value instanceof AbstractConfig && parent instanceof AbstractConfig) {
+			AbstractConfig sub = (AbstractConfig)value;
+			if (sub.container != parent && sub != parent) {
+				sub.container = (AbstractConfig)parent;
+			}
+		}
 	}
 
 	@Override
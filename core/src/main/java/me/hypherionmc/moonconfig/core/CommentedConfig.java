@@ -1,12 +1,13 @@
 package me.hypherionmc.moonconfig.core;
 
 import me.hypherionmc.moonconfig.core.utils.FakeCommentedConfig;
-import me.hypherionmc.moonconfig.core.utils.StringUtils;
+import me.hypherionmc.moonconfig.core.utils.PathCache;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
 import static me.hypherionmc.moonconfig.core.utils.StringUtils.split;
@@ -25,7 +26,7 @@ public interface CommentedConfig extends UnmodifiableCommentedConfig, Config {
 	 * @return the old comment if any, or {@code null}
 	 */
 	default String setComment(String path, String comment) {
-		return setComment(StringUtils.split(path, '.'), comment);
+		return setComment(PathCache.split(path), comment);
 	}
 
 	/**
@@ -44,7 +45,7 @@ public interface CommentedConfig extends UnmodifiableCommentedConfig, Config {
 	 * @return the old comment if any, or {@code null}
 	 */
 	default String removeComment(String path) {
-		return removeComment(StringUtils.split(path, '.'));
+		return removeComment(PathCache.split(path));
 	}
 
 	/**
@@ -132,6 +133,11 @@ public interface CommentedConfig extends UnmodifiableCommentedConfig, Config {
 				return CommentedConfig.this.size();
 			}
 
+			@Override
+			public long version() {
+				return CommentedConfig.this.version();
+			}
+
 			@Override
 			public Map<String, Object> valueMap() {
 				return Collections.unmodifiableMap(CommentedConfig.this.valueMap());
@@ -152,6 +158,16 @@ public interface CommentedConfig extends UnmodifiableCommentedConfig, Config {
 				return CommentedConfig.this.entrySet();
 			}
 
+			@Override
+			public void forEachEntry(BiConsumer<? super String, Object> action) {
+				CommentedConfig.this.forEachEntry(action);
+			}
+
+			@Override
+			public void forEachCommentedEntry(CommentedEntryAction action) {
+				CommentedConfig.this.forEachCommentedEntry(action);
+			}
+
 			@Override
 			public ConfigFormat<?> configFormat() {
 				return CommentedConfig.this.configFormat();
@@ -0,0 +1,623 @@
+package me.hypherionmc.moonconfig.core;
+
+import me.hypherionmc.moonconfig.core.utils.PathCache;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable and compact config, created by {@link UnmodifiableConfig#compact()}. The keys,
+ * values and comments are stored in parallel arrays, in the iteration order of the original
+ * config, and a small hash index sorted by key hash is used to find the entries. Compared to
+ * a HashMap-based config, this saves the memory of one map node per entry.
+ * <p>
+ * The sub-configs of the original config are compacted too, including the ones contained
+ * in lists (for instance TOML arrays of tables). The keys are interned, so they are shared by
+ * all the compact configs that use the same keys.
+ * <p>
+ * The Integer, Long and Double values are stored unboxed, in an array of primitive longs. The
+ * primitive getters like {@link #getInt(List)} read them without creating any object, while
+ * {@link #valueMap()}, {@link #entrySet()} and the other methods that return an Object box them
+ * on each call (the small integers come from the cache of {@link Integer#valueOf(int)}).
+ */
+@SuppressWarnings("unchecked")
+final class CompactConfig implements UnmodifiableCommentedConfig {
+	private static final String[] NO_KEYS = {};
+	private static final Object[] NO_VALUES = {};
+	private static final int[] NO_INDEX = {};
+	static final int LINEAR_SEARCH_THRESHOLD = 8;// no hash index up to this size
+
+	private static final byte OBJECT = 0, INT = 1, LONG = 2, DOUBLE = 3;// the kinds of values
+
+	private final String[] keys;
+	private final Object[] values;// null for the unboxed numbers
+	private final long[] numbers;// the unboxed numbers, null if there is none at this level
+	private final byte[] kinds;// the kind of each value, null if there is no unboxed number
+	private final String[] comments;// null if the config has no comment at this level
+	private final int[] sortedHashes;// the hashes of the keys, sorted
+	private final int[] sortedIndexes;// the entry index of each sorted hash
+	private final ConfigFormat<?> configFormat;
+
+	private CompactConfig(String[] keys, Object[] values, String[] comments,
+						  ConfigFormat<?> configFormat) {
+		this.keys = keys;
+		this.values = values;
+		this.comments = comments;
+		long[] numbers = null;
+		byte[] kinds = null;
+		for (int i = 0; i < values.length; i++) {
+			Object value = values[i];
+			byte kind = (value instanceof Integer) ? INT
+					  : (value instanceof Long) ? LONG
+					  : (value instanceof Double) ? DOUBLE : OBJECT;
+			if (kind != OBJECT) {
+				if (numbers == null) {
+					numbers = new long[values.length];
+					kinds = new byte[values.length];
+				}
+				numbers[i] = (kind == DOUBLE) ? Double.doubleToRawLongBits((Double)value)
+										   : ((Number)value).longValue();
+				kinds[i] = kind;
+				values[i] = null;
+			}
+		}
+		this.numbers = numbers;
+		this.kinds = kinds;
+		this.configFormat = configFormat;
+		final int size = keys.length;
+		if (size <= LINEAR_SEARCH_THRESHOLD) {
+			this.sortedHashes = NO_INDEX;
+			this.sortedIndexes = NO_INDEX;
+		} else {
+			long[] packed = new long[size];// hash in the high bits, index in the low bits
+			for (int i = 0; i < size; i++) {
+				packed[i] = ((long)keys[i].hashCode() << 32) | i;
+			}
+			Arrays.sort(packed);
+			this.sortedHashes = new int[size];
+			this.sortedIndexes = new int[size];
+			for (int i = 0; i < size; i++) {
+				sortedHashes[i] = (int)(packed[i] >> 32);
+				sortedIndexes[i] = (int)packed[i];
+			}
+		}
+	}
+
+	/**
+	 * Creates a compact copy of the given config.
+	 *
+	 * @param config the config to copy
+	 * @return an immutable compact config with the same content
+	 */
+	static CompactConfig of(UnmodifiableConfig config) {
+		if (config instanceof CompactConfig) {
+			return (CompactConfig)config;
+		}
+		final int size = config.size();
+		if (size == 0) {
+			return new CompactConfig(NO_KEYS, NO_VALUES, null, config.configFormat());
+		}
+		String[] keys = new String[size];
+		Object[] values = new Object[size];
+		String[] comments = null;
+		int i = 0;
+		if (config instanceof UnmodifiableCommentedConfig) {
+			for (UnmodifiableCommentedConfig.Entry entry
+				: ((UnmodifiableCommentedConfig)config).entrySet()) {
+				keys[i] = entry.getKey().intern();
+				values[i] = compactValue(entry.getRawValue());
+				String comment = entry.getComment();
+				if (comment != null) {
+					if (comments == null) {
+						comments = new String[size];
+					}
+					comments[i] = comment;
+				}
+				i++;
+			}
+		} else {
+			for (Map.Entry<String, Object> entry : config.valueMap().entrySet()) {
+				keys[i] = entry.getKey().intern();
+				values[i] = compactValue(entry.getValue());
+				i++;
+			}
+		}
+		return new CompactConfig(keys, values, comments, config.configFormat());
+	}
+
+	private static Object compactValue(Object value) {
+		if (value instanceof UnmodifiableConfig) {
+			return of((UnmodifiableConfig)value);
+		} else if (value instanceof CompactList) {
+			return value;// already compact, like a CompactConfig
+		} else if (value instanceof List) {
+			List<?> list = (List<?>)value;
+			Object[] array = new Object[list.size()];
+			int i = 0;
+			for (Object element : list) {
+				array[i++] = compactValue(element);
+			}
+			return new CompactList(array);
+		}
+		return value;
+	}
+
+	/**
+	 * Finds the index of an entry.
+	 *
+	 * @param key the entry's key
+	 * @return the index of the entry, or -1 if not found
+	 */
+	private int indexOf(String key) {
+		if (sortedHashes == NO_INDEX) {
+			for (int i = 0; i < keys.length; i++) {
+				if (key.equals(keys[i])) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		final int hash = key.hashCode();
+		int pos = Arrays.binarySearch(sortedHashes, hash);
+		if (pos < 0) {
+			return -1;
+		}
+		while (pos > 0 && sortedHashes[pos - 1] == hash) {// goes back to the first equal hash
+			pos--;
+		}
+		for (; pos < sortedHashes.length && sortedHashes[pos] == hash; pos++) {
+			int index = sortedIndexes[pos];
+			if (key.equals(keys[index])) {
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the value at the given index, boxed if it's an unboxed number
+	 */
+	private Object value(int index) {
+		if (kinds == null) {
+			return values[index];
+		}
+		switch (kinds[index]) {
+			case INT:
+				return (int)numbers[index];
+			case LONG:
+				return numbers[index];
+			case DOUBLE:
+				return Double.longBitsToDouble(numbers[index]);
+			default:
+				return values[index];
+		}
+	}
+
+	/**
+	 * Finds the index of a number stored unboxed.
+	 *
+	 * @return the index of the value associated to the key, or -1 if the value isn't an unboxed
+	 * number
+	 */
+	private int unboxedIndex(String key) {
+		if (kinds == null) {
+			return -1;
+		}
+		int index = indexOf(key);
+		return (index == -1 || kinds[index] == OBJECT) ? -1 : index;
+	}
+
+	private double doubleValue(int index) {
+		long bits = numbers[index];
+		return (kinds[index] == DOUBLE) ? Double.longBitsToDouble(bits) : bits;
+	}
+
+	private long longValue(int index) {
+		long bits = numbers[index];
+		return (kinds[index] == DOUBLE) ? (long)Double.longBitsToDouble(bits) : bits;
+	}
+
+	private int intValue(int index) {
+		long bits = numbers[index];
+		return (kinds[index] == DOUBLE) ? (int)Double.longBitsToDouble(bits) : (int)bits;
+	}
+
+	/**
+	 * Finds the config that contains the last element of the path.
+	 *
+	 * @return the parent config, or null if there is none
+	 */
+	private CompactConfig getParent(List<String> path, int lastIndex) {
+		CompactConfig current = this;
+		for (int i = 0; i < lastIndex; i++) {
+			int index = current.indexOf(path.get(i));
+			if (index == -1 || !(current.values[index] instanceof CompactConfig)) {
+				return null;
+			}
+			current = (CompactConfig)current.values[index];
+		}
+		return current;
+	}
+
+	@Override
+	public <T> T getRaw(List<String> path) {
+		final int lastIndex = path.size() - 1;
+		CompactConfig parent = getParent(path, lastIndex);
+		if (parent == null) {
+			return null;
+		}
+		int index = parent.indexOf(path.get(lastIndex));
+		return (index == -1) ? null : (T)parent.value(index);
+	}
+
+	@Override
+	public int getInt(String path) {
+		return getInt(PathCache.split(path));
+	}
+
+	@Override
+	public int getInt(List<String> path) {
+		final int lastIndex = path.size() - 1;
+		CompactConfig parent = getParent(path, lastIndex);
+		int index = (parent == null) ? -1 : parent.unboxedIndex(path.get(lastIndex));
+		if (index == -1) {
+			return UnmodifiableCommentedConfig.super.getInt(path);
+		}
+		return parent.intValue(index);
+	}
+
+	@Override
+	public int getIntOrElse(List<String> path, int defaultValue) {
+		final int lastIndex = path.size() - 1;
+		CompactConfig parent = getParent(path, lastIndex);
+		int index = (parent == null) ? -1 : parent.unboxedIndex(path.get(lastIndex));
+		if (index == -1) {
+			return UnmodifiableCommentedConfig.super.getIntOrElse(path, defaultValue);
+		}
+		return parent.intValue(index);
+	}
+
+	@Override
+	public long getLong(String path) {
+		return getLong(PathCache.split(path));
+	}
+
+	@Override
+	public long getLong(List<String> path) {
+		final int lastIndex = path.size() - 1;
+		CompactConfig parent = getParent(path, lastIndex);
+		int index = (parent == null) ? -1 : parent.unboxedIndex(path.get(lastIndex));
+		if (index == -1) {
+			return UnmodifiableCommentedConfig.super.getLong(path);
+		}
+		return parent.longValue(index);
+	}
+
+	@Override
+	public long getLongOrElse(List<String> path, long defaultValue) {
+		final int lastIndex = path.size() - 1;
+		CompactConfig parent = getParent(path, lastIndex);
+		int index = (parent == null) ? -1 : parent.unboxedIndex(path.get(lastIndex));
+		if (index == -1) {
+			return UnmodifiableCommentedConfig.super.getLongOrElse(path, defaultValue);
+		}
+		return parent.longValue(index);
+	}
+
+	@Override
+	public double getDouble(List<String> path) {
+		final int lastIndex = path.size() - 1;
+		CompactConfig parent = getParent(path, lastIndex);
+		int index = (parent == null) ? -1 : parent.unboxedIndex(path.get(lastIndex));
+		if (index == -1) {
+			return UnmodifiableCommentedConfig.super.getDouble(path);
+		}
+		return parent.doubleValue(index);
+	}
+
+	@Override
+	public double getDoubleOrElse(List<String> path, double defaultValue) {
+		final int lastIndex = path.size() - 1;
+		CompactConfig parent = getParent(path, lastIndex);
+		int index = (parent == null) ? -1 : parent.unboxedIndex(path.get(lastIndex));
+		if (index == -1) {
+			return UnmodifiableCommentedConfig.super.getDoubleOrElse(path, defaultValue);
+		}
+		return parent.doubleValue(index);
+	}
+
+	@Override
+	public boolean contains(List<String> path) {
+		final int lastIndex = path.size() - 1;
+		CompactConfig parent = getParent(path, lastIndex);
+		return parent != null && parent.indexOf(path.get(lastIndex)) != -1;
+	}
+
+	@Override
+	public String getComment(List<String> path) {
+		final int lastIndex = path.size() - 1;
+		CompactConfig parent = getParent(path, lastIndex);
+		if (parent == null || parent.comments == null) {
+			return null;
+		}
+		int index = parent.indexOf(path.get(lastIndex));
+		return (index == -1) ? null : parent.comments[index];
+	}
+
+	@Override
+	public boolean containsComment(List<String> path) {
+		return getComment(path) != null;
+	}
+
+	@Override
+	public int size() {
+		return keys.length;
+	}
+
+	@Override
+	public long version() {
+		return 0;// never modified
+	}
+
+	@Override
+	public Map<String, Object> valueMap() {
+		return new ValueMap();
+	}
+
+	@Override
+	public Map<String, String> commentMap() {
+		return (comments == null) ? Collections.emptyMap() : new CommentMap();
+	}
+
+	@Override
+	public void forEachEntry(BiConsumer<? super String, Object> action) {
+		for (int i = 0; i < keys.length; i++) {
+			action.accept(keys[i], value(i));
+		}
+	}
+
+	@Override
+	public void forEachCommentedEntry(CommentedEntryAction action) {
+		for (int i = 0; i < keys.length; i++) {
+			action.accept(keys[i], value(i), (comments == null) ? null : comments[i]);
+		}
+	}
+
+	@Override
+	public Set<? extends UnmodifiableCommentedConfig.Entry> entrySet() {
+		return new AbstractSet<UnmodifiableCommentedConfig.Entry>() {
+			@Override
+			public Iterator<UnmodifiableCommentedConfig.Entry> iterator() {
+				return new Iterator<UnmodifiableCommentedConfig.Entry>() {
+					private int next = 0;
+
+					@Override
+					public boolean hasNext() {
+						return next < keys.length;
+					}
+
+					@Override
+					public UnmodifiableCommentedConfig.Entry next() {
+						if (next >= keys.length) {
+							throw new NoSuchElementException();
+						}
+						return new CompactEntry(next++);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return keys.length;
+			}
+		};
+	}
+
+	@Override
+	public ConfigFormat<?> configFormat() {
+		return configFormat;
+	}
+
+	@Override
+	public UnmodifiableCommentedConfig compact() {
+		return this;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if (!(obj instanceof CompactConfig)) {
+			return false;
+		}
+		CompactConfig other = (CompactConfig)obj;
+		return valueMap().equals(other.valueMap());
+	}
+
+	@Override
+	public int hashCode() {
+		return valueMap().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + ':' + valueMap();
+	}
+
+	private final class CompactEntry implements UnmodifiableCommentedConfig.Entry {
+		private final int index;
+
+		CompactEntry(int index) {
+			this.index = index;
+		}
+
+		@Override
+		public String getKey() {
+			return keys[index];
+		}
+
+		@Override
+		public <T> T getRawValue() {
+			return (T)value(index);
+		}
+
+		@Override
+		public String getComment() {
+			return (comments == null) ? null : comments[index];
+		}
+	}
+
+	/**
+	 * An immutable list whose configs are compact, like a CompactConfig. It's recognized by
+	 * {@link #of(UnmodifiableConfig)}, which reuses it instead of copying it again.
+	 */
+	static final class CompactList extends AbstractList<Object> implements RandomAccess {
+		private final Object[] elements;
+
+		CompactList(Object[] elements) {
+			this.elements = elements;
+		}
+
+		@Override
+		public Object get(int index) {
+			return elements[index];
+		}
+
+		@Override
+		public int size() {
+			return elements.length;
+		}
+	}
+
+	/**
+	 * An unmodifiable Map view of the keys and values.
+	 */
+	private final class ValueMap extends AbstractMap<String, Object> {
+		@Override
+		public Object get(Object key) {
+			if (!(key instanceof String)) {
+				return null;
+			}
+			int index = indexOf((String)key);
+			return (index == -1) ? null : value(index);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return (key instanceof String) && indexOf((String)key) != -1;
+		}
+
+		@Override
+		public int size() {
+			return keys.length;
+		}
+
+		@Override
+		public void forEach(BiConsumer<? super String, ? super Object> action) {
+			for (int i = 0; i < keys.length; i++) {
+				action.accept(keys[i], value(i));
+			}
+		}
+
+		@Override
+		public Set<Map.Entry<String, Object>> entrySet() {
+			return new AbstractSet<Map.Entry<String, Object>>() {
+				@Override
+				public Iterator<Map.Entry<String, Object>> iterator() {
+					return new Iterator<Map.Entry<String, Object>>() {
+						private int next = 0;
+
+						@Override
+						public boolean hasNext() {
+							return next < keys.length;
+						}
+
+						@Override
+						public Map.Entry<String, Object> next() {
+							if (next >= keys.length) {
+								throw new NoSuchElementException();
+							}
+							int i = next++;
+							return new SimpleImmutableEntry<>(keys[i], value(i));
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return keys.length;
+				}
+			};
+		}
+	}
+
+	/**
+	 * An unmodifiable Map view of the comments, which skips the entries without comment.
+	 */
+	private final class CommentMap extends AbstractMap<String, String> {
+		@Override
+		public String get(Object key) {
+			if (!(key instanceof String)) {
+				return null;
+			}
+			int index = indexOf((String)key);
+			return (index == -1) ? null : comments[index];
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public int size() {
+			int size = 0;
+			for (String comment : comments) {
+				if (comment != null) {
+					size++;
+				}
+			}
+			return size;
+		}
+
+		@Override
+		public Set<Map.Entry<String, String>> entrySet() {
+			return new AbstractSet<Map.Entry<String, String>>() {
+				@Override
+				public Iterator<Map.Entry<String, String>> iterator() {
+					return new Iterator<Map.Entry<String, String>>() {
+						private int next = skipUncommented(0);
+
+						private int skipUncommented(int i) {
+							while (i < comments.length && comments[i] == null) {
+								i++;
+							}
+							return i;
+						}
+
+						@Override
+						public boolean hasNext() {
+							return next < comments.length;
+						}
+
+						@Override
+						public Map.Entry<String, String> next() {
+							if (next >= comments.length) {
+								throw new NoSuchElementException();
+							}
+							int i = next;
+							next = skipUncommented(i + 1);
+							return new SimpleImmutableEntry<>(keys[i], comments[i]);
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return CommentMap.this.size();
+				}
+			};
+		}
+	}
+}
\ No newline at end of file
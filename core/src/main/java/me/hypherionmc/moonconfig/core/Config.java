@@ -1,9 +1,12 @@
 package me.hypherionmc.moonconfig.core;
 
-import me.hypherionmc.moonconfig.core.utils.StringUtils;
+import me.hypherionmc.moonconfig.core.utils.PathCache;
+import me.hypherionmc.moonconfig.core.utils.SmallMap;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static me.hypherionmc.moonconfig.core.utils.StringUtils.split;
@@ -25,7 +28,7 @@ public interface Config extends UnmodifiableConfig {
 	 * @return the old value if any, or {@code null}
 	 */
 	default <T> T set(String path, Object value) {
-		return set(StringUtils.split(path, '.'), value);
+		return set(PathCache.split(path), value);
 	}
 
 	/**
@@ -38,6 +41,95 @@ public interface Config extends UnmodifiableConfig {
 	 */
 	<T> T set(List<String> path, Object value);
 
+	/**
+	 * Sets a config value to a primitive int.
+	 *
+	 * @param path  the value's path, each part separated by a dot. Example "a.b.c"
+	 * @param value the value to set
+	 */
+	default void setInt(String path, int value) {
+		setInt(PathCache.split(path), value);
+	}
+
+	/**
+	 * Sets a config value to a primitive int. Unlike {@link #set(List, Object)}, this method
+	 * doesn't return the old value, which allows the implementations to avoid boxing the new
+	 * value when it is already in the config.
+	 * <p>
+	 * The modifiable configs have no primitive storage: the value is stored boxed, like any other
+	 * value, because {@link #valueMap()} and {@link #entrySet()} expose the values as objects.
+	 * Only the writes that don't change the value are free of allocations. The immutable configs
+	 * created by {@link #compact()} store the numbers unboxed.
+	 *
+	 * @param path  the value's path, each element of the list is a different part of the path.
+	 * @param value the value to set
+	 */
+	default void setInt(List<String> path, int value) {
+		set(path, value);
+	}
+
+	/**
+	 * Sets a config value to a primitive long.
+	 *
+	 * @param path  the value's path, each part separated by a dot. Example "a.b.c"
+	 * @param value the value to set
+	 */
+	default void setLong(String path, long value) {
+		setLong(PathCache.split(path), value);
+	}
+
+	/**
+	 * Sets a config value to a primitive long.
+	 *
+	 * @param path  the value's path, each element of the list is a different part of the path.
+	 * @param value the value to set
+	 * @see #setInt(List, int)
+	 */
+	default void setLong(List<String> path, long value) {
+		set(path, value);
+	}
+
+	/**
+	 * Sets a config value to a primitive double.
+	 *
+	 * @param path  the value's path, each part separated by a dot. Example "a.b.c"
+	 * @param value the value to set
+	 */
+	default void setDouble(String path, double value) {
+		setDouble(PathCache.split(path), value);
+	}
+
+	/**
+	 * Sets a config value to a primitive double.
+	 *
+	 * @param path  the value's path, each element of the list is a different part of the path.
+	 * @param value the value to set
+	 * @see #setInt(List, int)
+	 */
+	default void setDouble(List<String> path, double value) {
+		set(path, value);
+	}
+
+	/**
+	 * Sets a config value to a primitive boolean.
+	 *
+	 * @param path  the value's path, each part separated by a dot. Example "a.b.c"
+	 * @param value the value to set
+	 */
+	default void setBoolean(String path, boolean value) {
+		setBoolean(PathCache.split(path), value);
+	}
+
+	/**
+	 * Sets a config value to a primitive boolean.
+	 *
+	 * @param path  the value's path, each element of the list is a different part of the path.
+	 * @param value the value to set
+	 */
+	default void setBoolean(List<String> path, boolean value) {
+		set(path, value);
+	}
+
 	/**
 	 * Adds a config value. The value is set iff there is no value associated with the given path.
 	 *
@@ -57,7 +149,26 @@ public interface Config extends UnmodifiableConfig {
 	 * given path
 	 */
 	default boolean add(String path, Object value) {
-		return add(StringUtils.split(path, '.'), value);
+		return add(PathCache.split(path), value);
+	}
+
+	/**
+	 * Sets several config values at once. This is equivalent to calling
+	 * {@link #set(List, Object)} for each entry of the map, in the iteration order of the map, but
+	 * the implementations can apply the whole batch more efficiently: {@link AbstractConfig}
+	 * reuses the intermediate levels shared by consecutive paths and puts the consecutive values
+	 * of a level together, and the wrappers that react to the modifications (for instance the
+	 * autosaved file configs) are notified only once per batch.
+	 * <p>
+	 * Using {@link ConfigPath} keys avoids splitting the paths again.
+	 *
+	 * @param values the values to set, associated with their paths. Each element of a path is a
+	 *               different part of the path.
+	 */
+	default void setAll(Map<? extends List<String>, ?> values) {
+		for (Map.Entry<? extends List<String>, ?> entry : values.entrySet()) {
+			set(entry.getKey(), entry.getValue());
+		}
 	}
 
 	/**
@@ -86,6 +197,44 @@ public interface Config extends UnmodifiableConfig {
 		valueMap().putAll(config.valueMap());
 	}
 
+	/**
+	 * Computes a new value from the current one. If the function returns null, the value is
+	 * removed. On a concurrent config the computation is atomic: no other thread can modify the
+	 * value between the moment it is read and the moment the new value is set. Therefore the
+	 * function may be called while holding a lock, and must not modify the config.
+	 *
+	 * @param path              the value's path, each part separated by a dot. Example "a.b.c"
+	 * @param remappingFunction the function that computes the new value from the current one,
+	 *                          which is null if there is none
+	 * @param <T>               the type of the value
+	 * @return the new value
+	 */
+	default <T> T compute(String path, Function<? super T, ? extends T> remappingFunction) {
+		return compute(PathCache.split(path), remappingFunction);
+	}
+
+	/**
+	 * Computes a new value from the current one. If the function returns null, the value is
+	 * removed. On a concurrent config the computation is atomic: no other thread can modify the
+	 * value between the moment it is read and the moment the new value is set. Therefore the
+	 * function may be called while holding a lock, and must not modify the config.
+	 *
+	 * @param path              the value's path, each element of the list is a different part of the path.
+	 * @param remappingFunction the function that computes the new value from the current one,
+	 *                          which is null if there is none
+	 * @param <T>               the type of the value
+	 * @return the new value
+	 */
+	default <T> T compute(List<String> path, Function<? super T, ? extends T> remappingFunction) {
+		T newValue = remappingFunction.apply(get(path));
+		if (newValue == null) {
+			remove(path);
+		} else {
+			set(path, newValue);
+		}
+		return newValue;
+	}
+
 	/**
 	 * Removes a value from the config.
 	 *
@@ -94,7 +243,7 @@ public interface Config extends UnmodifiableConfig {
 	 * @return the old value if any, or {@code null}
 	 */
 	default <T> T remove(String path) {
-		return remove(StringUtils.split(path, '.'));
+		return remove(PathCache.split(path));
 	}
 
 	/**
@@ -144,6 +293,11 @@ public interface Config extends UnmodifiableConfig {
 				return Config.this.size();
 			}
 
+			@Override
+			public long version() {
+				return Config.this.version();
+			}
+
 			@Override
 			public Map<String, Object> valueMap() {
 				return Collections.unmodifiableMap(Config.this.valueMap());
@@ -154,6 +308,11 @@ public interface Config extends UnmodifiableConfig {
 				return Config.this.entrySet();
 			}
 
+			@Override
+			public void forEachEntry(BiConsumer<? super String, Object> action) {
+				Config.this.forEachEntry(action);
+			}
+
 			@Override
 			public ConfigFormat<?> configFormat() {
 				return Config.this.configFormat();
@@ -438,11 +597,12 @@ public interface Config extends UnmodifiableConfig {
 	 * @return a map supplier corresponding to the given settings
 	 */
 	static <T> Supplier<Map<String, T>> getDefaultMapCreator(boolean concurrent, boolean insertionOrderPreserved) {
+		// The non-concurrent maps start small, because most sub-configs have only a few entries.
 		if (insertionOrderPreserved) {
-			return concurrent ? ()->Collections.synchronizedMap(new LinkedHashMap<>()) : LinkedHashMap::new;
+			return concurrent ? ()->Collections.synchronizedMap(new LinkedHashMap<>()) : ()->new SmallMap<>(true);
 			// TODO find or make a ConcurrentMap that preserves the insertion order
 		}
-		return concurrent ? ConcurrentHashMap::new : HashMap::new;
+		return concurrent ? ConcurrentHashMap::new : SmallMap::new;
 	}
 
 	/**
@@ -0,0 +1,231 @@
+package me.hypherionmc.moonconfig.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Deep copies and deep merges configurations in parallel. Unlike {@link Config#copy} and
+ * {@link Config#putAll(UnmodifiableConfig)}, which only copy the top-level values and share the
+ * sub-configs, these operations copy the whole hierarchy: the sub-configs, the lists and the
+ * comments.
+ * <p>
+ * The calling thread copies the first {@value #SEQUENTIAL_THRESHOLD} values itself, so that the
+ * small configs are copied without the cost of the pool. The rest of the work is split between
+ * the threads of a {@link ForkJoinPool}: each task copies some sub-configs, and gives half of its
+ * pending sub-configs to another task when there are idle threads. Each config of the
+ * destination is filled by a single task, and the keys are inserted in the same order as a
+ * sequential copy, so the result doesn't depend on the scheduling.
+ * <p>
+ * The hierarchy is walked with an explicit stack instead of recursive calls, therefore very
+ * deep configs can't cause a StackOverflowError.
+ * <p>
+ * The destination must not be modified by other threads during the operation, and must not
+ * contain the same sub-config at several places.
+ */
+public final class ConfigCopier {
+	/**
+	 * The number of values that the calling thread copies before using the pool.
+	 */
+	static final int SEQUENTIAL_THRESHOLD = 1024;
+
+	private ConfigCopier() {}// Utility class that can't be constructed
+
+	/**
+	 * Creates a deep copy of a config, using the common ForkJoinPool. The copy has the same
+	 * format, and is a {@link CommentedConfig} if the source is commented.
+	 *
+	 * @param source the config to copy
+	 * @return a deep copy of the config
+	 */
+	public static Config copy(UnmodifiableConfig source) {
+		Config destination;
+		if (source instanceof UnmodifiableCommentedConfig) {
+			destination = new SimpleCommentedConfig(source.configFormat(), false);
+		} else {
+			destination = new SimpleConfig(source.configFormat(), false);
+		}
+		return copy(source, destination);
+	}
+
+	/**
+	 * Deep copies a config into another one, using the common ForkJoinPool.
+	 *
+	 * @param source      the config to copy
+	 * @param destination the config to fill, usually empty
+	 * @param <C>         the destination's type
+	 * @return the destination
+	 */
+	public static <C extends Config> C copy(UnmodifiableConfig source, C destination) {
+		merge(source, destination, ForkJoinPool.commonPool());
+		return destination;
+	}
+
+	/**
+	 * Deep merges a config into another one, using the common ForkJoinPool.
+	 *
+	 * @param source      the config to merge
+	 * @param destination the config to modify
+	 * @see #merge(UnmodifiableConfig, Config, ForkJoinPool)
+	 */
+	public static void merge(UnmodifiableConfig source, Config destination) {
+		merge(source, destination, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Deep merges a config into another one. The sub-configs that exist in both configs are
+	 * merged recursively. The other values of the source, including lists, replace the values
+	 * of the destination. The values of the destination that don't exist in the source are
+	 * kept. The comments of the source replace the comments of the destination.
+	 *
+	 * @param source      the config to merge
+	 * @param destination the config to modify
+	 * @param pool        the pool that runs the tasks
+	 */
+	public static void merge(UnmodifiableConfig source, Config destination, ForkJoinPool pool) {
+		ArrayDeque<Job> pending = new ArrayDeque<>();
+		pending.push(new Job(source, destination, destination));
+		MergeTask task = new MergeTask(pending);
+		if (!task.runSequentially(SEQUENTIAL_THRESHOLD)) {
+			pool.invoke(task);// too big to be worth a sequential copy: continues in parallel
+		}
+		if (destination instanceof AbstractConfig) {
+			((AbstractConfig)destination).modified();// the maps have been modified directly
+		}
+	}
+
+	/**
+	 * A pending copy: a config to merge into another config, or a list to copy into an empty
+	 * list.
+	 */
+	private static final class Job {
+		final Object source, destination;
+		final Config parent;// creates the sub-configs of the lists
+
+		Job(Object source, Object destination, Config parent) {
+			this.source = source;
+			this.destination = destination;
+			this.parent = parent;
+		}
+	}
+
+	/**
+	 * A task that runs some jobs, and the jobs they create.
+	 */
+	private static final class MergeTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private final ArrayDeque<Job> pending;
+		private int copied;// number of values copied by this task
+
+		MergeTask(ArrayDeque<Job> pending) {
+			this.pending = pending;
+		}
+
+		@Override
+		protected void compute() {
+			List<MergeTask> forked = null;
+			Job job;
+			while ((job = pending.poll()) != null) {
+				run(job);
+				if (pending.size() >= 2 && getSurplusQueuedTaskCount() < 2) {
+					// Gives half of the pending jobs to another thread. The jobs at the bottom
+					// of the stack are the oldest ones, which are likely to be the biggest.
+					ArrayDeque<Job> half = new ArrayDeque<>();
+					for (int n = pending.size() / 2; n > 0; n--) {
+						half.addFirst(pending.removeLast());
+					}
+					MergeTask task = new MergeTask(half);
+					task.fork();
+					if (forked == null) {
+						forked = new ArrayList<>();
+					}
+					forked.add(task);
+				}
+			}
+			if (forked != null) {
+				for (MergeTask task : forked) {
+					task.join();
+				}
+			}
+		}
+
+		/**
+		 * Runs the jobs in the current thread, until they are all done or the limit is reached.
+		 *
+		 * @param limit the number of values to copy before stopping
+		 * @return true if all the jobs are done, false if some are still pending
+		 */
+		boolean runSequentially(int limit) {
+			Job job;
+			while (copied < limit && (job = pending.poll()) != null) {
+				run(job);
+			}
+			return pending.isEmpty();
+		}
+
+		@SuppressWarnings("unchecked")
+		private void run(Job job) {
+			if (job.source instanceof UnmodifiableConfig) {
+				mergeConfig((UnmodifiableConfig)job.source, (Config)job.destination);
+			} else {
+				copyList((List<?>)job.source, (List<Object>)job.destination, job.parent);
+			}
+		}
+
+		private void mergeConfig(UnmodifiableConfig source, Config destination) {
+			final Map<String, Object> destinationMap = destination.valueMap();
+			copied += source.size();
+			for (Map.Entry<String, Object> entry : source.valueMap().entrySet()) {
+				final Object value = entry.getValue();
+				if (value instanceof UnmodifiableConfig) {
+					Object existing = destinationMap.get(entry.getKey());
+					Config sub;
+					if (existing instanceof Config) {
+						sub = (Config)existing;
+					} else {
+						sub = destination.createSubConfig();
+						destinationMap.put(entry.getKey(), sub);
+					}
+					// The map is modified directly, so the sub-config must be linked explicitly
+					// for its modifications to increment the version of the destination.
+					AbstractConfig.linkSubConfig(sub, destination);
+					pending.push(new Job(value, sub, sub));
+				} else if (value instanceof List) {
+					List<?> list = (List<?>)value;
+					List<Object> copy = new ArrayList<>(list.size());
+					destinationMap.put(entry.getKey(), copy);
+					pending.push(new Job(list, copy, destination));
+				} else {
+					destinationMap.put(entry.getKey(), value);
+				}
+			}
+			if (source instanceof UnmodifiableCommentedConfig && destination instanceof CommentedConfig) {
+				Map<String, String> comments = ((UnmodifiableCommentedConfig)source).commentMap();
+				((CommentedConfig)destination).commentMap().putAll(comments);
+			}
+		}
+
+		/**
+		 * Copies the elements of a list. The lists and configs it contains are copied too.
+		 */
+		private void copyList(List<?> source, List<Object> destination, Config parent) {
+			copied += source.size();
+			for (Object element : source) {
+				if (element instanceof UnmodifiableConfig) {
+					Config sub = parent.createSubConfig();
+					destination.add(sub);
+					pending.push(new Job(element, sub, sub));
+				} else if (element instanceof List) {
+					List<Object> copy = new ArrayList<>(((List<?>)element).size());
+					destination.add(copy);
+					pending.push(new Job(element, copy, parent));
+				} else {
+					destination.add(element);
+				}
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,276 @@
+package me.hypherionmc.moonconfig.core;
+
+import java.util.*;
+
+import static me.hypherionmc.moonconfig.core.NullObject.NULL_OBJECT;
+
+/**
+ * The differences between two configurations, as a list of changes that transform the first
+ * config into the second one. The diff is computed level by level: a sub-config that exists in
+ * both configs is compared recursively, therefore a change deep in the hierarchy produces a
+ * single change with the full path of the modified value. A sub-config that has been added or
+ * removed produces a single change, too.
+ * <p>
+ * When both configs are commented, the comments are compared as well.
+ * <p>
+ * Identical sub-configs are skipped without being traversed when this can be determined
+ * cheaply: when they are the same instance, or when they are {@link PersistentConfig}s that
+ * share the same data (for instance a config and its clone). Comparing a PersistentConfig with
+ * a slightly modified clone of itself is therefore proportional to the size of the
+ * modifications, not to the size of the config.
+ * <p>
+ * Example:
+ * <pre>
+ * ConfigDiff diff = ConfigDiff.between(oldConfig, newConfig);
+ * for (ConfigDiff.Change change : diff.changes()) {
+ *     System.out.println(change);
+ * }
+ * diff.applyTo(anotherConfig);// makes the same modifications
+ * </pre>
+ */
+public final class ConfigDiff {
+	private final List<Change> changes;
+
+	private ConfigDiff(List<Change> changes) {
+		this.changes = Collections.unmodifiableList(changes);
+	}
+
+	/**
+	 * Computes the differences between two configs.
+	 *
+	 * @param from the original config
+	 * @param to   the modified config
+	 * @return the changes that transform {@code from} into {@code to}
+	 */
+	public static ConfigDiff between(UnmodifiableConfig from, UnmodifiableConfig to) {
+		List<Change> changes = new ArrayList<>();
+		diff(from, to, new ArrayList<>(), changes);
+		return new ConfigDiff(changes);
+	}
+
+	private static void diff(UnmodifiableConfig from, UnmodifiableConfig to,
+							 List<String> parentPath, List<Change> changes) {
+		if (isSameContent(from, to)) {
+			return;
+		}
+		final Map<String, Object> fromMap = from.valueMap(), toMap = to.valueMap();
+		// Removed and changed values
+		int removed = 0;
+		for (Map.Entry<String, Object> entry : fromMap.entrySet()) {
+			final String key = entry.getKey();
+			final Object fromValue = entry.getValue();
+			final Object toValue = toMap.get(key);
+			if (toValue == null && !toMap.containsKey(key)) {
+				changes.add(new Change(Type.REMOVED, false, path(parentPath, key), fromValue, null));
+				removed++;
+			} else if (fromValue instanceof UnmodifiableConfig && toValue instanceof UnmodifiableConfig) {
+				parentPath.add(key);
+				diff((UnmodifiableConfig)fromValue, (UnmodifiableConfig)toValue, parentPath, changes);
+				parentPath.remove(parentPath.size() - 1);
+			} else if (!Objects.equals(fromValue, toValue)) {
+				changes.add(new Change(Type.CHANGED, false, path(parentPath, key), fromValue, toValue));
+			}
+		}
+		// Added values
+		if (toMap.size() > fromMap.size() - removed) {// otherwise all the keys have been seen
+			for (Map.Entry<String, Object> entry : toMap.entrySet()) {
+				final String key = entry.getKey();
+				if (!fromMap.containsKey(key)) {
+					changes.add(new Change(Type.ADDED, false, path(parentPath, key), null, entry.getValue()));
+				}
+			}
+		}
+		// Comments
+		if (from instanceof UnmodifiableCommentedConfig && to instanceof UnmodifiableCommentedConfig) {
+			Map<String, String> fromComments = ((UnmodifiableCommentedConfig)from).commentMap();
+			Map<String, String> toComments = ((UnmodifiableCommentedConfig)to).commentMap();
+			for (Map.Entry<String, String> entry : fromComments.entrySet()) {
+				final String key = entry.getKey();
+				final String toComment = toComments.get(key);
+				if (toComment == null) {
+					if (toMap.containsKey(key)) {// otherwise the comment is removed with its value
+						changes.add(new Change(Type.REMOVED, true, path(parentPath, key), entry.getValue(), null));
+					}
+				} else if (!toComment.equals(entry.getValue())) {
+					changes.add(new Change(Type.CHANGED, true, path(parentPath, key), entry.getValue(), toComment));
+				}
+			}
+			for (Map.Entry<String, String> entry : toComments.entrySet()) {
+				final String key = entry.getKey();
+				if (!fromComments.containsKey(key)) {
+					changes.add(new Change(Type.ADDED, true, path(parentPath, key), null, entry.getValue()));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks if two configs are known to be identical without comparing their content.
+	 */
+	private static boolean isSameContent(UnmodifiableConfig a, UnmodifiableConfig b) {
+		if (a == b) {
+			return true;
+		}
+		if (a instanceof PersistentConfig && b instanceof PersistentConfig) {
+			return ((PersistentConfig)a).sharesContentWith((PersistentConfig)b);
+		}
+		return false;
+	}
+
+	private static List<String> path(List<String> parentPath, String key) {
+		String[] path = parentPath.toArray(new String[parentPath.size() + 1]);
+		path[parentPath.size()] = key;
+		return Collections.unmodifiableList(Arrays.asList(path));
+	}
+
+	/**
+	 * @return the changes, in an unmodifiable list
+	 */
+	public List<Change> changes() {
+		return changes;
+	}
+
+	/**
+	 * @return true if there are no differences between the configs
+	 */
+	public boolean isEmpty() {
+		return changes.isEmpty();
+	}
+
+	/**
+	 * Applies the changes to a config. If the config is equal to the original config of the diff,
+	 * it becomes equal to the modified config. The changes to the comments are ignored if the
+	 * config isn't a {@link CommentedConfig}.
+	 * <p>
+	 * The sub-configs that have been added are copied, so that the modified config and the
+	 * patched config don't share them.
+	 *
+	 * @param config the config to modify
+	 */
+	public void applyTo(Config config) {
+		for (Change change : changes) {
+			if (change.isComment()) {
+				if (config instanceof CommentedConfig) {
+					CommentedConfig commentedConfig = (CommentedConfig)config;
+					if (change.type == Type.REMOVED) {
+						commentedConfig.removeComment(change.path);
+					} else {
+						commentedConfig.setComment(change.path, (String)change.newValue);
+					}
+				}
+			} else if (change.type == Type.REMOVED) {
+				config.remove(change.path);
+			} else {
+				config.set(change.path, copied(change.getNewValue(), config));
+			}
+		}
+	}
+
+	/**
+	 * Copies a value if it's a config, so that it can be inserted into the given config.
+	 */
+	private static Object copied(Object value, Config destination) {
+		if (!(value instanceof UnmodifiableConfig)) {
+			return value;
+		}
+		UnmodifiableConfig source = (UnmodifiableConfig)value;
+		Config copy = destination.createSubConfig();
+		for (Map.Entry<String, Object> entry : source.valueMap().entrySet()) {
+			List<String> key = Collections.singletonList(entry.getKey());
+			Object v = entry.getValue();
+			copy.set(key, (v == NULL_OBJECT) ? null : copied(v, copy));
+		}
+		if (source instanceof UnmodifiableCommentedConfig && copy instanceof CommentedConfig) {
+			CommentedConfig commentedCopy = (CommentedConfig)copy;
+			for (Map.Entry<String, String> entry : ((UnmodifiableCommentedConfig)source).commentMap().entrySet()) {
+				commentedCopy.setComment(Collections.singletonList(entry.getKey()), entry.getValue());
+			}
+		}
+		return copy;
+	}
+
+	@Override
+	public String toString() {
+		return "ConfigDiff" + changes;
+	}
+
+	/**
+	 * The type of a change.
+	 */
+	public enum Type {
+		/**
+		 * The value or comment exists only in the modified config.
+		 */
+		ADDED,
+		/**
+		 * The value or comment exists only in the original config.
+		 */
+		REMOVED,
+		/**
+		 * The value or comment exists in both configs but is different.
+		 */
+		CHANGED
+	}
+
+	/**
+	 * A difference between the two configs, at a given path.
+	 */
+	public static final class Change {
+		private final Type type;
+		private final boolean comment;
+		private final List<String> path;
+		private final Object oldValue, newValue;
+
+		Change(Type type, boolean comment, List<String> path, Object oldValue, Object newValue) {
+			this.type = type;
+			this.comment = comment;
+			this.path = path;
+			this.oldValue = oldValue;
+			this.newValue = newValue;
+		}
+
+		/**
+		 * @return the type of the change
+		 */
+		public Type getType() {
+			return type;
+		}
+
+		/**
+		 * @return true if the change is about the comment of the value at {@link #getPath()},
+		 * false if it's about the value itself
+		 */
+		public boolean isComment() {
+			return comment;
+		}
+
+		/**
+		 * @return the path of the changed value or comment, in an unmodifiable list
+		 */
+		public List<String> getPath() {
+			return path;
+		}
+
+		/**
+		 * @return the value or comment in the original config, null if the change is an addition
+		 */
+		@SuppressWarnings("unchecked")
+		public <T> T getOldValue() {
+			return (oldValue == NULL_OBJECT) ? null : (T)oldValue;
+		}
+
+		/**
+		 * @return the value or comment in the modified config, null if the change is a removal
+		 */
+		@SuppressWarnings("unchecked")
+		public <T> T getNewValue() {
+			return (newValue == NULL_OBJECT) ? null : (T)newValue;
+		}
+
+		@Override
+		public String toString() {
+			String what = comment ? "comment of " : "";
+			return type + " " + what + String.join(".", path) + ": " + oldValue + " -> " + newValue;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,488 @@
+package me.hypherionmc.moonconfig.core;
+
+import me.hypherionmc.moonconfig.core.utils.SmallMap;
+import me.hypherionmc.moonconfig.core.utils.UnmodifiableConfigWrapper;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static me.hypherionmc.moonconfig.core.NullObject.NULL_OBJECT;
+
+/**
+ * An estimation of the heap memory used by a configuration, by category and by top-level
+ * section. It is computed by {@link #of(UnmodifiableConfig)}, which walks the config once and
+ * doesn't modify it, so it can be called periodically, for instance to export the results with
+ * {@link #toMetrics()}.
+ * <p>
+ * The sizes are estimated from the usual layout of a 64-bits JVM with compressed references:
+ * 12 bytes per object header, 4 bytes per reference, objects aligned to 8 bytes, and 2 bytes per
+ * character. The estimation doesn't use any JVM internals, so it's an approximation, but it is
+ * consistent and good enough to compare configs and to follow the evolution of a config.
+ * <p>
+ * The objects that are shared by several values, like the keys pooled by the parsers, are only
+ * counted once, in the first section that references them. The objects that are shared with the
+ * rest of the JVM, like the enum constants, the booleans and the small boxed integers, aren't
+ * counted.
+ */
+public final class ConfigFootprint {
+	private static final int HEADER = 12, REFERENCE = 4, ARRAY_HEADER = 16;
+
+	private final long[] categoryBytes;
+	private final Map<String, Long> sectionBytes;
+	private final long valueCount, configCount, unknownConfigCount;
+
+	private ConfigFootprint(long[] categoryBytes, Map<String, Long> sectionBytes, long valueCount,
+							long configCount, long unknownConfigCount) {
+		this.categoryBytes = categoryBytes;
+		this.sectionBytes = Collections.unmodifiableMap(sectionBytes);
+		this.valueCount = valueCount;
+		this.configCount = configCount;
+		this.unknownConfigCount = unknownConfigCount;
+	}
+
+	/**
+	 * Estimates the memory used by a config.
+	 *
+	 * @param config the config to measure
+	 * @return the estimation
+	 */
+	public static ConfigFootprint of(UnmodifiableConfig config) {
+		Walker walker = new Walker();
+		Map<String, Long> sections = new LinkedHashMap<>();
+		walker.addConfig(config, sections);
+		return new ConfigFootprint(walker.bytes, sections, walker.values, walker.configs,
+								   walker.unknownConfigs);
+	}
+
+	/**
+	 * @return the estimated number of bytes used by the config
+	 */
+	public long totalBytes() {
+		long total = 0;
+		for (long bytes : categoryBytes) {
+			total += bytes;
+		}
+		return total;
+	}
+
+	/**
+	 * @param category the category
+	 * @return the estimated number of bytes used by the objects of this category
+	 */
+	public long bytes(Category category) {
+		return categoryBytes[category.ordinal()];
+	}
+
+	/**
+	 * Returns the estimated number of bytes used by each top-level entry of the config: its key,
+	 * its value (including the whole sub-config if the value is a config) and its comment. The
+	 * structure of the root config isn't attributed to any section.
+	 *
+	 * @return an unmodifiable map of the top-level keys to their sizes, in the order of the config
+	 */
+	public Map<String, Long> sectionBytes() {
+		return sectionBytes;
+	}
+
+	/**
+	 * @return the number of values that aren't configs, including the elements of the lists
+	 */
+	public long valueCount() {
+		return valueCount;
+	}
+
+	/**
+	 * @return the number of configs, including the root config and the sub-configs
+	 */
+	public long configCount() {
+		return configCount;
+	}
+
+	/**
+	 * Returns the number of configs whose representation isn't known, for instance the configs
+	 * of a lazy parser that haven't been parsed yet. Their content isn't read, therefore they
+	 * aren't included in the other counts and in the sizes.
+	 *
+	 * @return the number of configs that haven't been measured
+	 */
+	public long unknownConfigCount() {
+		return unknownConfigCount;
+	}
+
+	/**
+	 * Returns the estimation as a flat map of metrics, which can be given to a monitoring
+	 * library. The names are {@code bytes.total}, {@code bytes.<category>} (for example
+	 * {@code bytes.keys}), {@code section.<key>.bytes}, {@code values}, {@code configs} and
+	 * {@code configs.unknown}.
+	 *
+	 * @return a new map of the metrics' names to their values
+	 */
+	public Map<String, Long> toMetrics() {
+		Map<String, Long> metrics = new LinkedHashMap<>();
+		metrics.put("bytes.total", totalBytes());
+		for (Category category : Category.values()) {
+			metrics.put("bytes." + category.name().toLowerCase(Locale.ROOT), bytes(category));
+		}
+		for (Map.Entry<String, Long> entry : sectionBytes.entrySet()) {
+			metrics.put("section." + entry.getKey() + ".bytes", entry.getValue());
+		}
+		metrics.put("values", valueCount);
+		metrics.put("configs", configCount);
+		metrics.put("configs.unknown", unknownConfigCount);
+		return metrics;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("ConfigFootprint{total=").append(totalBytes());
+		for (Category category : Category.values()) {
+			sb.append(", ").append(category.name().toLowerCase(Locale.ROOT)).append('=')
+			  .append(bytes(category));
+		}
+		if (unknownConfigCount > 0) {
+			sb.append(", unknownConfigs=").append(unknownConfigCount);
+		}
+		return sb.append(", sections=").append(sectionBytes).append('}').toString();
+	}
+
+	/**
+	 * A category of objects.
+	 */
+	public enum Category {
+		/**
+		 * The keys of the configs.
+		 */
+		KEYS,
+		/**
+		 * The String values.
+		 */
+		STRINGS,
+		/**
+		 * The boxed numbers, and the other Number values.
+		 */
+		NUMBERS,
+		/**
+		 * The comments, and the maps that contain them.
+		 */
+		COMMENTS,
+		/**
+		 * The config objects, their maps and the lists.
+		 */
+		STRUCTURE,
+		/**
+		 * The other values, like dates.
+		 */
+		OTHER
+	}
+
+	private static long align(long size) {
+		return (size + 7) & ~7;
+	}
+
+	/**
+	 * @return the size of an AbstractConfig object, without its maps
+	 */
+	private static long configShellSize(UnmodifiableConfig config) {
+		if (config instanceof UnmodifiableCommentedConfig) {
+			return align(HEADER + 4 * REFERENCE + 8);// map, mapCreator, container, comments, version
+		}
+		return align(HEADER + 3 * REFERENCE + 8);
+	}
+
+	/**
+	 * @return the capacity of the table of a HashMap that contains the given number of entries
+	 */
+	private static int hashCapacity(int size) {
+		if (size == 0) {
+			return 0;
+		}
+		int capacity = 16;
+		while (capacity * 3 / 4 < size) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	private static long referenceArraySize(int length) {
+		return align(ARRAY_HEADER + (long)REFERENCE * length);
+	}
+
+	/**
+	 * @return true if the map is one of the maps used by {@link AbstractConfig}, false if it's a
+	 * view or an unknown map
+	 */
+	private static boolean isStorageMap(Map<String, ?> map) {
+		return map instanceof HashMap || map instanceof ConcurrentHashMap
+			   || map instanceof TreeMap || map instanceof SmallMap;
+	}
+
+	/**
+	 * Walks the values and sums their sizes.
+	 */
+	private static final class Walker {
+		final long[] bytes = new long[Category.values().length];
+		final Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+		long total, values, configs, unknownConfigs;
+
+		void add(Category category, long size) {
+			bytes[category.ordinal()] += size;
+			total += size;
+		}
+
+		void addString(String s, Category category) {
+			if (s != null && seen.add(s)) {
+				add(category, align(HEADER + REFERENCE + 4) + align(ARRAY_HEADER + 2L * s.length()));
+			}
+		}
+
+		/**
+		 * Adds the size of a map, without its keys and values.
+		 */
+		void addMap(Map<String, ?> map, Category category) {
+			final int size = map.size();
+			long mapSize;
+			if (map instanceof SmallMap && size <= SmallMap.MAX_SMALL_SIZE) {
+				int capacity = 4;
+				while (capacity < 2 * size) {
+					capacity <<= 1;
+				}
+				mapSize = align(HEADER + 1 + 4 + 3 * REFERENCE) + referenceArraySize(capacity);
+			} else {
+				long shell = 48, entry = 32;// HashMap
+				if (map instanceof LinkedHashMap) {
+					shell = 56;
+					entry = 40;
+				} else if (map instanceof ConcurrentHashMap) {
+					shell = 64;
+				} else if (map instanceof TreeMap) {
+					entry = 40;
+				}
+				mapSize = shell + referenceArraySize(hashCapacity(size)) + entry * size;
+				if (map instanceof SmallMap) {
+					mapSize += align(HEADER + 1 + 4 + 3 * REFERENCE) + ARRAY_HEADER;
+				}
+			}
+			add(category, mapSize);
+		}
+
+		/**
+		 * Adds the size of a config and of its content, according to its representation. The
+		 * views, like the sub-configs of a PersistentConfig and the comment map of a
+		 * CompactConfig, aren't counted since they aren't retained. The configs whose
+		 * representation isn't known are counted as unknown, without reading their content.
+		 *
+		 * @param sections the map where to put the size of each entry, or null
+		 */
+		void addConfig(UnmodifiableConfig config, Map<String, Long> sections) {
+			if (!seen.add(config)) {
+				return;
+			}
+			final UnmodifiableCommentedConfig level;
+			if (config instanceof SnapshotConfig) {
+				// template, writeLock, current, version and root, plus the lock object
+				add(Category.STRUCTURE, align(HEADER + 4 * REFERENCE + 8) + align(HEADER));
+				addCompact((CompactConfig)((SnapshotConfig)config).snapshot(), sections);
+			} else if (config instanceof CompactConfig) {
+				addCompact((CompactConfig)config, sections);
+			} else if (config instanceof PersistentConfig) {
+				addPersistent((PersistentConfig)config, sections);
+			} else if (config instanceof AbstractConfig) {
+				add(Category.STRUCTURE, configShellSize(config));
+				addMapConfig(config, sections);
+			} else if ((level = SnapshotConfig.currentLevel(config)) != null) {
+				add(Category.STRUCTURE, align(HEADER + 2 * REFERENCE));// the view
+				if (seen.add(level)) {
+					addCompact((CompactConfig)level, sections);
+				}
+			} else if (config instanceof UnmodifiableConfigWrapper) {
+				add(Category.STRUCTURE, align(HEADER + REFERENCE));
+				Map<String, Object> map = config.valueMap();
+				if (map instanceof SnapshotConfig.LevelMap) {
+					UnmodifiableCommentedConfig current = ((SnapshotConfig.LevelMap)map).currentLevel();
+					if (current != null && seen.add(current)) {
+						addCompact((CompactConfig)current, sections);
+					}
+				} else if (isStorageMap(map)) {
+					add(Category.STRUCTURE, configShellSize(config));// the wrapped config
+					addMapConfig(config, sections);
+				} else {
+					unknownConfigs++;
+				}
+			} else {
+				unknownConfigs++;
+			}
+		}
+
+		/**
+		 * Adds the maps of a config that uses a Map to store its values, and its content.
+		 */
+		private void addMapConfig(UnmodifiableConfig config, Map<String, Long> sections) {
+			configs++;
+			addMap(config.valueMap(), Category.STRUCTURE);
+			if (config instanceof UnmodifiableCommentedConfig) {
+				Map<String, String> comments = ((UnmodifiableCommentedConfig)config).commentMap();
+				if (isStorageMap(comments)) {// otherwise it's a view, like the empty map
+					addMap(comments, Category.COMMENTS);
+				}
+			}
+			addEntries(config, false, sections);
+		}
+
+		/**
+		 * Adds the arrays of a CompactConfig and its content. Its Integer, Long and Double values
+		 * are stored unboxed.
+		 */
+		private void addCompact(CompactConfig config, Map<String, Long> sections) {
+			configs++;
+			final int size = config.size();
+			// keys, values, numbers, kinds, comments, sortedHashes, sortedIndexes, configFormat
+			add(Category.STRUCTURE, align(HEADER + 8 * REFERENCE));
+			if (size == 0) {
+				return;// the empty arrays are shared
+			}
+			long structure = 2 * referenceArraySize(size);// keys and values
+			if (size > CompactConfig.LINEAR_SEARCH_THRESHOLD) {// sortedHashes and sortedIndexes
+				structure += 2 * align(ARRAY_HEADER + 4L * size);
+			}
+			final boolean[] found = new boolean[2];// an unboxed number, a comment
+			config.forEachCommentedEntry((key, value, comment) -> {
+				found[0] |= isUnboxed(value);
+				found[1] |= (comment != null);
+			});
+			if (found[0]) {// numbers and kinds
+				structure += align(ARRAY_HEADER + 8L * size) + align(ARRAY_HEADER + size);
+			}
+			add(Category.STRUCTURE, structure);
+			if (found[1]) {
+				add(Category.COMMENTS, referenceArraySize(size));
+			}
+			addEntries(config, true, sections);
+		}
+
+		private static boolean isUnboxed(Object value) {
+			return value instanceof Integer || value instanceof Long || value instanceof Double;
+		}
+
+		/**
+		 * Adds the trie of a PersistentConfig and its content. The trie nodes may be shared with
+		 * the clones of the config, they are counted anyway.
+		 */
+		private void addPersistent(PersistentConfig config, Map<String, Long> sections) {
+			configs++;
+			add(Category.STRUCTURE, align(HEADER + 2 * REFERENCE));// the config, or the view
+			add(Category.STRUCTURE, align(HEADER + 2 * REFERENCE));// the Level
+			add(Category.STRUCTURE, trieSize(config.storedValues()));
+			add(Category.COMMENTS, trieSize(config.storedComments()));
+			addEntries(config, false, sections);
+		}
+
+		private static long trieSize(PersistentMap map) {
+			final int size = map.size();
+			if (size == 0) {
+				return 0;// PersistentMap.EMPTY is shared
+			}
+			final int nodes = map.nodeCount();
+			long trie = align(HEADER + 2 * REFERENCE + 4);// the map
+			trie += nodes * (align(HEADER + 4 + REFERENCE) + ARRAY_HEADER);// the nodes
+			trie += 2L * REFERENCE * (size + nodes - 1);// a pair per entry and per sub-node
+			trie += size * align(HEADER + 2 * REFERENCE + 4);// the slots
+			// the vector of the keys in insertion order, with its holes
+			final int length = map.orderLength();
+			final int arrays = (length + 31) / 32 + (length + 1023) / 1024 - 1;
+			trie += align(HEADER + REFERENCE + 8)
+					+ align(arrays * ARRAY_HEADER + (long)REFERENCE * length);
+			return trie;
+		}
+
+		/**
+		 * Adds the keys, values and comments of a config.
+		 *
+		 * @param unboxed  true if the Integer, Long and Double values are stored unboxed
+		 * @param sections the map where to put the size of each entry, or null
+		 */
+		private void addEntries(UnmodifiableConfig config, boolean unboxed,
+								Map<String, Long> sections) {
+			UnmodifiableCommentedConfig.CommentedEntryAction action = (key, value, comment) -> {
+				final long before = total;
+				addString(key, Category.KEYS);
+				if (unboxed && isUnboxed(value)) {
+					values++;
+				} else {
+					addValue(value);
+				}
+				addString(comment, Category.COMMENTS);
+				if (sections != null) {
+					sections.put(key, total - before);
+				}
+			};
+			if (config instanceof UnmodifiableCommentedConfig) {
+				((UnmodifiableCommentedConfig)config).forEachCommentedEntry(action);
+			} else {
+				config.forEachEntry((key, value) -> action.accept(key, value, null));
+			}
+		}
+
+		void addValue(Object value) {
+			if (value == null || value == NULL_OBJECT || value instanceof Enum || value instanceof Boolean) {
+				values++;
+				return;// shared objects
+			}
+			if (value instanceof UnmodifiableConfig) {
+				addConfig((UnmodifiableConfig)value, null);
+				return;
+			}
+			if (!seen.add(value)) {
+				if (!(value instanceof List)) {
+					values++;
+				}
+				return;
+			}
+			if (value instanceof List) {
+				List<?> list = (List<?>)value;
+				add(Category.STRUCTURE, align(HEADER + 4 + REFERENCE) + referenceArraySize(list.size()));
+				for (Object element : list) {
+					addValue(element);
+				}
+				return;
+			}
+			values++;
+			if (value instanceof String) {
+				String s = (String)value;
+				add(Category.STRINGS, align(HEADER + REFERENCE + 4) + align(ARRAY_HEADER + 2L * s.length()));
+			} else if (value instanceof Number || value instanceof Character) {
+				add(Category.NUMBERS, numberSize(value));
+			} else {
+				add(Category.OTHER, align(HEADER + 2 * REFERENCE));
+			}
+		}
+
+		private static long numberSize(Object n) {
+			if (n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte) {
+				long l = ((Number)n).longValue();
+				if (l >= -128 && l <= 127) {
+					return 0;// cached by the JVM
+				}
+				return (n instanceof Long) ? align(HEADER + 8) : align(HEADER + 4);
+			}
+			if (n instanceof Double) {
+				return align(HEADER + 8);
+			}
+			if (n instanceof Float) {
+				return align(HEADER + 4);
+			}
+			if (n instanceof Character) {
+				return ((Character)n < 128) ? 0 : align(HEADER + 2);
+			}
+			if (n instanceof BigInteger) {
+				return align(HEADER + 4 * 4 + REFERENCE) + align(ARRAY_HEADER + ((BigInteger)n).bitLength() / 8 + 4);
+			}
+			if (n instanceof BigDecimal) {
+				BigInteger unscaled = ((BigDecimal)n).unscaledValue();
+				return align(HEADER + 8 + 4 * 2 + 2 * REFERENCE) + numberSize(unscaled);
+			}
+			return align(HEADER + 8);
+		}
+	}
+}
\ No newline at end of file
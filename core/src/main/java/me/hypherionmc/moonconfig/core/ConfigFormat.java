@@ -44,6 +44,17 @@ public interface ConfigFormat<C extends Config> {
 		return createConfig(Config.getDefaultMapCreator(true));
 	}
 
+	/**
+	 * Creates a {@link PersistentConfig} of this format. Such a config can be cloned in constant
+	 * time, and the parsers can build directly into it, for instance with
+	 * {@code createParser().parse(reader, format.createPersistentConfig(), ParsingMode.REPLACE)}.
+	 *
+	 * @return a new empty persistent config of this format
+	 */
+	default PersistentConfig createPersistentConfig() {
+		return new PersistentConfig(this);
+	}
+
 	/**
 	 * Creates a config that uses the given map supplier for all its levels (top
 	 * level and subconfigs).
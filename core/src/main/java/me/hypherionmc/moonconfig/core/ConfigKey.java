@@ -0,0 +1,345 @@
+package me.hypherionmc.moonconfig.core;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static me.hypherionmc.moonconfig.core.NullObject.NULL_OBJECT;
+
+/**
+ * A typed handle to a config value. A ConfigKey gathers everything that is needed to read a
+ * value: its path, its default value, the validator that tells whether the config value is
+ * correct and the converter that turns it into the right type.
+ * <p>
+ * The path is compiled once to a {@link ConfigPath}, and the result of the conversion is cached
+ * for each config (a few configs at most), with the config's {@link UnmodifiableConfig#version()
+ * version}: as long as the version doesn't change, {@link #get(UnmodifiableConfig)} returns the
+ * cached value without reading the config. If the version has changed but the raw value is still
+ * the same instance, the cached value is returned without validating or converting it again.
+ * This is particularly useful for enums, whose conversion from a String scans all the enum
+ * constants. Therefore the converter must not depend on the content of a mutable value, like a
+ * List, that may be modified without being replaced.
+ * <p>
+ * The writes that don't change the version, like the writes made directly on the
+ * {@link UnmodifiableConfig#valueMap() valueMap}, aren't seen by the key until the next counted
+ * modification of the config. The configs that don't track their version are always read.
+ * <p>
+ * The keys are meant to be created once and stored in constants, for instance:
+ * <pre>
+ * static final ConfigKey&lt;Integer&gt; PORT = ConfigKey.ofInt("server.port", 25565, 1, 65535);
+ * static final ConfigKey&lt;Mode&gt; MODE = ConfigKey.ofEnum("server.mode", Mode.NORMAL);
+ * ...
+ * int port = PORT.getInt(config);
+ * Mode mode = MODE.get(config);
+ * </pre>
+ * A key can also be registered in a {@link ConfigSpec} with {@link #define(ConfigSpec)}, so that
+ * the spec and the key use the same validator and default value.
+ *
+ * @param <T> the type of the value
+ */
+public final class ConfigKey<T> {
+	private static final int CACHE_SIZE = 4;// the number of configs cached by each key
+
+	private final ConfigPath path;
+	private final Supplier<? extends T> defaultValueSupplier;
+	private final Predicate<Object> validator;
+	private final Function<Object, ? extends T> converter;
+	private volatile Cached<T>[] cache = newCache();// one entry per config, copied on write
+
+	private ConfigKey(ConfigPath path, Supplier<? extends T> defaultValueSupplier,
+					  Predicate<Object> validator, Function<Object, ? extends T> converter) {
+		this.path = path;
+		this.defaultValueSupplier = Objects.requireNonNull(defaultValueSupplier,
+			"The supplier of the default value must not be null.");
+		this.validator = Objects.requireNonNull(validator, "The validator must not be null.");
+		this.converter = Objects.requireNonNull(converter, "The converter must not be null.");
+	}
+
+	/**
+	 * Creates a new ConfigKey.
+	 *
+	 * @param path                 the value's path, each part separated by a dot. Example "a.b.c"
+	 * @param defaultValueSupplier the Supplier of the value to use when the config value is
+	 *                             missing or incorrect
+	 * @param validator            the Predicate that determines if the raw config value is
+	 *                             correct or not
+	 * @param converter            the Function that converts a correct raw config value
+	 * @param <T>                  the type of the value
+	 * @return a new ConfigKey
+	 */
+	public static <T> ConfigKey<T> of(String path, Supplier<? extends T> defaultValueSupplier,
+									  Predicate<Object> validator,
+									  Function<Object, ? extends T> converter) {
+		return new ConfigKey<>(ConfigPath.of(path), defaultValueSupplier, validator, converter);
+	}
+
+	/**
+	 * Creates a new ConfigKey whose value must have the same type as, or a subtype of the type of
+	 * the default value.
+	 *
+	 * @param path         the value's path, each part separated by a dot. Example "a.b.c"
+	 * @param defaultValue the value to use when the config value is missing or incorrect
+	 * @param <T>          the type of the value
+	 * @return a new ConfigKey
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> ConfigKey<T> of(String path, T defaultValue) {
+		Class<?> type = defaultValue.getClass();
+		return of(path, () -> defaultValue, type::isInstance, o -> (T)o);
+	}
+
+	/**
+	 * Creates a new ConfigKey for an int value in the given range. Any Number in that range is
+	 * accepted and converted to an Integer.
+	 *
+	 * @param path         the value's path, each part separated by a dot. Example "a.b.c"
+	 * @param defaultValue the value to use when the config value is missing or incorrect
+	 * @param min          the minimum value, inclusive
+	 * @param max          the maximum value, inclusive
+	 * @return a new ConfigKey
+	 */
+	public static ConfigKey<Integer> ofInt(String path, int defaultValue, int min, int max) {
+		return of(path, () -> defaultValue, o -> isInRange(o, min, max),
+				  o -> ((Number)o).intValue());
+	}
+
+	/**
+	 * Creates a new ConfigKey for a long value in the given range. Any Number in that range is
+	 * accepted and converted to a Long.
+	 *
+	 * @param path         the value's path, each part separated by a dot. Example "a.b.c"
+	 * @param defaultValue the value to use when the config value is missing or incorrect
+	 * @param min          the minimum value, inclusive
+	 * @param max          the maximum value, inclusive
+	 * @return a new ConfigKey
+	 */
+	public static ConfigKey<Long> ofLong(String path, long defaultValue, long min, long max) {
+		return of(path, () -> defaultValue, o -> isInRange(o, min, max),
+				  o -> ((Number)o).longValue());
+	}
+
+	/**
+	 * Creates a new ConfigKey for a double value in the given range. Any Number in that range is
+	 * accepted and converted to a Double.
+	 *
+	 * @param path         the value's path, each part separated by a dot. Example "a.b.c"
+	 * @param defaultValue the value to use when the config value is missing or incorrect
+	 * @param min          the minimum value, inclusive
+	 * @param max          the maximum value, inclusive
+	 * @return a new ConfigKey
+	 */
+	public static ConfigKey<Double> ofDouble(String path, double defaultValue, double min,
+											 double max) {
+		return of(path, () -> defaultValue, o -> {
+			if (!(o instanceof Number)) {
+				return false;
+			}
+			double d = ((Number)o).doubleValue();
+			return d >= min && d <= max;
+		}, o -> ((Number)o).doubleValue());
+	}
+
+	/**
+	 * Creates a new ConfigKey for an enum value, with the method
+	 * {@link EnumGetMethod#NAME_IGNORECASE}.
+	 *
+	 * @param path         the value's path, each part separated by a dot. Example "a.b.c"
+	 * @param defaultValue the value to use when the config value is missing or incorrect
+	 * @param <T>          the type of the value
+	 * @return a new ConfigKey
+	 */
+	public static <T extends Enum<T>> ConfigKey<T> ofEnum(String path, T defaultValue) {
+		return ofEnum(path, defaultValue, EnumGetMethod.NAME_IGNORECASE);
+	}
+
+	/**
+	 * Creates a new ConfigKey for an enum value.
+	 *
+	 * @param path         the value's path, each part separated by a dot. Example "a.b.c"
+	 * @param defaultValue the value to use when the config value is missing or incorrect
+	 * @param method       the method to use when converting a non-enum value like a String or an
+	 *                     int
+	 * @param <T>          the type of the value
+	 * @return a new ConfigKey
+	 */
+	public static <T extends Enum<T>> ConfigKey<T> ofEnum(String path, T defaultValue,
+														  EnumGetMethod method) {
+		Class<T> enumType = defaultValue.getDeclaringClass();
+		return of(path, () -> defaultValue, o -> method.validate(o, enumType),
+				  o -> method.get(o, enumType));
+	}
+
+	private static boolean isInRange(Object o, long min, long max) {
+		if (!(o instanceof Number)) {
+			return false;
+		}
+		Number n = (Number)o;
+		long l = n.longValue();
+		return l >= min && l <= max && l == n.doubleValue();// rejects non-integer numbers
+	}
+
+	/**
+	 * @return the value's path
+	 */
+	public List<String> path() {
+		return path;
+	}
+
+	/**
+	 * @return the default value
+	 */
+	public T defaultValue() {
+		return defaultValueSupplier.get();
+	}
+
+	/**
+	 * Defines this key in a spec, with the same validator and default value.
+	 *
+	 * @param spec the spec
+	 */
+	public void define(ConfigSpec spec) {
+		spec.define(path, defaultValueSupplier, validator);
+	}
+
+	/**
+	 * Gets the value of this key in a config. If the config value is missing, or isn't correct
+	 * according to the key's validator, returns the default value.
+	 *
+	 * @param config the config
+	 * @return the value, converted to the key's type
+	 */
+	public T get(UnmodifiableConfig config) {
+		final long version = config.version();// read before the value, so it can't be newer
+		final Cached<T>[] entries = cache;
+		final int index = indexOf(entries, config);
+		final Cached<T> c = (index == -1) ? null : entries[index];
+		if (c != null && version >= 0 && c.version == version) {
+			return c.value;// not modified since the value was cached
+		}
+		final Object raw = config.getRaw(path);
+		T value = null;
+		if (c != null && c.raw == raw) {
+			value = c.value;
+		} else if (raw != null && raw != NULL_OBJECT && validator.test(raw)) {
+			value = converter.apply(raw);
+		}
+		if (value == null) {
+			value = defaultValueSupplier.get();
+		}
+		if (raw != null) {// the default value isn't cached, because it may be mutable
+			store(entries, index, new Cached<>(config, version, raw, value));
+		}
+		return value;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Cached<T>[] newCache() {
+		return (Cached<T>[])new Cached[CACHE_SIZE];
+	}
+
+	/**
+	 * @return the index of the config's entry in the cache, or -1 if there is none
+	 */
+	private static int indexOf(Cached<?>[] entries, UnmodifiableConfig config) {
+		for (int i = 0; i < entries.length; i++) {
+			Cached<?> c = entries[i];
+			if (c != null && c.config.get() == config) {// compares the identities
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Stores an entry in a copy of the cache. The entry replaces the previous entry of its
+	 * config, or else an entry whose config has been garbage collected, or else the oldest entry.
+	 * A concurrent update may be lost, which only costs a conversion.
+	 */
+	private void store(Cached<T>[] entries, int index, Cached<T> entry) {
+		Cached<T>[] copy = entries.clone();
+		if (index == -1) {
+			index = CACHE_SIZE - 1;
+			for (int i = 0; i < CACHE_SIZE; i++) {
+				if (copy[i] == null || copy[i].config.get() == null) {
+					index = i;
+					break;
+				}
+			}
+			System.arraycopy(copy, 0, copy, 1, index);// keeps the most recent entries first
+			index = 0;
+		}
+		copy[index] = entry;
+		cache = copy;
+	}
+
+	/**
+	 * Gets the value of this key in a config, as an int.
+	 *
+	 * @param config the config
+	 * @return the value, as an int
+	 * @throws ClassCastException if the value isn't a Number
+	 */
+	public int getInt(UnmodifiableConfig config) {
+		return ((Number)get(config)).intValue();
+	}
+
+	/**
+	 * Gets the value of this key in a config, as a long.
+	 *
+	 * @param config the config
+	 * @return the value, as a long
+	 * @throws ClassCastException if the value isn't a Number
+	 */
+	public long getLong(UnmodifiableConfig config) {
+		return ((Number)get(config)).longValue();
+	}
+
+	/**
+	 * Gets the value of this key in a config, as a double.
+	 *
+	 * @param config the config
+	 * @return the value, as a double
+	 * @throws ClassCastException if the value isn't a Number
+	 */
+	public double getDouble(UnmodifiableConfig config) {
+		return ((Number)get(config)).doubleValue();
+	}
+
+	/**
+	 * Sets the value of this key in a config.
+	 *
+	 * @param config the config
+	 * @param value  the value to set
+	 * @return the old raw value if any, or {@code null}
+	 */
+	public <R> R set(Config config, T value) {
+		return config.set(path, value);
+	}
+
+	@Override
+	public String toString() {
+		return "ConfigKey(" + String.join(".", path) + ')';
+	}
+
+	/**
+	 * The last converted value for a config, with the config's version and the raw value it comes
+	 * from. The config is weakly referenced so that a key, which is usually a constant, doesn't
+	 * keep it in memory.
+	 */
+	private static final class Cached<T> {
+		final WeakReference<UnmodifiableConfig> config;
+		final long version;
+		final Object raw;
+		final T value;
+
+		Cached(UnmodifiableConfig config, long version, Object raw, T value) {
+			this.config = new WeakReference<>(config);
+			this.version = version;
+			this.raw = raw;
+			this.value = value;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,134 @@
+package me.hypherionmc.moonconfig.core;
+
+import me.hypherionmc.moonconfig.core.utils.StringUtils;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable, pre-split config path. Creating a ConfigPath once and reusing it avoids splitting
+ * the same dotted String again and again, which is what the String-based methods of
+ * {@link UnmodifiableConfig} and {@link Config} do on every call.
+ * <p>
+ * A ConfigPath is a {@code List<String>}, therefore it can be given to every method that takes a
+ * path as a list, for instance {@link UnmodifiableConfig#get(List)} or
+ * {@link Config#set(List, Object)}. The configs that extend {@link AbstractConfig} walk such a
+ * path without allocating anything.
+ * <p>
+ * Example:
+ * <pre>
+ * static final ConfigPath PORT = ConfigPath.of("server.network.port");
+ * ...
+ * int port = config.getInt(PORT);
+ * </pre>
+ */
+public final class ConfigPath extends AbstractList<String> implements RandomAccess {
+	private final String[] parts;
+	private final int hash;
+
+	private ConfigPath(String[] parts) {
+		int h = 1;
+		for (int i = 0; i < parts.length; i++) {
+			String part = parts[i].intern();// shared with the other paths and the literal keys
+			parts[i] = part;
+			h = 31 * h + part.hashCode();// also caches the hash of the String
+		}
+		this.parts = parts;
+		this.hash = h;
+	}
+
+	/**
+	 * Compiles a dotted path to a ConfigPath. The path is split exactly like
+	 * {@link StringUtils#split(String, char)} does.
+	 *
+	 * @param path the path, each part separated by a dot. Example "a.b.c"
+	 * @return the compiled path
+	 */
+	public static ConfigPath of(String path) {
+		List<String> split = StringUtils.split(path, '.');
+		return new ConfigPath(split.toArray(new String[0]));
+	}
+
+	/**
+	 * Creates a ConfigPath made of the given parts.
+	 *
+	 * @param parts the parts of the path, must not be empty
+	 * @return the compiled path
+	 */
+	public static ConfigPath of(String... parts) {
+		if (parts.length == 0) {
+			throw new IllegalArgumentException("A config path cannot be empty");
+		}
+		return new ConfigPath(parts.clone());
+	}
+
+	/**
+	 * Creates a ConfigPath that contains the same parts as the given list. If the list is already
+	 * a ConfigPath, it is returned as it is.
+	 *
+	 * @param path the path, each element of the list is a different part of the path.
+	 * @return the compiled path
+	 */
+	public static ConfigPath of(List<String> path) {
+		if (path instanceof ConfigPath) {
+			return (ConfigPath)path;
+		}
+		if (path.isEmpty()) {
+			throw new IllegalArgumentException("A config path cannot be empty");
+		}
+		return new ConfigPath(path.toArray(new String[0]));
+	}
+
+	/**
+	 * Creates a new ConfigPath by appending a part to this path.
+	 *
+	 * @param part the part to append
+	 * @return a new path, this path is not modified
+	 */
+	public ConfigPath child(String part) {
+		String[] newParts = Arrays.copyOf(parts, parts.length + 1);
+		newParts[parts.length] = part;
+		return new ConfigPath(newParts);
+	}
+
+	/**
+	 * @return the last part of the path
+	 */
+	public String last() {
+		return parts[parts.length - 1];
+	}
+
+	@Override
+	public String get(int index) {
+		return parts[index];
+	}
+
+	@Override
+	public int size() {
+		return parts.length;
+	}
+
+	@Override
+	public Object[] toArray() {
+		return parts.clone();
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+		if (o instanceof ConfigPath) {
+			ConfigPath other = (ConfigPath)o;
+			return hash == other.hash && Arrays.equals(parts, other.parts);
+		}
+		return super.equals(o);
+	}
+}
\ No newline at end of file
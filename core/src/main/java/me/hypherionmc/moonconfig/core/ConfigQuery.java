@@ -0,0 +1,466 @@
+package me.hypherionmc.moonconfig.core;
+
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static me.hypherionmc.moonconfig.core.NullObject.NULL_OBJECT;
+
+/**
+ * A compiled path pattern, that selects the values of a config. The pattern is a dotted path
+ * whose parts can be:
+ * <ul>
+ * <li>a key, like {@code servers}, which matches the value with this key. In a list, a number
+ * matches the element with this index.</li>
+ * <li>{@code *}, which matches any value of a config, or any element of a list.</li>
+ * <li>{@code **}, which matches any number of levels, including zero.</li>
+ * </ul>
+ * A key or {@code *} can be followed by conditions between brackets, which the matched value must
+ * satisfy: it must be a config, and {@code [name]} requires that it contains a value at the path
+ * {@code name}, {@code [name=text]} that this value is equal to {@code text} when converted to a
+ * String, and {@code [name!=text]} the opposite.
+ * <p>
+ * For example, {@code servers.*.port} selects the port of each server, whether {@code servers} is
+ * a config or a list of configs like a TOML array of tables, {@code **.port} selects all the
+ * ports of the config, and {@code servers.*[enabled=true].name} the names of the enabled
+ * servers.
+ * <p>
+ * The pattern is compiled once to an automaton, whose states are the sets of pattern parts that
+ * can match the current position. The config is traversed in a single pass, without recursion,
+ * and only the branches that can still match are explored. When a part is a simple key, the value
+ * is looked up directly instead of iterating over the config. The results are produced lazily by
+ * a Stream, and the path of a result is only built if {@link Match#getPath()} is called.
+ * <p>
+ * A ConfigQuery is immutable and thread-safe, it can be stored in a constant. The config must not
+ * be modified while a stream returned by a query is used.
+ */
+public final class ConfigQuery {
+	private static final int MAX_PARTS = 63;
+	private final String pattern;
+	private final Part[] parts;
+	private final long initialState;
+
+	private ConfigQuery(String pattern, Part[] parts) {
+		this.pattern = pattern;
+		this.parts = parts;
+		this.initialState = closure(1L);
+	}
+
+	/**
+	 * Compiles a pattern.
+	 *
+	 * @param pattern the pattern, each part separated by a dot. Example "servers.*.port"
+	 * @return the compiled query
+	 * @throws IllegalArgumentException if the pattern is invalid
+	 */
+	public static ConfigQuery compile(String pattern) {
+		List<Part> parts = new ArrayList<>();
+		final int length = pattern.length();
+		int start = 0;
+		while (start < length) {
+			// Finds the end of the part, ignoring the dots between brackets
+			int end = start;
+			boolean inBrackets = false;
+			for (; end < length; end++) {
+				char c = pattern.charAt(end);
+				if (c == '[') {
+					inBrackets = true;
+				} else if (c == ']') {
+					inBrackets = false;
+				} else if (c == '.' && !inBrackets) {
+					break;
+				}
+			}
+			Part part = Part.parse(pattern, start, end);
+			if (!(part.anyDepth && !parts.isEmpty() && parts.get(parts.size() - 1).anyDepth)) {
+				parts.add(part);// "**.**" is the same as "**"
+			}
+			start = end + 1;
+		}
+		if (parts.size() > MAX_PARTS) {
+			throw new IllegalArgumentException("Too many parts in the pattern: " + pattern);
+		}
+		return new ConfigQuery(pattern, parts.toArray(new Part[0]));
+	}
+
+	/**
+	 * Selects the values that match this query.
+	 *
+	 * @param config the config to query
+	 * @param <T>    the type of the values
+	 * @return a sequential Stream of the matching values, in the order of the config
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Stream<T> select(UnmodifiableConfig config) {
+		return matches(config).map(m -> (T)m.getValue());
+	}
+
+	/**
+	 * Finds the values that match this query, with their paths.
+	 *
+	 * @param config the config to query
+	 * @return a sequential Stream of the matches, in the order of the config
+	 */
+	public Stream<Match> matches(UnmodifiableConfig config) {
+		Spliterator<Match> spliterator = Spliterators.spliteratorUnknownSize(new Walker(config),
+			Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false);
+	}
+
+	/**
+	 * Adds the positions that can be reached without consuming a level, that is, by matching
+	 * zero levels with "**".
+	 */
+	private long closure(long state) {
+		for (int i = 0; i < parts.length; i++) {
+			if ((state & (1L << i)) != 0 && parts[i].anyDepth) {
+				state |= 1L << (i + 1);
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * Computes the state of a child from the state of its parent.
+	 */
+	private long step(long state, String key, int index, Object value) {
+		long next = 0;
+		for (int i = 0; i < parts.length; i++) {
+			if ((state & (1L << i)) != 0) {
+				Part part = parts[i];
+				if (part.anyDepth) {
+					next |= 1L << i;
+				} else if (part.matches(key, index, value)) {
+					next |= 1L << (i + 1);
+				}
+			}
+		}
+		return closure(next);
+	}
+
+	/**
+	 * @return true if a value with this state matches the whole pattern
+	 */
+	private boolean isFinal(long state) {
+		return (state & (1L << parts.length)) != 0;
+	}
+
+	/**
+	 * @return true if the children of a value with this state may match the pattern
+	 */
+	private boolean canContinue(long state) {
+		return (state & ((1L << parts.length) - 1)) != 0;
+	}
+
+	/**
+	 * @return the simple part that the children must match, if it's the only possibility
+	 */
+	private Part singleKey(long state) {
+		if (Long.bitCount(state) == 1) {
+			Part part = parts[Long.numberOfTrailingZeros(state)];
+			if (part.key != null) {
+				return part;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return "ConfigQuery(" + pattern + ')';
+	}
+
+	/**
+	 * A value that matches a query.
+	 */
+	public static final class Match {
+		private final Frame parent;
+		private final String key;
+		private final int index;
+		private final Object value;
+
+		Match(Frame parent, String key, int index, Object value) {
+			this.parent = parent;
+			this.key = key;
+			this.index = index;
+			this.value = value;
+		}
+
+		/**
+		 * Returns the path of the value. The indexes of the list elements are converted to
+		 * Strings.
+		 *
+		 * @return the path, in an unmodifiable list
+		 */
+		public List<String> getPath() {
+			int size = 0;
+			for (Frame f = parent; f != null; f = f.parent) {
+				size++;
+			}
+			if (size == 0) {
+				return Collections.emptyList();// the root config
+			}
+			String[] path = new String[size];
+			path[--size] = (key != null) ? key : Integer.toString(index);
+			for (Frame f = parent; f.parent != null; f = f.parent) {
+				path[--size] = f.name();
+			}
+			return Collections.unmodifiableList(Arrays.asList(path));
+		}
+
+		/**
+		 * @return the value, null if it's a null value
+		 */
+		@SuppressWarnings("unchecked")
+		public <T> T getValue() {
+			return (value == NULL_OBJECT) ? null : (T)value;
+		}
+
+		@Override
+		public String toString() {
+			return String.join(".", getPath()) + '=' + value;
+		}
+	}
+
+	/**
+	 * A part of the pattern.
+	 */
+	private static final class Part {
+		final boolean anyDepth;// "**"
+		final String key;// null for "*" and "**"
+		final int index;// the key as a list index, -1 if it isn't a number
+		final Condition[] conditions;
+
+		Part(boolean anyDepth, String key, Condition[] conditions) {
+			this.anyDepth = anyDepth;
+			this.key = key;
+			this.index = (key == null) ? -1 : parseIndex(key);
+			this.conditions = conditions;
+		}
+
+		static Part parse(String pattern, int start, int end) {
+			int bracket = pattern.indexOf('[', start);
+			if (bracket < 0 || bracket > end) {
+				bracket = end;
+			}
+			String head = pattern.substring(start, bracket);
+			if (head.isEmpty()) {
+				throw new IllegalArgumentException("Empty part in the pattern: " + pattern);
+			}
+			List<Condition> conditions = new ArrayList<>(2);
+			for (int i = bracket; i < end; ) {
+				int close = pattern.indexOf(']', i);
+				if (pattern.charAt(i) != '[' || close < 0 || close >= end) {
+					throw new IllegalArgumentException("Invalid condition in the pattern: " + pattern);
+				}
+				conditions.add(Condition.parse(pattern.substring(i + 1, close)));
+				i = close + 1;
+			}
+			Condition[] array = conditions.toArray(new Condition[0]);
+			switch (head) {
+				case "**":
+					if (array.length > 0) {
+						throw new IllegalArgumentException("\"**\" can't have conditions: " + pattern);
+					}
+					return new Part(true, null, array);
+				case "*":
+					return new Part(false, null, array);
+				default:
+					return new Part(false, head, array);
+			}
+		}
+
+		private static int parseIndex(String key) {
+			if (key.isEmpty() || key.length() > 9) {
+				return -1;
+			}
+			for (int i = 0; i < key.length(); i++) {
+				char c = key.charAt(i);
+				if (c < '0' || c > '9') {
+					return -1;
+				}
+			}
+			return Integer.parseInt(key);
+		}
+
+		/**
+		 * Checks if a child matches this part. The key is null for list elements.
+		 */
+		boolean matches(String childKey, int childIndex, Object value) {
+			if (key != null && ((childKey == null) ? (index != childIndex) : !key.equals(childKey))) {
+				return false;
+			}
+			for (Condition condition : conditions) {
+				if (!condition.test(value)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * A condition on the content of a matched config.
+	 */
+	private static final class Condition {
+		final List<String> path;
+		final String expected;// null to check the existence of the value
+		final boolean negated;
+
+		Condition(List<String> path, String expected, boolean negated) {
+			this.path = path;
+			this.expected = expected;
+			this.negated = negated;
+		}
+
+		static Condition parse(String condition) {
+			int eq = condition.indexOf('=');
+			if (eq < 0) {
+				return new Condition(split(condition), null, false);
+			}
+			boolean negated = (eq > 0 && condition.charAt(eq - 1) == '!');
+			String name = condition.substring(0, negated ? eq - 1 : eq);
+			return new Condition(split(name), condition.substring(eq + 1), negated);
+		}
+
+		private static List<String> split(String name) {
+			if (name.isEmpty()) {
+				throw new IllegalArgumentException("Missing name in the condition");
+			}
+			return ConfigPath.of(name);
+		}
+
+		boolean test(Object value) {
+			if (!(value instanceof UnmodifiableConfig)) {
+				return false;
+			}
+			UnmodifiableConfig config = (UnmodifiableConfig)value;
+			if (expected == null) {
+				return config.contains(path);
+			}
+			Object raw = config.getRaw(path);
+			boolean equal = raw != null && expected.equals((raw == NULL_OBJECT) ? "null" : raw.toString());
+			return equal != negated;
+		}
+	}
+
+	/**
+	 * A config or a list that is being traversed.
+	 */
+	private static final class Frame {
+		final Frame parent;
+		final String key;// null for the root and the list elements
+		final int index;
+		final long state;
+		Iterator<Map.Entry<String, Object>> entries;// for a config
+		List<?> list;// for a list
+		int position;// for a list
+		Part single;// if the only child that can match is the one with this key or index
+
+		Frame(Frame parent, String key, int index, long state) {
+			this.parent = parent;
+			this.key = key;
+			this.index = index;
+			this.state = state;
+		}
+
+		String name() {
+			return (key != null) ? key : Integer.toString(index);
+		}
+	}
+
+	private final class Walker implements Iterator<Match> {
+		private final ArrayDeque<Frame> stack = new ArrayDeque<>();
+		private Match next;
+
+		Walker(UnmodifiableConfig root) {
+			if (isFinal(initialState)) {
+				next = new Match(null, null, -1, root);
+			}
+			if (canContinue(initialState)) {
+				push(new Frame(null, null, -1, initialState), root);
+			}
+		}
+
+		private void push(Frame frame, Object container) {
+			frame.single = singleKey(frame.state);
+			if (container instanceof UnmodifiableConfig) {
+				Map<String, Object> map = ((UnmodifiableConfig)container).valueMap();
+				if (frame.single != null) {
+					Object value = map.get(frame.single.key);
+					if (value == null) {
+						return;// no child can match
+					}
+					frame.entries = Collections.singletonMap(frame.single.key, value).entrySet().iterator();
+				} else {
+					frame.entries = map.entrySet().iterator();
+				}
+			} else {
+				List<?> list = (List<?>)container;
+				if (frame.single != null) {
+					if (frame.single.index < 0 || frame.single.index >= list.size()) {
+						return;
+					}
+					frame.position = frame.single.index;
+				}
+				frame.list = list;
+			}
+			stack.push(frame);
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (next == null && !stack.isEmpty()) {
+				advance(stack.peek());
+			}
+			return next != null;
+		}
+
+		/**
+		 * Visits the next child of a frame.
+		 */
+		private void advance(Frame frame) {
+			String key;
+			int index;
+			Object value;
+			if (frame.entries != null) {
+				if (!frame.entries.hasNext()) {
+					stack.pop();
+					return;
+				}
+				Map.Entry<String, Object> entry = frame.entries.next();
+				key = entry.getKey();
+				index = -1;
+				value = entry.getValue();
+			} else {
+				if (frame.position >= frame.list.size() || (frame.single != null && frame.position > frame.single.index)) {
+					stack.pop();
+					return;
+				}
+				key = null;
+				index = frame.position++;
+				value = frame.list.get(index);
+			}
+			long state = step(frame.state, key, index, value);
+			if (state == 0) {
+				return;
+			}
+			if (isFinal(state)) {
+				next = new Match(frame, key, index, value);
+			}
+			if (canContinue(state) && (value instanceof UnmodifiableConfig || value instanceof List)) {
+				push(new Frame(frame, key, index, state), value);
+			}
+		}
+
+		@Override
+		public Match next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Match m = next;
+			next = null;
+			return m;
+		}
+	}
+}
\ No newline at end of file
@@ -1,6 +1,6 @@
 package me.hypherionmc.moonconfig.core;
 
-import me.hypherionmc.moonconfig.core.utils.StringUtils;
+import me.hypherionmc.moonconfig.core.utils.PathCache;
 
 import java.util.*;
 import java.util.function.Predicate;
@@ -78,7 +78,7 @@ public class ConfigSpec {
 	 * @param defaultValue the default entry value
 	 */
 	public void define(String path, Object defaultValue) {
-		define(StringUtils.split(path, '.'), defaultValue);
+		define(PathCache.split(path), defaultValue);
 	}
 
 	/**
@@ -102,7 +102,7 @@ public class ConfigSpec {
 	 * @param validator    the Predicate that determines if the value is correct or not
 	 */
 	public void define(String path, Object defaultValue, Predicate<Object> validator) {
-		define(StringUtils.split(path, '.'), defaultValue, validator);
+		define(PathCache.split(path), defaultValue, validator);
 	}
 
 	/**
@@ -114,7 +114,7 @@ public class ConfigSpec {
 	 * @param validator            the Predicate that determines if the value is correct or not
 	 */
 	public void define(String path, Supplier<?> defaultValueSupplier, Predicate<Object> validator) {
-		define(StringUtils.split(path, '.'), defaultValueSupplier, validator);
+		define(PathCache.split(path), defaultValueSupplier, validator);
 	}
 
 	/**
@@ -152,7 +152,7 @@ public class ConfigSpec {
 	 */
 	public <V> void defineOfClass(String path, V defaultValue,
 								  Class<? super V> acceptableValueClass) {
-		defineOfClass(StringUtils.split(path, '.'), new DumbSupplier<>(defaultValue), acceptableValueClass);
+		defineOfClass(PathCache.split(path), new DumbSupplier<>(defaultValue), acceptableValueClass);
 	}
 
 	/**
@@ -165,7 +165,7 @@ public class ConfigSpec {
 	 */
 	public <V> void defineOfClass(String path, Supplier<V> defaultValueSupplier,
 								  Class<? super V> acceptableValueClass) {
-		defineOfClass(StringUtils.split(path, '.'), defaultValueSupplier, acceptableValueClass);
+		defineOfClass(PathCache.split(path), defaultValueSupplier, acceptableValueClass);
 	}
 
 	/**
@@ -204,7 +204,7 @@ public class ConfigSpec {
 	 * @param acceptableValues the Collection containing all the acceptable values
 	 */
 	public void defineInList(String path, Object defaultValue, Collection<?> acceptableValues) {
-		defineInList(StringUtils.split(path, '.'), defaultValue, acceptableValues);
+		defineInList(PathCache.split(path), defaultValue, acceptableValues);
 	}
 
 	/**
@@ -217,7 +217,7 @@ public class ConfigSpec {
 	 */
 	public void defineInList(String path, Supplier<?> defaultValueSupplier,
 							 Collection<?> acceptableValues) {
-		defineInList(StringUtils.split(path, '.'), defaultValueSupplier, acceptableValues);
+		defineInList(PathCache.split(path), defaultValueSupplier, acceptableValues);
 	}
 
 	/**
@@ -257,7 +257,7 @@ public class ConfigSpec {
 	 */
 	public <V extends Comparable<? super V>> void defineInRange(String path, V defaultValue, V min,
 																V max) {
-		defineInRange(StringUtils.split(path, '.'), defaultValue, min, max);
+		defineInRange(PathCache.split(path), defaultValue, min, max);
 	}
 
 	/**
@@ -272,7 +272,7 @@ public class ConfigSpec {
 	public <V extends Comparable<? super V>> void defineInRange(String path,
 																Supplier<V> defaultValueSupplier,
 																V min, V max) {
-		defineInRange(StringUtils.split(path, '.'), defaultValueSupplier, min, max);
+		defineInRange(PathCache.split(path), defaultValueSupplier, min, max);
 	}
 
 	/**
@@ -326,7 +326,7 @@ public class ConfigSpec {
 	 * @param elementValidator the Predicate that checks that every element of the list is correct
 	 */
 	public void defineList(String path, List<?> defaultValue, Predicate<Object> elementValidator) {
-		defineList(StringUtils.split(path, '.'), defaultValue, elementValidator);
+		defineList(PathCache.split(path), defaultValue, elementValidator);
 	}
 
 	/**
@@ -341,7 +341,7 @@ public class ConfigSpec {
 	 */
 	public void defineList(String path, Supplier<List<?>> defaultValueSupplier,
 						   Predicate<Object> elementValidator) {
-		defineList(StringUtils.split(path, '.'), defaultValueSupplier, elementValidator);
+		defineList(PathCache.split(path), defaultValueSupplier, elementValidator);
 	}
 
 	/**
@@ -384,7 +384,7 @@ public class ConfigSpec {
 	// --- defineEnum ---
 
 	public <T extends Enum<T>> void defineEnum(String path, T defaultValue, EnumGetMethod method) {
-		defineEnum(StringUtils.split(path, '.'), defaultValue, method);
+		defineEnum(PathCache.split(path), defaultValue, method);
 	}
 
 	public <T extends Enum<T>> void defineEnum(List<String> path,
@@ -397,7 +397,7 @@ public class ConfigSpec {
 											   Class<T> enumType,
 											   EnumGetMethod method,
 											   Supplier<T> defaultValueSupplier) {
-		defineEnum(StringUtils.split(path, '.'), enumType, method, defaultValueSupplier);
+		defineEnum(PathCache.split(path), enumType, method, defaultValueSupplier);
 	}
 
 	public <T extends Enum<T>> void defineEnum(List<String> path,
@@ -414,7 +414,7 @@ public class ConfigSpec {
 														 T defaultValue,
 														 Collection<T> acceptableValues,
 														 EnumGetMethod method) {
-		defineRestrictedEnum(StringUtils.split(path, '.'), defaultValue, acceptableValues, method);
+		defineRestrictedEnum(PathCache.split(path), defaultValue, acceptableValues, method);
 	}
 
 	public <T extends Enum<T>> void defineRestrictedEnum(List<String> path,
@@ -429,7 +429,7 @@ public class ConfigSpec {
 													     Collection<T> acceptableValues,
 													     EnumGetMethod method,
 													     Supplier<T> defaultValueSupplier) {
-		defineRestrictedEnum(StringUtils.split(path, '.'), enumType, acceptableValues, method, defaultValueSupplier);
+		defineRestrictedEnum(PathCache.split(path), enumType, acceptableValues, method, defaultValueSupplier);
 	}
 
 	public <T extends Enum<T>> void defineRestrictedEnum(List<String> path,
@@ -448,7 +448,7 @@ public class ConfigSpec {
 	 * @param path the entry's path
 	 */
 	public void undefine(String path) {
-		undefine(StringUtils.split(path, '.'));
+		undefine(PathCache.split(path));
 	}
 
 	/**
@@ -467,7 +467,7 @@ public class ConfigSpec {
 	 * @return {@code true} if it has been defined, {@code false} otherwise
 	 */
 	public boolean isDefined(String path) {
-		return isDefined(StringUtils.split(path, '.'));
+		return isDefined(PathCache.split(path));
 	}
 
 	/**
@@ -488,7 +488,7 @@ public class ConfigSpec {
 	 * @return {@code true} if it's correct, {@code false} if it's incorrect
 	 */
 	public boolean isCorrect(String path, Object value) {
-		return isCorrect(StringUtils.split(path, '.'), value);
+		return isCorrect(PathCache.split(path), value);
 	}
 
 	/**
@@ -560,7 +560,7 @@ public class ConfigSpec {
 	 * @return the corrected value, or the value itself if's it already correct
 	 */
 	public Object correct(String path, Object value) {
-		return correct(StringUtils.split(path, '.'), value);
+		return correct(PathCache.split(path), value);
 	}
 
 	/**
@@ -594,7 +594,19 @@ public class ConfigSpec {
 	 * @return the number of added, removed or replaced values.
 	 */
 	public int correct(Config config, CorrectionListener listener) {
-		return correct(config.valueMap(), storage.valueMap(), new ArrayList<>(), listener, config::createSubConfig);
+		if (config instanceof SnapshotConfig) {// corrects a copy, published as a single version
+			if (isCorrect(config)) {
+				return 0;
+			}
+			int[] count = {0};
+			((SnapshotConfig)config).update(copy -> count[0] = correct(copy, listener));
+			return count[0];
+		}
+		int count = correct(config.valueMap(), storage.valueMap(), new ArrayList<>(), listener, config::createSubConfig);
+		if (count > 0 && config instanceof AbstractConfig) {
+			((AbstractConfig)config).modified();// the maps have been modified directly
+		}
+		return count;
 	}
 
 	/**
@@ -0,0 +1,40 @@
+package me.hypherionmc.moonconfig.core;
+
+import java.util.List;
+
+/**
+ * A visitor of config trees, called by {@link UnmodifiableConfig#walk(ConfigVisitor)}.
+ * <p>
+ * The path given to the methods is a view of a list that is reused during the whole walk, so
+ * that walking a tree doesn't create a list per value: it is only valid during the call, and must
+ * be copied to be kept.
+ */
+public interface ConfigVisitor {
+	/**
+	 * Called before visiting the content of a sub-config.
+	 *
+	 * @param path   the path of the sub-config
+	 * @param config the sub-config
+	 * @return true to visit the content of the sub-config, false to skip it
+	 */
+	default boolean enterConfig(List<String> path, UnmodifiableConfig config) {
+		return true;
+	}
+
+	/**
+	 * Called after visiting the content of a sub-config. Isn't called if
+	 * {@link #enterConfig(List, UnmodifiableConfig)} has returned false.
+	 *
+	 * @param path   the path of the sub-config
+	 * @param config the sub-config
+	 */
+	default void exitConfig(List<String> path, UnmodifiableConfig config) {}
+
+	/**
+	 * Called for each value that isn't a config.
+	 *
+	 * @param path  the path of the value
+	 * @param value the raw value, {@link NullObject#NULL_OBJECT} for a null value
+	 */
+	void visitValue(List<String> path, Object value);
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package me.hypherionmc.moonconfig.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Walks a config tree for a {@link ConfigVisitor}. The walker is itself the action given to
+ * {@link UnmodifiableConfig#forEachEntry(BiConsumer)} at each level, and the path is a single
+ * list that grows and shrinks during the walk, so no object is created per entry.
+ */
+final class ConfigWalker implements BiConsumer<String, Object> {
+	private final ConfigVisitor visitor;
+	private final List<String> path = new ArrayList<>();
+	private final List<String> pathView = Collections.unmodifiableList(path);
+
+	ConfigWalker(ConfigVisitor visitor) {
+		this.visitor = visitor;
+	}
+
+	void walk(UnmodifiableConfig root) {
+		root.forEachEntry(this);
+	}
+
+	@Override
+	public void accept(String key, Object value) {
+		path.add(key);
+		if (value instanceof UnmodifiableConfig) {
+			UnmodifiableConfig config = (UnmodifiableConfig)value;
+			if (visitor.enterConfig(pathView, config)) {
+				config.forEachEntry(this);
+				visitor.exitConfig(pathView, config);
+			}
+		} else {
+			visitor.visitValue(pathView, value);
+		}
+		path.remove(path.size() - 1);
+	}
+}
\ No newline at end of file
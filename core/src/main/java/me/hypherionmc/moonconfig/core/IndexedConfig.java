@@ -0,0 +1,408 @@
+package me.hypherionmc.moonconfig.core;
+
+import me.hypherionmc.moonconfig.core.io.ConfigParser;
+import me.hypherionmc.moonconfig.core.io.ParsingMode;
+import me.hypherionmc.moonconfig.core.utils.ConfigWrapper;
+import me.hypherionmc.moonconfig.core.utils.PathCache;
+
+import java.io.Reader;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A config wrapper that maintains an index of the paths of all its leaf values, that is, the
+ * values that aren't sub-configs. The index is a trie whose nodes are the parts of the paths, and
+ * each node knows how many leaves are below it. It answers prefix queries without walking the
+ * config:
+ * <ul>
+ * <li>{@link #leafPaths(List)} enumerates the leaves under a prefix in O(prefix length + number
+ * of results)</li>
+ * <li>{@link #countLeaves(List)} counts them in O(prefix length)</li>
+ * <li>{@link #containsPrefix(List)} checks if there is at least one of them in O(prefix length)
+ * </li>
+ * </ul>
+ * The index is updated incrementally by the modifications made through this wrapper, including
+ * its {@link #valueMap()}. A modification costs O(path length), plus the size of the sub-config
+ * if a whole sub-config is added or replaced.
+ * <p>
+ * The sub-configs returned by the getters aren't indexed: to modify a nested value, use its full
+ * path. If the wrapped config is modified directly, for instance by reloading a FileConfig, call
+ * {@link #reindex()} afterwards. To parse data into the config, use
+ * {@link #load(ConfigParser, Reader, ParsingMode)}, which writes directly to the wrapped config and
+ * builds the index once at the end.
+ * <p>
+ * An empty sub-config contains no leaf, and is therefore not visible in the index. The lists are
+ * leaves, even if they contain configs.
+ * <p>
+ * This class isn't thread-safe.
+ */
+public final class IndexedConfig extends ConfigWrapper<Config> {
+	private Node root = new Node(true);
+
+	/**
+	 * Creates a new IndexedConfig around a config, and indexes its current content.
+	 *
+	 * @param config the config to wrap
+	 */
+	public IndexedConfig(Config config) {
+		super(config);
+		index(root, config);
+	}
+
+	/**
+	 * Rebuilds the index from the content of the wrapped config.
+	 */
+	public void reindex() {
+		Node newRoot = new Node(true);
+		index(newRoot, config);
+		root = newRoot;
+	}
+
+	/**
+	 * Parses some data into this config, and updates the index. This is faster than parsing into
+	 * this config directly, because the index is built once instead of being updated for each value.
+	 *
+	 * @param parser      the parser to use
+	 * @param reader      the Reader to parse
+	 * @param parsingMode the parsing mode
+	 */
+	public void load(ConfigParser<?> parser, Reader reader, ParsingMode parsingMode) {
+		try {
+			parser.parse(reader, config, parsingMode);
+		} finally {
+			reindex();
+		}
+	}
+
+	/**
+	 * Gets the paths of all the leaf values under a prefix.
+	 *
+	 * @param prefix the prefix, each part separated by a dot. Example "a.b.c"
+	 * @return the paths of the leaves, in a new list
+	 */
+	public List<List<String>> leafPaths(String prefix) {
+		return leafPaths(split(prefix));
+	}
+
+	/**
+	 * Gets the paths of all the leaf values under a prefix. If the prefix is itself the path of a
+	 * leaf, the result only contains this path. If the prefix is empty, all the leaves are returned.
+	 *
+	 * @param prefix the prefix, each element of the list is a different part of the path
+	 * @return the paths of the leaves, in a new list
+	 */
+	public List<List<String>> leafPaths(List<String> prefix) {
+		Node node = find(prefix);
+		if (node == null) {
+			return new ArrayList<>(0);
+		}
+		List<List<String>> result = new ArrayList<>(node.leafCount);
+		forEachLeaf(node, new ArrayList<>(prefix), result::add);
+		return result;
+	}
+
+	/**
+	 * Calls an action for each leaf value under a prefix. The path given to the action is an
+	 * unmodifiable list. The config must not be modified during the iteration.
+	 *
+	 * @param prefix the prefix, each element of the list is a different part of the path
+	 * @param action the action to call with the path of each leaf
+	 */
+	public void forEachLeafPath(List<String> prefix, Consumer<? super List<String>> action) {
+		Node node = find(prefix);
+		if (node != null) {
+			forEachLeaf(node, new ArrayList<>(prefix), action);
+		}
+	}
+
+	/**
+	 * Counts the leaf values under a prefix.
+	 *
+	 * @param prefix the prefix, each part separated by a dot. Example "a.b.c"
+	 * @return the number of leaves under the prefix
+	 */
+	public int countLeaves(String prefix) {
+		return countLeaves(split(prefix));
+	}
+
+	/**
+	 * Counts the leaf values under a prefix.
+	 *
+	 * @param prefix the prefix, each element of the list is a different part of the path
+	 * @return the number of leaves under the prefix
+	 */
+	public int countLeaves(List<String> prefix) {
+		Node node = find(prefix);
+		return (node == null) ? 0 : node.leafCount;
+	}
+
+	/**
+	 * Checks if there is at least one leaf value under a prefix.
+	 *
+	 * @param prefix the prefix, each part separated by a dot. Example "a.b.c"
+	 * @return true if there is a leaf under the prefix, or at the prefix
+	 */
+	public boolean containsPrefix(String prefix) {
+		return containsPrefix(split(prefix));
+	}
+
+	/**
+	 * Checks if there is at least one leaf value under a prefix.
+	 *
+	 * @param prefix the prefix, each element of the list is a different part of the path
+	 * @return true if there is a leaf under the prefix, or at the prefix
+	 */
+	public boolean containsPrefix(List<String> prefix) {
+		return find(prefix) != null;
+	}
+
+	private static List<String> split(String path) {
+		return path.isEmpty() ? Collections.emptyList() : PathCache.split(path);
+	}
+
+	/**
+	 * @return the node at the given path, or null if there is no leaf at or below this path
+	 */
+	private Node find(List<String> path) {
+		Node node = root;
+		for (String key : path) {
+			if (node.children == null || (node = node.children.get(key)) == null) {
+				return null;
+			}
+		}
+		return (node.leafCount == 0) ? null : node;
+	}
+
+	private static void forEachLeaf(Node node, List<String> path,
+									Consumer<? super List<String>> action) {
+		if (node.children == null) {
+			action.accept(Collections.unmodifiableList(Arrays.asList(path.toArray(new String[0]))));
+			return;
+		}
+		for (Map.Entry<String, Node> entry : node.children.entrySet()) {
+			path.add(entry.getKey());
+			forEachLeaf(entry.getValue(), path, action);
+			path.remove(path.size() - 1);
+		}
+	}
+
+	/**
+	 * Indexes all the leaves of a config below the given node, which must be empty.
+	 *
+	 * @return the number of leaves that have been indexed
+	 */
+	private static int index(Node node, UnmodifiableConfig config) {
+		int count = 0;
+		for (Map.Entry<String, Object> entry : config.valueMap().entrySet()) {
+			Object value = entry.getValue();
+			Node child;
+			int n;
+			if (value instanceof UnmodifiableConfig) {
+				child = new Node(true);
+				n = index(child, (UnmodifiableConfig)value);
+			} else {
+				child = new Node(false);
+				child.leafCount = n = 1;
+			}
+			if (n > 0) {
+				node.children.put(entry.getKey(), child);
+				count += n;
+			}
+		}
+		node.leafCount = count;
+		return count;
+	}
+
+	/**
+	 * Updates the index after the value at the given path has been replaced, added or removed.
+	 *
+	 * @param path     the path of the modified value
+	 * @param newValue the new value
+	 * @param exists   true if there is a value at this path, false if it has been removed
+	 */
+	private void update(List<String> path, Object newValue, boolean exists) {
+		final int size = path.size();
+		if (size == 0) {
+			return;
+		}
+		Node newNode = null;
+		int added = 0;
+		if (exists) {
+			if (newValue instanceof UnmodifiableConfig) {
+				newNode = new Node(true);
+				added = index(newNode, (UnmodifiableConfig)newValue);
+			} else {
+				newNode = new Node(false);
+				newNode.leafCount = added = 1;
+			}
+		}
+		// Finds the current node, and creates the missing parents
+		Node[] parents = new Node[size];
+		Node node = root;
+		for (int i = 0; i < size; i++) {
+			if (node.children == null) {// the path goes through a leaf
+				if (added != 0) {// the config has replaced the leaf by a sub-config
+					reindex();
+				}
+				return;
+			}
+			parents[i] = node;
+			Node next = node.children.get(path.get(i));
+			if (next == null) {
+				if (added == 0) {
+					return;// nothing to remove nor to add
+				}
+				next = new Node(true);
+				node.children.put(path.get(i), next);
+			}
+			node = next;
+		}
+		// Replaces it and updates the counts of the parents
+		final Node parent = parents[size - 1];
+		final String key = path.get(size - 1);
+		if (added == 0) {
+			parent.children.remove(key);
+		} else {
+			parent.children.put(key, newNode);
+		}
+		final int delta = added - node.leafCount;
+		for (int i = size - 1; i >= 0 && delta != 0; i--) {
+			Node p = parents[i];
+			p.leafCount += delta;
+			if (p.leafCount == 0 && i > 0) {// removes the parents that have become empty
+				parents[i - 1].children.remove(path.get(i - 1));
+			}
+		}
+	}
+
+	@Override
+	public <T> T set(List<String> path, Object value) {
+		T old = super.set(path, value);
+		update(path, value, true);
+		return old;
+	}
+
+	@Override
+	public boolean add(List<String> path, Object value) {
+		boolean added = super.add(path, value);
+		if (added) {
+			update(path, value, true);
+		}
+		return added;
+	}
+
+	@Override
+	public <T> T compute(List<String> path, Function<? super T, ? extends T> remappingFunction) {
+		T newValue = config.compute(path, remappingFunction);
+		update(path, newValue, newValue != null);
+		return newValue;
+	}
+
+	@Override
+	public <T> T remove(List<String> path) {
+		T old = super.remove(path);
+		update(path, null, false);
+		return old;
+	}
+
+	@Override
+	public void putAll(UnmodifiableConfig config) {
+		this.config.putAll(config);
+		for (String key : config.valueMap().keySet()) {
+			List<String> path = Collections.singletonList(key);
+			update(path, this.config.getRaw(path), true);
+		}
+	}
+
+	@Override
+	public void removeAll(UnmodifiableConfig config) {
+		this.config.removeAll(config);
+		for (String key : config.valueMap().keySet()) {
+			update(Collections.singletonList(key), null, false);
+		}
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		root = new Node(true);
+	}
+
+	/**
+	 * Returns a Map view of the config's values. The modifications of the map go through the
+	 * methods of this config, and are therefore indexed.
+	 */
+	@Override
+	public Map<String, Object> valueMap() {
+		return new ValueMap();
+	}
+
+	@Override
+	public Set<? extends Config.Entry> entrySet() {
+		return Collections.unmodifiableSet(config.entrySet());
+	}
+
+	@Override
+	public String toString() {
+		return "indexed " + config;
+	}
+
+	/**
+	 * A node of the trie. A leaf has no children map.
+	 */
+	private static final class Node {
+		Map<String, Node> children;
+		int leafCount;
+
+		Node(boolean hasChildren) {
+			children = hasChildren ? new LinkedHashMap<>() : null;
+		}
+	}
+
+	private final class ValueMap extends AbstractMap<String, Object> {
+		private final Map<String, Object> map = config.valueMap();
+
+		@Override
+		public int size() {
+			return map.size();
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return map.containsKey(key);
+		}
+
+		@Override
+		public Object get(Object key) {
+			return map.get(key);
+		}
+
+		@Override
+		public Object put(String key, Object value) {
+			Object old = map.put(key, value);
+			update(Collections.singletonList(key), value, true);
+			return old;
+		}
+
+		@Override
+		public Object remove(Object key) {
+			if (!(key instanceof String)) {
+				return null;
+			}
+			Object old = map.remove(key);
+			update(Collections.singletonList((String)key), null, false);
+			return old;
+		}
+
+		@Override
+		public void clear() {
+			IndexedConfig.this.clear();
+		}
+
+		@Override
+		public Set<Map.Entry<String, Object>> entrySet() {
+			return Collections.unmodifiableMap(map).entrySet();
+		}
+	}
+}
\ No newline at end of file
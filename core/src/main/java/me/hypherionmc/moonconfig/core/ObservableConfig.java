@@ -0,0 +1,308 @@
+package me.hypherionmc.moonconfig.core;
+
+import me.hypherionmc.moonconfig.core.ConfigDiff.Change;
+import me.hypherionmc.moonconfig.core.ConfigDiff.Type;
+import me.hypherionmc.moonconfig.core.utils.ConfigWrapper;
+import me.hypherionmc.moonconfig.core.utils.PathCache;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static me.hypherionmc.moonconfig.core.NullObject.NULL_OBJECT;
+
+/**
+ * A config wrapper that notifies listeners of the modifications of specific paths. A listener
+ * subscribes to a path, and receives a {@link Change} (with the path, the old value and the new
+ * value) each time the value at this path, or below it, is modified through this wrapper. It is
+ * also notified when one of the parents of the path is replaced or removed, since that changes
+ * the value too.
+ * <p>
+ * The subscriptions are stored in a trie, indexed by the parts of their path. Therefore a
+ * modification only visits the subscriptions along its path (and below it, if a whole sub-config
+ * is replaced), and its cost doesn't depend on the total number of subscriptions. When there is
+ * no subscription, the modifications are simply forwarded to the wrapped config.
+ * <p>
+ * Only the modifications made through this wrapper, including its {@link #valueMap()}, are
+ * reported. The sub-configs returned by the getters aren't observed: to modify a nested value,
+ * use its full path.
+ * <p>
+ * Example:
+ * <pre>
+ * ObservableConfig config = new ObservableConfig(Config.inMemory());
+ * config.subscribe("server.port", change -&gt; restartServer(change.getNewValue()));
+ * config.set("server.port", 8080);// calls the listener
+ * </pre>
+ */
+public final class ObservableConfig extends ConfigWrapper<Config> {
+	private final Node root = new Node();
+
+	/**
+	 * Creates a new ObservableConfig around a config.
+	 *
+	 * @param config the config to wrap
+	 */
+	public ObservableConfig(Config config) {
+		super(config);
+	}
+
+	/**
+	 * Subscribes to the modifications of a path.
+	 *
+	 * @param path     the path, each part separated by a dot. Example "a.b.c"
+	 * @param listener the listener to call when the value at this path, or below, is modified
+	 */
+	public void subscribe(String path, Consumer<? super Change> listener) {
+		subscribe(PathCache.split(path), listener);
+	}
+
+	/**
+	 * Subscribes to the modifications of a path.
+	 *
+	 * @param path     the path, each element of the list is a different part of the path. An
+	 *                 empty path subscribes to all the modifications.
+	 * @param listener the listener to call when the value at this path, or below, is modified
+	 */
+	public void subscribe(List<String> path, Consumer<? super Change> listener) {
+		Objects.requireNonNull(listener, "The listener must not be null.");
+		Node node = root;
+		for (String key : path) {
+			node = node.children.computeIfAbsent(key, k -> new Node());
+		}
+		node.listeners.add(listener);
+	}
+
+	/**
+	 * Removes a subscription.
+	 *
+	 * @param path     the path, each part separated by a dot. Example "a.b.c"
+	 * @param listener the listener that has been given to {@link #subscribe(String, Consumer)}
+	 * @return true if the subscription has been removed, false if it didn't exist
+	 */
+	public boolean unsubscribe(String path, Consumer<? super Change> listener) {
+		return unsubscribe(PathCache.split(path), listener);
+	}
+
+	/**
+	 * Removes a subscription.
+	 *
+	 * @param path     the path, each element of the list is a different part of the path.
+	 * @param listener the listener that has been given to {@link #subscribe(List, Consumer)}
+	 * @return true if the subscription has been removed, false if it didn't exist
+	 */
+	public boolean unsubscribe(List<String> path, Consumer<? super Change> listener) {
+		Node node = root;
+		for (String key : path) {
+			node = node.children.get(key);
+			if (node == null) {
+				return false;
+			}
+		}
+		return node.listeners.remove(listener);
+		// The empty nodes are kept, because removing them safely would require a lock.
+	}
+
+	/**
+	 * @return true if nothing has subscribed to this config
+	 */
+	private boolean hasNoSubscription() {
+		return root.children.isEmpty() && root.listeners.isEmpty();
+	}
+
+	/**
+	 * Notifies the listeners concerned by a modification.
+	 */
+	private void fire(List<String> path, Object oldValue, Object newValue) {
+		if (oldValue == null && newValue == null) {
+			return;// nothing has been added nor removed
+		}
+		Type type = (oldValue == null) ? Type.ADDED : (newValue == null) ? Type.REMOVED : Type.CHANGED;
+		if (type == Type.CHANGED && oldValue.equals(newValue)) {
+			return;
+		}
+		Change change = new Change(type, false, Collections.unmodifiableList(new ArrayList<>(path)),
+								   oldValue, newValue);
+		Node node = root;
+		node.notifyListeners(change);
+		for (String key : path) {
+			node = node.children.get(key);
+			if (node == null) {
+				return;
+			}
+			node.notifyListeners(change);
+		}
+		for (Node child : node.children.values()) {
+			child.notifySubtree(change);
+		}
+	}
+
+	/**
+	 * Converts a value read from or returned by the wrapped config to the form given to the
+	 * listeners, where null means that there is no value.
+	 */
+	private static Object external(Object value) {
+		return (value == NULL_OBJECT) ? null : value;
+	}
+
+	@Override
+	public <T> T set(List<String> path, Object value) {
+		if (hasNoSubscription()) {
+			return super.set(path, value);
+		}
+		boolean existed = config.contains(path);
+		T old = super.set(path, value);
+		Object oldValue = existed ? ((old == null) ? NULL_OBJECT : old) : null;
+		fire(path, oldValue, (value == null) ? NULL_OBJECT : value);
+		return old;
+	}
+
+	@Override
+	public boolean add(List<String> path, Object value) {
+		boolean added = super.add(path, value);
+		if (added && !hasNoSubscription()) {
+			fire(path, null, (value == null) ? NULL_OBJECT : value);
+		}
+		return added;
+	}
+
+	@Override
+	public <T> T compute(List<String> path, Function<? super T, ? extends T> remappingFunction) {
+		if (hasNoSubscription()) {
+			return config.compute(path, remappingFunction);
+		}
+		Object[] old = new Object[1];
+		T newValue = config.compute(path, (T v) -> {
+			old[0] = v;
+			return remappingFunction.apply(v);
+		});
+		fire(path, old[0], newValue);
+		return newValue;
+	}
+
+	@Override
+	public <T> T remove(List<String> path) {
+		if (hasNoSubscription()) {
+			return super.remove(path);
+		}
+		boolean existed = config.contains(path);
+		T old = super.remove(path);
+		if (existed) {
+			fire(path, (old == null) ? NULL_OBJECT : old, null);
+		}
+		return old;
+	}
+
+	@Override
+	public void putAll(UnmodifiableConfig config) {
+		for (Map.Entry<String, Object> entry : config.valueMap().entrySet()) {
+			set(Collections.singletonList(entry.getKey()), external(entry.getValue()));
+		}
+	}
+
+	@Override
+	public void removeAll(UnmodifiableConfig config) {
+		for (String key : config.valueMap().keySet()) {
+			remove(Collections.singletonList(key));
+		}
+	}
+
+	@Override
+	public void clear() {
+		if (hasNoSubscription()) {
+			super.clear();
+			return;
+		}
+		Map<String, Object> removed = new HashMap<>(config.valueMap());
+		super.clear();
+		for (Map.Entry<String, Object> entry : removed.entrySet()) {
+			fire(Collections.singletonList(entry.getKey()), entry.getValue(), null);
+		}
+	}
+
+	/**
+	 * Returns a Map view of the config's values. The modifications of the map go through the
+	 * methods of this config, and are therefore reported to the listeners.
+	 */
+	@Override
+	public Map<String, Object> valueMap() {
+		return new ValueMap();
+	}
+
+	@Override
+	public Set<? extends Config.Entry> entrySet() {
+		return Collections.unmodifiableSet(config.entrySet());
+	}
+
+	@Override
+	public String toString() {
+		return "observable of " + config;
+	}
+
+	/**
+	 * A node of the trie of subscriptions.
+	 */
+	private static final class Node {
+		final Map<String, Node> children = new ConcurrentHashMap<>(4);
+		final List<Consumer<? super Change>> listeners = new CopyOnWriteArrayList<>();
+
+		void notifyListeners(Change change) {
+			for (Consumer<? super Change> listener : listeners) {
+				listener.accept(change);
+			}
+		}
+
+		/**
+		 * Notifies the listeners of this node and of all its descendants.
+		 */
+		void notifySubtree(Change change) {
+			notifyListeners(change);
+			for (Node child : children.values()) {
+				child.notifySubtree(change);
+			}
+		}
+	}
+
+	private final class ValueMap extends AbstractMap<String, Object> {
+		private final Map<String, Object> map = config.valueMap();
+
+		@Override
+		public int size() {
+			return map.size();
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return map.containsKey(key);
+		}
+
+		@Override
+		public Object get(Object key) {
+			return map.get(key);
+		}
+
+		@Override
+		public Object put(String key, Object value) {
+			return set(Collections.singletonList(key), external(value));
+		}
+
+		@Override
+		public Object remove(Object key) {
+			if (!(key instanceof String)) {
+				return null;
+			}
+			return ObservableConfig.this.remove(Collections.singletonList((String)key));
+		}
+
+		@Override
+		public void clear() {
+			ObservableConfig.this.clear();
+		}
+
+		@Override
+		public Set<Map.Entry<String, Object>> entrySet() {
+			return Collections.unmodifiableMap(map).entrySet();
+		}
+	}
+}
\ No newline at end of file
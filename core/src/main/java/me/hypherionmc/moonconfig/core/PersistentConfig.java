@@ -0,0 +1,795 @@
+package me.hypherionmc.moonconfig.core;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+import static me.hypherionmc.moonconfig.core.NullObject.NULL_OBJECT;
+
+/**
+ * A config backed by persistent (immutable) hash tries. Cloning a PersistentConfig with
+ * {@link #clone()} takes a constant time, whatever its size, and a modification only copies the
+ * trie nodes on the path to the modified entry. Therefore a large config can be cloned for each
+ * user or request, and each clone modified independently, without copying the whole config.
+ * <p>
+ * The sub-configs returned by this config are views: they always reflect the current content
+ * of the config at their path, and modifying them modifies the config. Conversely, a config
+ * that is put into a PersistentConfig is copied (in constant time if it's a PersistentConfig),
+ * so it can be modified afterwards without affecting the PersistentConfig.
+ * <p>
+ * The lists are copied too, with the configs they contain, and returned as unmodifiable lists.
+ * The configs in these lists are independent copies (created in constant time): to modify a list,
+ * or a config in a list, set the modified list again. The other values are stored as they are.
+ * <p>
+ * The entries are kept in insertion order. This class isn't thread-safe.
+ */
+@SuppressWarnings("unchecked")
+public final class PersistentConfig implements CommentedConfig, Cloneable {
+	private static final String[] NO_PREFIX = {};
+
+	private final Root root;
+	private final String[] prefix;// the path of this config in the root config
+	private Map<String, PersistentConfig> childViews;// created when needed
+
+	/**
+	 * Creates a new empty PersistentConfig.
+	 *
+	 * @param configFormat the config's format
+	 */
+	public PersistentConfig(ConfigFormat<?> configFormat) {
+		this(new Root(Level.EMPTY, configFormat), NO_PREFIX);
+	}
+
+	/**
+	 * Creates a new PersistentConfig that contains a copy of the given config.
+	 *
+	 * @param toCopy the config to copy
+	 */
+	public PersistentConfig(UnmodifiableConfig toCopy) {
+		this(new Root(Level.of(toCopy), toCopy.configFormat()), NO_PREFIX);
+	}
+
+	private PersistentConfig(Root root, String[] prefix) {
+		this.root = root;
+		this.prefix = prefix;
+	}
+
+	/**
+	 * Creates a copy of this config in constant time. The copy shares its data with this config
+	 * until one of them is modified.
+	 *
+	 * @return a new PersistentConfig with the same content
+	 */
+	@Override
+	public PersistentConfig clone() {
+		return new PersistentConfig(new Root(level(), root.configFormat), NO_PREFIX);
+	}
+
+	/**
+	 * @return the level that contains the data of this config, never null
+	 */
+	private Level level() {
+		Level level = root.level;
+		for (String key : prefix) {
+			Object value = level.values.get(key);
+			if (!(value instanceof Level)) {// the sub-config has been removed or replaced
+				return Level.EMPTY;
+			}
+			level = (Level)value;
+		}
+		return level;
+	}
+
+	/**
+	 * Checks if two configs share the same data, in O(1). Since the levels are immutable, two
+	 * configs that share a level have the same content. This is used by {@link ConfigDiff} to
+	 * skip the unchanged sub-configs.
+	 *
+	 * @return true if the configs have the same content, false if they may differ
+	 */
+	boolean sharesContentWith(PersistentConfig other) {
+		return level() == other.level();
+	}
+
+	/**
+	 * @return the map of the values of this config, used by {@link ConfigFootprint}
+	 */
+	PersistentMap storedValues() {
+		return level().values;
+	}
+
+	/**
+	 * @return the map of the comments of this config, used by {@link ConfigFootprint}
+	 */
+	PersistentMap storedComments() {
+		return level().comments;
+	}
+
+	/**
+	 * Finds the level that contains the last element of the path.
+	 *
+	 * @return the parent level, or null if there is none
+	 */
+	private Level parentLevel(List<String> path, int lastIndex) {
+		Level level = level();
+		for (int i = 0; i < lastIndex; i++) {
+			Object value = level.values.get(path.get(i));
+			if (!(value instanceof Level)) {
+				return null;
+			}
+			level = (Level)value;
+		}
+		return level;
+	}
+
+	/**
+	 * Returns the full path of an entry, from the root config.
+	 */
+	private String[] fullPath(List<String> path) {
+		String[] full = Arrays.copyOf(prefix, prefix.length + path.size());
+		for (int i = 0; i < path.size(); i++) {
+			full[prefix.length + i] = path.get(i);
+		}
+		return full;
+	}
+
+	private String[] childPrefix(String key) {
+		String[] childPrefix = Arrays.copyOf(prefix, prefix.length + 1);
+		childPrefix[prefix.length] = key;
+		return childPrefix;
+	}
+
+	/**
+	 * Gets the view of a sub-config of this config. The views are cached, since a view stays
+	 * valid as long as it's used: it reads the sub-config at its path each time. To limit the
+	 * memory used by the views of the removed sub-configs, the cache is cleared when it has more
+	 * views than this config has entries.
+	 */
+	private PersistentConfig childView(String key) {
+		if (childViews == null) {
+			childViews = new HashMap<>();
+		}
+		PersistentConfig view = childViews.get(key);
+		if (view == null) {
+			if (childViews.size() >= Math.max(8, size())) {
+				childViews.clear();
+			}
+			view = new PersistentConfig(root, childPrefix(key));
+			childViews.put(key, view);
+		}
+		return view;
+	}
+
+	/**
+	 * Gets the levels on a full path. Any missing level is created (but not stored).
+	 *
+	 * @return an array where the element {@code i} is the level that contains {@code full[i]}
+	 */
+	private Level[] walk(String[] full) {
+		final int lastIndex = full.length - 1;
+		Level[] levels = new Level[full.length];
+		Level level = root.level;
+		levels[0] = level;
+		for (int i = 0; i < lastIndex; i++) {
+			Object value = level.values.get(full[i]);
+			if (value == null) {// missing intermediary level
+				level = Level.EMPTY;
+			} else if (!(value instanceof Level)) {// incompatible intermediary level
+				throw new IllegalArgumentException(
+					"Cannot add an element to an intermediary value of type: " + value.getClass());
+			} else {
+				level = (Level)value;
+			}
+			levels[i + 1] = level;
+		}
+		return levels;
+	}
+
+	/**
+	 * Replaces the last level of a full path by a new one, and copies its ancestors to form the
+	 * new root level.
+	 */
+	private void commit(String[] full, Level[] levels, Level newLast) {
+		final int lastIndex = full.length - 1;
+		if (newLast == levels[lastIndex]) {
+			return;// nothing has changed
+		}
+		Level child = newLast;
+		for (int i = lastIndex; i > 0; i--) {
+			Level parent = levels[i - 1];
+			child = new Level(parent.values.put(full[i - 1], child), parent.comments);
+		}
+		root.level = child;
+		root.version++;
+	}
+
+	/**
+	 * Converts a value to the form stored in the tries.
+	 */
+	private static Object toStored(Object value) {
+		return (value == null) ? NULL_OBJECT : toStoredElement(value);
+	}
+
+	/**
+	 * Converts a value, or an element of a list, to the form stored in the tries. The configs are
+	 * stored as levels, and the lists as immutable StoredLists.
+	 */
+	private static Object toStoredElement(Object value) {
+		if (value instanceof PersistentConfig) {
+			return ((PersistentConfig)value).level();
+		} else if (value instanceof UnmodifiableConfig) {
+			return Level.of((UnmodifiableConfig)value);
+		} else if (value instanceof ListView) {
+			return ((ListView)value).list;// already immutable
+		} else if (value instanceof List) {
+			List<?> list = (List<?>)value;
+			Object[] elements = new Object[list.size()];
+			int i = 0;
+			for (Object element : list) {
+				elements[i++] = toStoredElement(element);
+			}
+			return new StoredList(elements);
+		}
+		return value;
+	}
+
+	/**
+	 * Converts a stored value to the form returned to the user.
+	 */
+	private Object toExternal(String key, Object stored) {
+		if (stored instanceof Level) {
+			return childView(key);
+		}
+		return detached(stored);
+	}
+
+	/**
+	 * Converts a value that is no longer in the config, or that is in a list, to the form
+	 * returned to the user. A sub-config is returned as a standalone copy, since there is no view
+	 * to it.
+	 */
+	private Object detached(Object stored) {
+		return detached(stored, root.configFormat);
+	}
+
+	private static Object detached(Object stored, ConfigFormat<?> configFormat) {
+		if (stored instanceof Level) {
+			return new PersistentConfig(new Root((Level)stored, configFormat), NO_PREFIX);
+		} else if (stored instanceof StoredList) {
+			return new ListView((StoredList)stored, configFormat);
+		}
+		return stored;
+	}
+
+	@Override
+	public <T> T getRaw(List<String> path) {
+		final int lastIndex = path.size() - 1;
+		Level parent = parentLevel(path, lastIndex);
+		if (parent == null) {
+			return null;
+		}
+		Object stored = parent.values.get(path.get(lastIndex));
+		if (stored instanceof Level) {
+			PersistentConfig view = this;
+			for (String key : path) {
+				view = view.childView(key);
+			}
+			return (T)view;
+		}
+		return (T)detached(stored);
+	}
+
+	@Override
+	public boolean contains(List<String> path) {
+		final int lastIndex = path.size() - 1;
+		Level parent = parentLevel(path, lastIndex);
+		return parent != null && parent.values.get(path.get(lastIndex)) != null;
+	}
+
+	@Override
+	public boolean isNull(List<String> path) {
+		final int lastIndex = path.size() - 1;
+		Level parent = parentLevel(path, lastIndex);
+		return parent != null && parent.values.get(path.get(lastIndex)) == NULL_OBJECT;
+	}
+
+	@Override
+	public <T> T set(List<String> path, Object value) {
+		String[] full = fullPath(path);
+		Level[] levels = walk(full);
+		Level last = levels[full.length - 1];
+		String key = full[full.length - 1];
+		Object previous = last.values.get(key);
+		commit(full, levels, new Level(last.values.put(key, toStored(value)), last.comments));
+		return (T)detached(previous);
+	}
+
+	@Override
+	public boolean add(List<String> path, Object value) {
+		String[] full = fullPath(path);
+		Level[] levels = walk(full);
+		Level last = levels[full.length - 1];
+		String key = full[full.length - 1];
+		if (last.values.get(key) != null) {
+			return false;
+		}
+		commit(full, levels, new Level(last.values.put(key, toStored(value)), last.comments));
+		return true;
+	}
+
+	@Override
+	public <T> T remove(List<String> path) {
+		final int lastIndex = path.size() - 1;
+		if (parentLevel(path, lastIndex) == null) {
+			return null;
+		}
+		String[] full = fullPath(path);
+		Level[] levels = walk(full);
+		Level last = levels[full.length - 1];
+		String key = full[full.length - 1];
+		Object previous = last.values.get(key);
+		if (previous == null) {
+			return null;
+		}
+		commit(full, levels, new Level(last.values.remove(key), last.comments));
+		return (T)detached(previous);
+	}
+
+	@Override
+	public void clear() {
+		replaceLevel(Level.EMPTY);
+	}
+
+	/**
+	 * Replaces the whole content of this config.
+	 */
+	private void replaceLevel(Level newLevel) {
+		if (prefix.length == 0) {
+			root.level = newLevel;
+			root.version++;
+		} else {
+			Level[] levels = walk(prefix);
+			Level last = levels[prefix.length - 1];
+			String key = prefix[prefix.length - 1];
+			commit(prefix, levels, new Level(last.values.put(key, newLevel), last.comments));
+		}
+	}
+
+	@Override
+	public String getComment(List<String> path) {
+		final int lastIndex = path.size() - 1;
+		Level parent = parentLevel(path, lastIndex);
+		return (parent == null) ? null : (String)parent.comments.get(path.get(lastIndex));
+	}
+
+	@Override
+	public boolean containsComment(List<String> path) {
+		return getComment(path) != null;
+	}
+
+	@Override
+	public String setComment(List<String> path, String comment) {
+		if (comment == null) {
+			return removeComment(path);
+		}
+		String[] full = fullPath(path);
+		Level[] levels = walk(full);
+		Level last = levels[full.length - 1];
+		String key = full[full.length - 1];
+		String previous = (String)last.comments.get(key);
+		commit(full, levels, new Level(last.values, last.comments.put(key, comment)));
+		return previous;
+	}
+
+	@Override
+	public String removeComment(List<String> path) {
+		final int lastIndex = path.size() - 1;
+		Level parent = parentLevel(path, lastIndex);
+		if (parent == null || parent.comments.get(path.get(lastIndex)) == null) {
+			return null;
+		}
+		String[] full = fullPath(path);
+		Level[] levels = walk(full);
+		Level last = levels[full.length - 1];
+		String key = full[full.length - 1];
+		String previous = (String)last.comments.get(key);
+		commit(full, levels, new Level(last.values, last.comments.remove(key)));
+		return previous;
+	}
+
+	@Override
+	public void clearComments() {
+		replaceLevel(level().withoutComments());
+	}
+
+	@Override
+	public int size() {
+		return level().values.size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The version is shared by a config and its sub-configs, so it is incremented by any
+	 * modification of the hierarchy. A clone starts with its own version.
+	 */
+	@Override
+	public long version() {
+		return root.version;
+	}
+
+	@Override
+	public Map<String, Object> valueMap() {
+		return new ValueMap();
+	}
+
+	@Override
+	public Map<String, String> commentMap() {
+		return new CommentMap();
+	}
+
+	@Override
+	public void forEachEntry(BiConsumer<? super String, Object> action) {
+		level().values.forEach((key, stored) -> action.accept(key, toExternal(key, stored)));
+	}
+
+	@Override
+	public void forEachCommentedEntry(CommentedEntryAction action) {
+		final Level level = level();
+		level.values.forEach((key, stored) -> {
+			action.accept(key, toExternal(key, stored), (String)level.comments.get(key));
+		});
+	}
+
+	@Override
+	public Set<? extends CommentedConfig.Entry> entrySet() {
+		return new AbstractSet<CommentedConfig.Entry>() {
+			@Override
+			public Iterator<CommentedConfig.Entry> iterator() {
+				final Level level = level();
+				final Iterator<Map.Entry<String, Object>> it = level.values.iterator();
+				return new Iterator<CommentedConfig.Entry>() {
+					@Override
+					public boolean hasNext() {
+						return it.hasNext();
+					}
+
+					@Override
+					public CommentedConfig.Entry next() {
+						Map.Entry<String, Object> entry = it.next();
+						return new PersistentEntry(entry.getKey(), entry.getValue(), level);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return PersistentConfig.this.size();
+			}
+		};
+	}
+
+	@Override
+	public CommentedConfig createSubConfig() {
+		return new PersistentConfig(root.configFormat);
+	}
+
+	@Override
+	public ConfigFormat<?> configFormat() {
+		return root.configFormat;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if (!(obj instanceof PersistentConfig)) {
+			return false;
+		}
+		PersistentConfig other = (PersistentConfig)obj;
+		return valueMap().equals(other.valueMap());
+	}
+
+	@Override
+	public int hashCode() {
+		return valueMap().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + ':' + valueMap();
+	}
+
+	/**
+	 * The mutable reference to the current root level, shared by a config and its views.
+	 */
+	private static final class Root {
+		Level level;
+		long version;// shared by the views, therefore incremented by any modification
+		final ConfigFormat<?> configFormat;
+
+		Root(Level level, ConfigFormat<?> configFormat) {
+			this.level = level;
+			this.configFormat = configFormat;
+		}
+	}
+
+	/**
+	 * The immutable data of a level of the config: the values and the comments. The sub-configs
+	 * are stored as Level objects.
+	 */
+	private static final class Level {
+		static final Level EMPTY = new Level(PersistentMap.EMPTY, PersistentMap.EMPTY);
+
+		final PersistentMap values, comments;
+
+		Level(PersistentMap values, PersistentMap comments) {
+			this.values = values;
+			this.comments = comments;
+		}
+
+		static Level of(UnmodifiableConfig config) {
+			PersistentMap values = PersistentMap.EMPTY;
+			PersistentMap comments = PersistentMap.EMPTY;
+			if (config instanceof UnmodifiableCommentedConfig) {
+				for (UnmodifiableCommentedConfig.Entry entry
+					: ((UnmodifiableCommentedConfig)config).entrySet()) {
+					values = values.put(entry.getKey(), toStored(entry.getRawValue()));
+					String comment = entry.getComment();
+					if (comment != null) {
+						comments = comments.put(entry.getKey(), comment);
+					}
+				}
+			} else {
+				for (Map.Entry<String, Object> entry : config.valueMap().entrySet()) {
+					values = values.put(entry.getKey(), toStored(entry.getValue()));
+				}
+			}
+			return new Level(values, comments);
+		}
+
+		Level withoutComments() {
+			PersistentMap newValues = values;
+			Iterator<Map.Entry<String, Object>> it = values.iterator();
+			while (it.hasNext()) {
+				Map.Entry<String, Object> entry = it.next();
+				Object value = entry.getValue();
+				if (value instanceof Level || value instanceof StoredList) {
+					newValues = newValues.put(entry.getKey(), withoutComments(value));
+				}
+			}
+			return new Level(newValues, PersistentMap.EMPTY);
+		}
+
+		private static Object withoutComments(Object stored) {
+			if (stored instanceof Level) {
+				return ((Level)stored).withoutComments();
+			} else if (stored instanceof StoredList) {
+				Object[] elements = ((StoredList)stored).elements.clone();
+				for (int i = 0; i < elements.length; i++) {
+					elements[i] = withoutComments(elements[i]);
+				}
+				return new StoredList(elements);
+			}
+			return stored;
+		}
+	}
+
+	/**
+	 * The immutable data of a list. The configs it contains are stored as Level objects.
+	 */
+	private static final class StoredList {
+		final Object[] elements;
+
+		StoredList(Object[] elements) {
+			this.elements = elements;
+		}
+	}
+
+	/**
+	 * An unmodifiable view of a StoredList. Each call to {@link #get(int)} returns a new copy of
+	 * the configs, in constant time.
+	 */
+	private static final class ListView extends AbstractList<Object> implements RandomAccess {
+		private final StoredList list;
+		private final ConfigFormat<?> configFormat;
+
+		ListView(StoredList list, ConfigFormat<?> configFormat) {
+			this.list = list;
+			this.configFormat = configFormat;
+		}
+
+		@Override
+		public Object get(int index) {
+			return detached(list.elements[index], configFormat);
+		}
+
+		@Override
+		public int size() {
+			return list.elements.length;
+		}
+	}
+
+	private final class PersistentEntry implements CommentedConfig.Entry {
+		private final String key;
+		private final Object stored;
+		private final Level level;
+
+		PersistentEntry(String key, Object stored, Level level) {
+			this.key = key;
+			this.stored = stored;
+			this.level = level;
+		}
+
+		@Override
+		public String getKey() {
+			return key;
+		}
+
+		@Override
+		public <T> T getRawValue() {
+			return (T)toExternal(key, stored);
+		}
+
+		@Override
+		public <T> T setValue(Object value) {
+			return set(Collections.singletonList(key), value);
+		}
+
+		@Override
+		public String getComment() {
+			return (String)level.comments.get(key);
+		}
+
+		@Override
+		public String setComment(String comment) {
+			return PersistentConfig.this.setComment(Collections.singletonList(key), comment);
+		}
+
+		@Override
+		public String removeComment() {
+			return PersistentConfig.this.removeComment(Collections.singletonList(key));
+		}
+	}
+
+	/**
+	 * A Map view of the values of the config. Its modifications are applied to the config.
+	 */
+	private final class ValueMap extends AbstractMap<String, Object> {
+		@Override
+		public Object get(Object key) {
+			if (!(key instanceof String)) {
+				return null;
+			}
+			return toExternal((String)key, level().values.get((String)key));
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return (key instanceof String) && level().values.get((String)key) != null;
+		}
+
+		@Override
+		public Object put(String key, Object value) {
+			return set(Collections.singletonList(key), value);
+		}
+
+		@Override
+		public Object remove(Object key) {
+			if (!(key instanceof String)) {
+				return null;
+			}
+			return PersistentConfig.this.remove(Collections.singletonList((String)key));
+		}
+
+		@Override
+		public void clear() {
+			PersistentConfig.this.clear();
+		}
+
+		@Override
+		public int size() {
+			return level().values.size();
+		}
+
+		@Override
+		public Set<Map.Entry<String, Object>> entrySet() {
+			return new AbstractSet<Map.Entry<String, Object>>() {
+				@Override
+				public Iterator<Map.Entry<String, Object>> iterator() {
+					final Iterator<Map.Entry<String, Object>> it = level().values.iterator();
+					return new Iterator<Map.Entry<String, Object>>() {
+						private String lastKey;
+
+						@Override
+						public boolean hasNext() {
+							return it.hasNext();
+						}
+
+						@Override
+						public Map.Entry<String, Object> next() {
+							Map.Entry<String, Object> entry = it.next();
+							lastKey = entry.getKey();
+							Object value = toExternal(lastKey, entry.getValue());
+							return new SimpleImmutableEntry<>(lastKey, value);
+						}
+
+						@Override
+						public void remove() {
+							if (lastKey == null) {
+								throw new IllegalStateException();
+							}
+							ValueMap.this.remove(lastKey);
+							lastKey = null;
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return ValueMap.this.size();
+				}
+			};
+		}
+	}
+
+	/**
+	 * A Map view of the comments of the config. Its modifications are applied to the config.
+	 */
+	private final class CommentMap extends AbstractMap<String, String> {
+		@Override
+		public String get(Object key) {
+			return (key instanceof String) ? (String)level().comments.get((String)key) : null;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public String put(String key, String value) {
+			return setComment(Collections.singletonList(key), value);
+		}
+
+		@Override
+		public String remove(Object key) {
+			if (!(key instanceof String)) {
+				return null;
+			}
+			return removeComment(Collections.singletonList((String)key));
+		}
+
+		@Override
+		public int size() {
+			return level().comments.size();
+		}
+
+		@Override
+		public Set<Map.Entry<String, String>> entrySet() {
+			return new AbstractSet<Map.Entry<String, String>>() {
+				@Override
+				public Iterator<Map.Entry<String, String>> iterator() {
+					final Iterator<Map.Entry<String, Object>> it = level().comments.iterator();
+					return new Iterator<Map.Entry<String, String>>() {
+						@Override
+						public boolean hasNext() {
+							return it.hasNext();
+						}
+
+						@Override
+						public Map.Entry<String, String> next() {
+							Map.Entry<String, Object> entry = it.next();
+							return new SimpleImmutableEntry<>(entry.getKey(), (String)entry.getValue());
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return CommentMap.this.size();
+				}
+			};
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,488 @@
+package me.hypherionmc.moonconfig.core;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable hash array mapped trie (HAMT) from String keys to non-null values. Each node
+ * holds up to 32 entries or sub-nodes, selected by 5 bits of the key's hash. A modification
+ * copies only the nodes on the path from the root to the modified entry, therefore the new map
+ * shares all the other nodes with the old one.
+ * <p>
+ * The keys are also stored in insertion order in a persistent vector, so that the map can be
+ * iterated in insertion order, in linear time, like a LinkedHashMap. Replacing the value of a key
+ * doesn't change its position. A removed key leaves a hole in the vector, and the map is rebuilt
+ * without the holes when they outnumber the entries.
+ */
+final class PersistentMap {
+	static final PersistentMap EMPTY = new PersistentMap(null, 0, KeyVector.EMPTY);
+
+	private final Node root;// null if empty
+	private final int size;
+	private final KeyVector order;// the keys in insertion order, and null for the removed ones
+
+	private PersistentMap(Node root, int size, KeyVector order) {
+		this.root = root;
+		this.size = size;
+		this.order = order;
+	}
+
+	/**
+	 * @return the number of entries in this map
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the value associated with a key.
+	 *
+	 * @param key the key
+	 * @return the value, or null if the map doesn't contain the key
+	 */
+	Object get(String key) {
+		Slot slot = findSlot(key);
+		return (slot == null) ? null : slot.getValue();
+	}
+
+	private Slot findSlot(String key) {
+		return (root == null) ? null : root.find(0, key.hashCode(), key);
+	}
+
+	/**
+	 * Returns a map with the given association.
+	 *
+	 * @param key   the key
+	 * @param value the value, not null
+	 * @return a new map, or this map if it already contains the association
+	 */
+	PersistentMap put(String key, Object value) {
+		boolean[] added = new boolean[1];
+		Node base = (root == null) ? BitmapNode.EMPTY : root;
+		Node newRoot = base.assoc(0, key.hashCode(), new Slot(key, order.length, value), added);
+		if (newRoot == root) {
+			return this;
+		}
+		if (added[0]) {
+			return new PersistentMap(newRoot, size + 1, order.append(key));
+		}
+		return new PersistentMap(newRoot, size, order);
+	}
+
+	/**
+	 * Returns a map without the given key.
+	 *
+	 * @param key the key to remove
+	 * @return a new map, or this map if it doesn't contain the key
+	 */
+	PersistentMap remove(String key) {
+		if (root == null) {
+			return this;
+		}
+		final int hash = key.hashCode();
+		final Slot slot = root.find(0, hash, key);
+		if (slot == null) {
+			return this;
+		}
+		final Node newRoot = root.without(0, hash, key);
+		final int newSize = size - 1;
+		if (newRoot == null) {
+			return EMPTY;
+		}
+		final KeyVector newOrder = order.remove(slot.order);
+		if (newOrder.length - newSize > newSize) {// more holes than entries
+			return compact(newRoot, newOrder);
+		}
+		return new PersistentMap(newRoot, newSize, newOrder);
+	}
+
+	/**
+	 * Rebuilds a map without the holes of its key vector, in O(n).
+	 */
+	private static PersistentMap compact(Node root, KeyVector order) {
+		PersistentMap map = EMPTY;
+		for (int i = 0; i < order.length; i++) {
+			String key = order.get(i);
+			if (key != null) {
+				map = map.put(key, root.find(0, key.hashCode(), key).getValue());
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * Returns an iterator over the entries of this map, in insertion order.
+	 *
+	 * @return an iterator over the entries of this map
+	 */
+	Iterator<Map.Entry<String, Object>> iterator() {
+		return (size == 0) ? Collections.emptyIterator() : new EntryIterator();
+	}
+
+	/**
+	 * @return the number of nodes of the trie, used by {@link ConfigFootprint}
+	 */
+	int nodeCount() {
+		return (root == null) ? 0 : root.nodeCount();
+	}
+
+	/**
+	 * @return the length of the key vector, including the holes, used by {@link ConfigFootprint}
+	 */
+	int orderLength() {
+		return order.length;
+	}
+
+	/**
+	 * Calls an action for each entry of this map, in insertion order.
+	 *
+	 * @param action the action to call
+	 */
+	void forEach(BiConsumer<? super String, Object> action) {
+		if (size == 0) {
+			return;
+		}
+		Object[] leaf = null;
+		for (int i = 0; i < order.length; i++) {
+			if ((i & 31) == 0) {
+				leaf = order.leafFor(i);
+			}
+			String key = (String)leaf[i & 31];
+			if (key != null) {
+				action.accept(key, findSlot(key).getValue());
+			}
+		}
+	}
+
+	private static int bitpos(int hash, int shift) {
+		return 1 << ((hash >>> shift) & 31);
+	}
+
+	private static Object[] cloneAndSet(Object[] array, int i, Object a) {
+		Object[] clone = array.clone();
+		clone[i] = a;
+		return clone;
+	}
+
+	private static Object[] cloneAndSet(Object[] array, int i, Object a, int j, Object b) {
+		Object[] clone = array.clone();
+		clone[i] = a;
+		clone[j] = b;
+		return clone;
+	}
+
+	private static Object[] removePair(Object[] array, int i) {
+		Object[] newArray = new Object[array.length - 2];
+		System.arraycopy(array, 0, newArray, 0, 2 * i);
+		System.arraycopy(array, 2 * (i + 1), newArray, 2 * i, newArray.length - 2 * i);
+		return newArray;
+	}
+
+	private static Node createNode(int shift, Slot slot1, int hash2, Slot slot2) {
+		int hash1 = slot1.getKey().hashCode();
+		if (hash1 == hash2) {
+			return new CollisionNode(hash1, new Object[] {slot1.getKey(), slot1, slot2.getKey(), slot2});
+		}
+		boolean[] added = new boolean[1];
+		return BitmapNode.EMPTY.assoc(shift, hash1, slot1, added)
+							   .assoc(shift, hash2, slot2, added);
+	}
+
+	/**
+	 * An entry of the map, with the insertion order of its key.
+	 */
+	private static final class Slot extends AbstractMap.SimpleImmutableEntry<String, Object> {
+		private static final long serialVersionUID = 1L;
+
+		final int order;// the index of the key in the key vector
+
+		Slot(String key, int order, Object value) {
+			super(key, value);
+			this.order = order;
+		}
+	}
+
+	/**
+	 * A node of the trie. Its array contains pairs of elements: either a key and its slot, or
+	 * null and a sub-node.
+	 */
+	private static abstract class Node {
+		final Object[] array;
+
+		Node(Object[] array) {
+			this.array = array;
+		}
+
+		abstract Slot find(int shift, int hash, String key);
+
+		/**
+		 * Associates the slot's key with the slot's value. If the key is already present, its
+		 * slot is replaced by one with the same order.
+		 */
+		abstract Node assoc(int shift, int hash, Slot slot, boolean[] added);
+
+		abstract Node without(int shift, int hash, String key);
+
+		int nodeCount() {
+			int count = 1;
+			for (int i = 0; i < array.length; i += 2) {
+				if (array[i] == null) {
+					count += ((Node)array[i + 1]).nodeCount();
+				}
+			}
+			return count;
+		}
+	}
+
+	private static final class BitmapNode extends Node {
+		static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+		private final int bitmap;
+
+		BitmapNode(int bitmap, Object[] array) {
+			super(array);
+			this.bitmap = bitmap;
+		}
+
+		private int index(int bit) {
+			return Integer.bitCount(bitmap & (bit - 1));
+		}
+
+		@Override
+		Slot find(int shift, int hash, String key) {
+			int bit = bitpos(hash, shift);
+			if ((bitmap & bit) == 0) {
+				return null;
+			}
+			int i = index(bit);
+			Object k = array[2 * i];
+			Object v = array[2 * i + 1];
+			if (k == null) {
+				return ((Node)v).find(shift + 5, hash, key);
+			}
+			return key.equals(k) ? (Slot)v : null;
+		}
+
+		@Override
+		Node assoc(int shift, int hash, Slot slot, boolean[] added) {
+			int bit = bitpos(hash, shift);
+			int i = index(bit);
+			if ((bitmap & bit) != 0) {
+				Object k = array[2 * i];
+				Object v = array[2 * i + 1];
+				if (k == null) {
+					Node n = ((Node)v).assoc(shift + 5, hash, slot, added);
+					return (n == v) ? this : new BitmapNode(bitmap, cloneAndSet(array, 2 * i + 1, n));
+				}
+				if (slot.getKey().equals(k)) {
+					Slot old = (Slot)v;
+					if (old.getValue() == slot.getValue()) {
+						return this;
+					}
+					Slot replacement = new Slot(old.getKey(), old.order, slot.getValue());
+					return new BitmapNode(bitmap, cloneAndSet(array, 2 * i + 1, replacement));
+				}
+				added[0] = true;
+				Node sub = createNode(shift + 5, (Slot)v, hash, slot);
+				return new BitmapNode(bitmap, cloneAndSet(array, 2 * i, null, 2 * i + 1, sub));
+			}
+			added[0] = true;
+			Object[] newArray = new Object[array.length + 2];
+			System.arraycopy(array, 0, newArray, 0, 2 * i);
+			newArray[2 * i] = slot.getKey();
+			newArray[2 * i + 1] = slot;
+			System.arraycopy(array, 2 * i, newArray, 2 * (i + 1), array.length - 2 * i);
+			return new BitmapNode(bitmap | bit, newArray);
+		}
+
+		@Override
+		Node without(int shift, int hash, String key) {
+			int bit = bitpos(hash, shift);
+			if ((bitmap & bit) == 0) {
+				return this;
+			}
+			int i = index(bit);
+			Object k = array[2 * i];
+			Object v = array[2 * i + 1];
+			if (k == null) {
+				Node n = ((Node)v).without(shift + 5, hash, key);
+				if (n == v) {
+					return this;
+				}
+				if (n != null) {
+					return new BitmapNode(bitmap, cloneAndSet(array, 2 * i + 1, n));
+				}
+			} else if (!key.equals(k)) {
+				return this;
+			}
+			return (bitmap == bit) ? null : new BitmapNode(bitmap ^ bit, removePair(array, i));
+		}
+	}
+
+	/**
+	 * A node that contains keys with the same hash.
+	 */
+	private static final class CollisionNode extends Node {
+		private final int hash;
+
+		CollisionNode(int hash, Object[] array) {
+			super(array);
+			this.hash = hash;
+		}
+
+		private int indexOf(String key) {
+			for (int i = 0; i < array.length; i += 2) {
+				if (key.equals(array[i])) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		Slot find(int shift, int hash, String key) {
+			if (hash != this.hash) {
+				return null;
+			}
+			int i = indexOf(key);
+			return (i == -1) ? null : (Slot)array[i + 1];
+		}
+
+		@Override
+		Node assoc(int shift, int hash, Slot slot, boolean[] added) {
+			if (hash != this.hash) {// nests this node in a bitmap node
+				Object[] wrapper = {null, this};
+				return new BitmapNode(bitpos(this.hash, shift), wrapper)
+					.assoc(shift, hash, slot, added);
+			}
+			int i = indexOf(slot.getKey());
+			if (i != -1) {
+				Slot old = (Slot)array[i + 1];
+				if (old.getValue() == slot.getValue()) {
+					return this;
+				}
+				Slot replacement = new Slot(old.getKey(), old.order, slot.getValue());
+				return new CollisionNode(hash, cloneAndSet(array, i + 1, replacement));
+			}
+			added[0] = true;
+			Object[] newArray = new Object[array.length + 2];
+			System.arraycopy(array, 0, newArray, 0, array.length);
+			newArray[array.length] = slot.getKey();
+			newArray[array.length + 1] = slot;
+			return new CollisionNode(hash, newArray);
+		}
+
+		@Override
+		Node without(int shift, int hash, String key) {
+			int i = (hash == this.hash) ? indexOf(key) : -1;
+			if (i == -1) {
+				return this;
+			}
+			return (array.length == 2) ? null : new CollisionNode(hash, removePair(array, i / 2));
+		}
+	}
+
+	/**
+	 * An immutable vector of keys, stored in a trie of arrays of up to 32 elements. Like the
+	 * HAMT, a modification copies only the arrays on the path to the modified element. The last
+	 * array of each level is only as long as needed.
+	 */
+	private static final class KeyVector {
+		static final KeyVector EMPTY = new KeyVector(new Object[0], 0, 0);
+
+		private final Object[] root;
+		private final int shift;// 5 times the number of levels above the leaves
+		final int length;
+
+		KeyVector(Object[] root, int length, int shift) {
+			this.root = root;
+			this.length = length;
+			this.shift = shift;
+		}
+
+		/**
+		 * @return the array that contains the element {@code i}
+		 */
+		Object[] leafFor(int i) {
+			Object[] node = root;
+			for (int s = shift; s > 0; s -= 5) {
+				node = (Object[])node[(i >>> s) & 31];
+			}
+			return node;
+		}
+
+		String get(int i) {
+			return (String)leafFor(i)[i & 31];
+		}
+
+		KeyVector append(String key) {
+			if (length > 0 && (length >>> shift) == 32) {// full: adds a level
+				Object[] newRoot = {root};
+				return new KeyVector(set(newRoot, shift + 5, length, key), length + 1, shift + 5);
+			}
+			return new KeyVector(set(root, shift, length, key), length + 1, shift);
+		}
+
+		/**
+		 * @return a vector with a hole at the given index
+		 */
+		KeyVector remove(int i) {
+			return new KeyVector(set(root, shift, i, null), length, shift);
+		}
+
+		private static Object[] set(Object[] node, int shift, int i, Object value) {
+			final int j = (i >>> shift) & 31;
+			Object[] copy = Arrays.copyOf(node, Math.max(node.length, j + 1));
+			if (shift == 0) {
+				copy[j] = value;
+			} else {
+				Object[] child = (j < node.length) ? (Object[])node[j] : EMPTY.root;
+				copy[j] = set(child, shift - 5, i, value);
+			}
+			return copy;
+		}
+	}
+
+	/**
+	 * Iterates over the entries in insertion order, by reading the key vector and finding the
+	 * slot of each key.
+	 */
+	private final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+		private Object[] leaf;
+		private int index = -1;
+		private Slot next;
+
+		EntryIterator() {
+			advance();
+		}
+
+		private void advance() {
+			while (++index < order.length) {
+				if ((index & 31) == 0) {
+					leaf = order.leafFor(index);
+				}
+				String key = (String)leaf[index & 31];
+				if (key != null) {
+					next = findSlot(key);
+					return;
+				}
+			}
+			next = null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Map.Entry<String, Object> next() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			Slot slot = next;
+			advance();
+			return slot;
+		}
+	}
+}
\ No newline at end of file
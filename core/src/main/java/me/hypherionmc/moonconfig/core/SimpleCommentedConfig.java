@@ -1,13 +1,14 @@
 package me.hypherionmc.moonconfig.core;
 
-import java.util.HashMap;
+import me.hypherionmc.moonconfig.core.utils.SmallMap;
+
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
 /**
  * Default concrete implementation of CommentedConfig. The values are stored in a map, generally a
- * HashMap, or a ConcurrentHashMap if the config is concurrent.
+ * {@link SmallMap}, or a ConcurrentHashMap if the config is concurrent.
  *
  * @author TheElectronWill
  */
@@ -20,7 +21,7 @@ final class SimpleCommentedConfig extends AbstractCommentedConfig {
 	 * @param configFormat the config's format
 	 */
 	SimpleCommentedConfig(ConfigFormat<?> configFormat, boolean concurrent) {
-		super(concurrent ? new ConcurrentHashMap<>() : new HashMap<>());
+		super(concurrent ? new ConcurrentHashMap<>() : new SmallMap<>());
 		this.configFormat = configFormat;
 	}
 
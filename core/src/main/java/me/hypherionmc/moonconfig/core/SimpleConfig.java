@@ -4,8 +4,9 @@ import java.util.Map;
 import java.util.function.Supplier;
 
 /**
- * Default concrete implementation of Config. The values are stored in a map, generally a HashMap,
- * or a ConcurrentHashMap if the config is concurrent.
+ * Default concrete implementation of Config. The values are stored in a map, generally a
+ * {@link me.hypherionmc.moonconfig.core.utils.SmallMap}, or a ConcurrentHashMap if the config is
+ * concurrent.
  */
 final class SimpleConfig extends AbstractConfig {
 	private final ConfigFormat<?> configFormat;
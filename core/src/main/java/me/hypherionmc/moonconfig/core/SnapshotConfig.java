@@ -0,0 +1,737 @@
+package me.hypherionmc.moonconfig.core;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A thread-safe config that publishes immutable versions of its content. Each modification
+ * creates a new immutable version (see {@link UnmodifiableConfig#compact()}), which is then
+ * published with a single volatile write. The readers are never blocked and always see a complete
+ * version: {@link #snapshot()} returns a consistent view that won't change, even if the config is
+ * modified or reloaded in the meantime.
+ * <p>
+ * Each modification copies the levels on the path of the modified values, and shares the other
+ * levels with the previous version. This class is meant for configurations that are read much
+ * more often than they are modified. Several modifications can be grouped in a single version
+ * with {@link #update(Consumer)}. When a SnapshotConfig is used by a FileConfig, each
+ * {@link me.hypherionmc.moonconfig.core.file.FileConfig#load()} publishes exactly one new version,
+ * so the readers never observe a half-applied reload.
+ * <p>
+ * The sub-configs returned by the methods of this class, like {@link #get(String)}, are views of
+ * the corresponding level of the current version. They read the latest version and apply their
+ * modifications to the SnapshotConfig, therefore {@code config.<Config>get("a").set("b", 1)}
+ * works like with the other configs. The configs contained in lists are immutable.
+ */
+public final class SnapshotConfig implements CommentedConfig {
+	private final Config template;
+	private final Object writeLock = new Object();
+	private volatile UnmodifiableCommentedConfig current;
+	private volatile long version;// incremented each time a version is published
+	private final Level root = new Level(Collections.emptyList());
+
+	/**
+	 * Creates a new SnapshotConfig with the content of the given config. The config is also
+	 * used as a template to create the modifiable configs in which the modifications are made,
+	 * with {@link Config#createSubConfig()}.
+	 *
+	 * @param initial the initial content of the config
+	 */
+	public SnapshotConfig(Config initial) {
+		this.template = initial.createSubConfig();
+		this.current = CompactConfig.of(initial);
+	}
+
+	/**
+	 * Creates a new empty SnapshotConfig of the given format.
+	 *
+	 * @param format the config's format
+	 */
+	public SnapshotConfig(ConfigFormat<?> format) {
+		this(format.createConfig());
+	}
+
+	/**
+	 * Returns the current version of the config. The returned config is immutable, therefore all
+	 * the values read from it are consistent with each other.
+	 *
+	 * @return the current version of the config
+	 */
+	public UnmodifiableCommentedConfig snapshot() {
+		return current;
+	}
+
+	/**
+	 * Modifies the config and publishes the result as a new version. The action receives a
+	 * modifiable copy of the current version. The modifications are visible to the readers only
+	 * when the action completes. If the action throws an exception, no version is published.
+	 * <p>
+	 * The copy is made lazily: a sub-config or a list is copied the first time it's read from its
+	 * parent level, for instance with {@code get} or by a path that goes through it. The levels
+	 * that the action doesn't read are shared with the current version, and appear as immutable
+	 * configs when iterating over the entries of their parent.
+	 *
+	 * @param action the modifications to apply
+	 */
+	public void update(Consumer<? super CommentedConfig> action) {
+		modify(config -> {
+			action.accept(config);
+			return null;
+		});
+	}
+
+	/**
+	 * Replaces the content of the config and publishes the result as a new version. Unlike
+	 * {@link #update(Consumer)}, the action receives an empty config instead of a copy of the
+	 * current version, therefore nothing is copied. This is used to reload a FileConfig in
+	 * {@link me.hypherionmc.moonconfig.core.io.ParsingMode#REPLACE} mode.
+	 *
+	 * @param action the action that fills the new version
+	 */
+	public void replace(Consumer<? super CommentedConfig> action) {
+		synchronized (writeLock) {
+			CommentedConfig config = newLevel();
+			action.accept(config);
+			current = CompactConfig.of(config);
+			version++;
+		}
+	}
+
+	private <T> T modify(Function<? super CommentedConfig, T> action) {
+		synchronized (writeLock) {
+			CommentedConfig copy = copyLevel(current);
+			T result = action.apply(copy);
+			current = CompactConfig.of(copy);// reuses the levels that haven't been copied
+			version++;// the lock makes it atomic
+			return result;
+		}
+	}
+
+	/**
+	 * @return a new empty modifiable level, whose sub-levels are created with the same kind of
+	 * map
+	 */
+	private CommentedConfig newLevel() {
+		Supplier<Map<String, Object>> mapCreator = CopyOnReadMap::new;
+		if (template instanceof CommentedConfig) {
+			return new SimpleCommentedConfig(mapCreator, template.configFormat());
+		}
+		return CommentedConfig.fake(new SimpleConfig(mapCreator, template.configFormat()));
+	}
+
+	/**
+	 * Creates a modifiable copy of a level of a version. Only this level is copied: its
+	 * sub-configs and lists are copied by {@link CopyOnReadMap} when they're read.
+	 */
+	private CommentedConfig copyLevel(UnmodifiableCommentedConfig source) {
+		CommentedConfig copy = newLevel();
+		Map<String, Object> map = copy.valueMap();
+		for (UnmodifiableCommentedConfig.Entry entry : source.entrySet()) {
+			map.put(entry.getKey(), entry.getRawValue());
+			String comment = entry.getComment();
+			if (comment != null) {
+				copy.setComment(Collections.singletonList(entry.getKey()), comment);
+			}
+		}
+		return copy;
+	}
+
+	/**
+	 * @return a modifiable copy of a value of a version, or the value itself if it's not a
+	 * config nor a list
+	 */
+	private Object copyValue(Object value) {
+		if (value instanceof UnmodifiableConfig) {
+			return copyLevel(UnmodifiableCommentedConfig.fake((UnmodifiableConfig)value));
+		} else if (value instanceof CompactConfig.CompactList) {
+			List<?> list = (List<?>)value;
+			List<Object> copy = new ArrayList<>(list.size());
+			for (Object element : list) {
+				copy.add(copyValue(element));
+			}
+			return copy;
+		}
+		return value;
+	}
+
+	/**
+	 * The map of a modifiable level. It contains the immutable sub-configs and lists of the
+	 * current version, and replaces them by modifiable copies the first time they're read. Since
+	 * the configs reach their sub-levels with {@link Map#get(Object)}, a modification copies only
+	 * the levels on its path.
+	 */
+	private final class CopyOnReadMap extends LinkedHashMap<String, Object> {
+		@Override
+		public Object get(Object key) {
+			Object value = super.get(key);
+			if (value instanceof CompactConfig || value instanceof CompactConfig.CompactList) {
+				value = copyValue(value);
+				super.put((String)key, value);
+			}
+			return value;
+		}
+
+		@Override
+		public Object compute(String key,
+							  BiFunction<? super String, ? super Object, ?> remappingFunction) {
+			get(key);// the function receives the modifiable copy
+			return super.compute(key, remappingFunction);
+		}
+	}
+
+	@Override
+	public <T> T getRaw(List<String> path) {
+		return root.getRaw(path);
+	}
+
+	@Override
+	public boolean contains(List<String> path) {
+		return current.contains(path);
+	}
+
+	@Override
+	public String getComment(List<String> path) {
+		return current.getComment(path);
+	}
+
+	@Override
+	public boolean containsComment(List<String> path) {
+		return current.containsComment(path);
+	}
+
+	@Override
+	public int size() {
+		return current.size();
+	}
+
+	@Override
+	public <T> T set(List<String> path, Object value) {
+		return modify(config -> config.set(path, value));
+	}
+
+	@Override
+	public boolean add(List<String> path, Object value) {
+		return modify(config -> config.add(path, value));
+	}
+
+	@Override
+	public <T> T remove(List<String> path) {
+		return modify(config -> config.remove(path));
+	}
+
+	@Override
+	public void clear() {
+		synchronized (writeLock) {
+			current = CompactConfig.of(template.createSubConfig());
+			version++;
+		}
+	}
+
+	@Override
+	public long version() {
+		return version;
+	}
+
+	@Override
+	public String setComment(List<String> path, String comment) {
+		return modify(config -> config.setComment(path, comment));
+	}
+
+	@Override
+	public String removeComment(List<String> path) {
+		return modify(config -> config.removeComment(path));
+	}
+
+	@Override
+	public void clearComments() {
+		update(CommentedConfig::clearComments);
+	}
+
+	@Override
+	public void putAll(UnmodifiableConfig config) {
+		update(c -> c.putAll(config));
+	}
+
+	@Override
+	public void removeAll(UnmodifiableConfig config) {
+		update(c -> c.removeAll(config));
+	}
+
+	@Override
+	public void setAll(Map<? extends List<String>, ?> values) {
+		update(c -> c.setAll(values));
+	}
+
+	@Override
+	public Map<String, String> commentMap() {
+		return current.commentMap();
+	}
+
+	/**
+	 * Returns a Map view of the config's values. The view reads the current version, and its
+	 * modifications are applied with {@link #set(List, Object)} and {@link #remove(List)}, each
+	 * of them publishing a new version.
+	 */
+	@Override
+	public Map<String, Object> valueMap() {
+		return root.valueMap();
+	}
+
+	@Override
+	public Set<? extends CommentedConfig.Entry> entrySet() {
+		return root.entrySet();
+	}
+
+	@Override
+	public void forEachEntry(BiConsumer<? super String, Object> action) {
+		root.forEachEntry(action);
+	}
+
+	@Override
+	public void forEachCommentedEntry(CommentedEntryAction action) {
+		root.forEachCommentedEntry(action);
+	}
+
+	@Override
+	public CommentedConfig createSubConfig() {
+		return CommentedConfig.fake(template.createSubConfig());
+	}
+
+	@Override
+	public ConfigFormat<?> configFormat() {
+		return template.configFormat();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		return (obj instanceof SnapshotConfig) && current.equals(((SnapshotConfig)obj).current);
+	}
+
+	@Override
+	public int hashCode() {
+		return current.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + ':' + current.valueMap();
+	}
+
+	/**
+	 * Gets the level, in the current version, viewed by a sub-config of a SnapshotConfig.
+	 *
+	 * @param config the config
+	 * @return the current level if the config is a level view, null otherwise
+	 */
+	static UnmodifiableCommentedConfig currentLevel(UnmodifiableConfig config) {
+		return (config instanceof Level) ? ((Level)config).resolve() : null;
+	}
+
+	/**
+	 * The Map view of a level of the config. It allows {@link ConfigFootprint} to measure the
+	 * level of the current version when the SnapshotConfig is wrapped.
+	 */
+	abstract static class LevelMap extends AbstractMap<String, Object> {
+		/**
+		 * @return the level in the current version, or null if it doesn't exist anymore
+		 */
+		abstract UnmodifiableCommentedConfig currentLevel();
+	}
+
+	/**
+	 * A view of a level of the config, identified by its path. It reads the current version, and
+	 * its modifications are applied to the SnapshotConfig. The root level has an empty path.
+	 */
+	private final class Level implements CommentedConfig {
+		private final List<String> prefix;
+
+		Level(List<String> prefix) {
+			this.prefix = prefix;
+		}
+
+		/**
+		 * @return the path, relative to the SnapshotConfig, of a path relative to this level
+		 */
+		private List<String> fullPath(List<String> path) {
+			if (prefix.isEmpty()) {
+				return path;
+			}
+			List<String> fullPath = new ArrayList<>(prefix.size() + path.size());
+			fullPath.addAll(prefix);
+			fullPath.addAll(path);
+			return fullPath;
+		}
+
+		/**
+		 * @return this level in the current version, or null if it doesn't exist anymore
+		 */
+		private UnmodifiableCommentedConfig resolve() {
+			if (prefix.isEmpty()) {
+				return current;
+			}
+			Object value = current.getRaw(prefix);
+			return (value instanceof UnmodifiableCommentedConfig) ? (UnmodifiableCommentedConfig)value : null;
+		}
+
+		/**
+		 * @return this level in a modifiable copy of the config, created if needed
+		 */
+		private CommentedConfig modifiableLevel(CommentedConfig copy) {
+			if (prefix.isEmpty()) {
+				return copy;
+			}
+			Object value = copy.getRaw(prefix);
+			if (value instanceof CommentedConfig) {
+				return (CommentedConfig)value;
+			}
+			CommentedConfig level = copy.createSubConfig();
+			copy.set(prefix, level);
+			return level;
+		}
+
+		/**
+		 * Replaces the sub-configs by views of the SnapshotConfig.
+		 */
+		private Object view(List<String> fullPath, Object value) {
+			return (value instanceof UnmodifiableConfig) ? new Level(fullPath) : value;
+		}
+
+		/**
+		 * Replaces the sub-configs of this level by views, without computing the path of the
+		 * other values.
+		 */
+		private Object childView(String key, Object value) {
+			if (value instanceof UnmodifiableConfig) {
+				return new Level(fullPath(Collections.singletonList(key)));
+			}
+			return value;
+		}
+
+		@Override
+		public <T> T getRaw(List<String> path) {
+			List<String> fullPath = fullPath(path);
+			return (T)view(fullPath, current.getRaw(fullPath));
+		}
+
+		@Override
+		public boolean contains(List<String> path) {
+			return current.contains(fullPath(path));
+		}
+
+		@Override
+		public String getComment(List<String> path) {
+			return current.getComment(fullPath(path));
+		}
+
+		@Override
+		public boolean containsComment(List<String> path) {
+			return current.containsComment(fullPath(path));
+		}
+
+		@Override
+		public int size() {
+			UnmodifiableCommentedConfig level = resolve();
+			return (level == null) ? 0 : level.size();
+		}
+
+		@Override
+		public <T> T set(List<String> path, Object value) {
+			return SnapshotConfig.this.set(fullPath(path), value);
+		}
+
+		@Override
+		public boolean add(List<String> path, Object value) {
+			return SnapshotConfig.this.add(fullPath(path), value);
+		}
+
+		@Override
+		public <T> T remove(List<String> path) {
+			return SnapshotConfig.this.remove(fullPath(path));
+		}
+
+		@Override
+		public void clear() {
+			if (prefix.isEmpty()) {
+				SnapshotConfig.this.clear();
+			} else {
+				SnapshotConfig.this.update(copy -> modifiableLevel(copy).clear());
+			}
+		}
+
+		@Override
+		public long version() {
+			return version;
+		}
+
+		@Override
+		public String setComment(List<String> path, String comment) {
+			return SnapshotConfig.this.setComment(fullPath(path), comment);
+		}
+
+		@Override
+		public String removeComment(List<String> path) {
+			return SnapshotConfig.this.removeComment(fullPath(path));
+		}
+
+		@Override
+		public void clearComments() {
+			SnapshotConfig.this.update(copy -> modifiableLevel(copy).clearComments());
+		}
+
+		@Override
+		public void putAll(UnmodifiableConfig config) {
+			SnapshotConfig.this.update(copy -> modifiableLevel(copy).putAll(config));
+		}
+
+		@Override
+		public void removeAll(UnmodifiableConfig config) {
+			SnapshotConfig.this.update(copy -> modifiableLevel(copy).removeAll(config));
+		}
+
+		@Override
+		public void setAll(Map<? extends List<String>, ?> values) {
+			SnapshotConfig.this.update(copy -> modifiableLevel(copy).setAll(values));
+		}
+
+		@Override
+		public Map<String, String> commentMap() {
+			UnmodifiableCommentedConfig level = resolve();
+			return (level == null) ? Collections.emptyMap() : level.commentMap();
+		}
+
+		@Override
+		public Map<String, Object> valueMap() {
+			return new LevelMap() {
+				@Override
+				UnmodifiableCommentedConfig currentLevel() {
+					return resolve();
+				}
+
+				@Override
+				public Object get(Object key) {
+					return (key instanceof String) ? getRaw(Collections.singletonList((String)key)) : null;
+				}
+
+				@Override
+				public boolean containsKey(Object key) {
+					return (key instanceof String) && contains(Collections.singletonList((String)key));
+				}
+
+				@Override
+				public Object put(String key, Object value) {
+					return set(Collections.singletonList(key), value);
+				}
+
+				@Override
+				public Object remove(Object key) {
+					if (!(key instanceof String)) {
+						return null;
+					}
+					return Level.this.remove(Collections.singletonList((String)key));
+				}
+
+				@Override
+				public void clear() {
+					Level.this.clear();
+				}
+
+				@Override
+				public int size() {
+					return Level.this.size();
+				}
+
+				@Override
+				public Set<Map.Entry<String, Object>> entrySet() {
+					return new AbstractSet<Map.Entry<String, Object>>() {
+						@Override
+						public Iterator<Map.Entry<String, Object>> iterator() {
+							Iterator<? extends CommentedConfig.Entry> it = Level.this.entrySet().iterator();
+							return new Iterator<Map.Entry<String, Object>>() {
+								@Override
+								public boolean hasNext() {
+									return it.hasNext();
+								}
+
+								@Override
+								public Map.Entry<String, Object> next() {
+									CommentedConfig.Entry entry = it.next();
+									return new Map.Entry<String, Object>() {
+										@Override
+										public String getKey() {
+											return entry.getKey();
+										}
+
+										@Override
+										public Object getValue() {
+											return entry.getRawValue();
+										}
+
+										@Override
+										public Object setValue(Object value) {
+											return entry.setValue(value);
+										}
+									};
+								}
+
+								@Override
+								public void remove() {
+									it.remove();
+								}
+							};
+						}
+
+						@Override
+						public int size() {
+							return Level.this.size();
+						}
+					};
+				}
+			};
+		}
+
+		/**
+		 * Returns the entries of this level in the current version. The iteration isn't affected
+		 * by the modifications, which are applied to the SnapshotConfig.
+		 */
+		@Override
+		public Set<? extends CommentedConfig.Entry> entrySet() {
+			final UnmodifiableCommentedConfig level = resolve();
+			if (level == null) {
+				return Collections.emptySet();
+			}
+			return new AbstractSet<CommentedConfig.Entry>() {
+				@Override
+				public Iterator<CommentedConfig.Entry> iterator() {
+					Iterator<? extends UnmodifiableCommentedConfig.Entry> it = level.entrySet().iterator();
+					return new Iterator<CommentedConfig.Entry>() {
+						private LevelEntry last;
+
+						@Override
+						public boolean hasNext() {
+							return it.hasNext();
+						}
+
+						@Override
+						public CommentedConfig.Entry next() {
+							return last = new LevelEntry(it.next());
+						}
+
+						@Override
+						public void remove() {
+							if (last == null) {
+								throw new IllegalStateException();
+							}
+							Level.this.remove(last.path);
+							last = null;
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return level.size();
+				}
+			};
+		}
+
+		/**
+		 * Iterates over the entries of this level in the current version, like
+		 * {@link #entrySet()}.
+		 */
+		@Override
+		public void forEachEntry(BiConsumer<? super String, Object> action) {
+			UnmodifiableCommentedConfig level = resolve();
+			if (level != null) {
+				level.forEachEntry((key, value) -> action.accept(key, childView(key, value)));
+			}
+		}
+
+		@Override
+		public void forEachCommentedEntry(CommentedEntryAction action) {
+			UnmodifiableCommentedConfig level = resolve();
+			if (level != null) {
+				level.forEachCommentedEntry((key, value, comment) -> {
+					action.accept(key, childView(key, value), comment);
+				});
+			}
+		}
+
+		@Override
+		public CommentedConfig createSubConfig() {
+			return SnapshotConfig.this.createSubConfig();
+		}
+
+		@Override
+		public ConfigFormat<?> configFormat() {
+			return SnapshotConfig.this.configFormat();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			return (obj instanceof Level) && Objects.equals(resolve(), ((Level)obj).resolve());
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(resolve());
+		}
+
+		@Override
+		public String toString() {
+			return "SnapshotConfig" + prefix + ':' + valueMap();
+		}
+
+		/**
+		 * An entry of this level in a version of the config. Its modifications are applied to the
+		 * SnapshotConfig.
+		 */
+		private final class LevelEntry implements CommentedConfig.Entry {
+			private final UnmodifiableCommentedConfig.Entry entry;
+			private final List<String> path;
+
+			LevelEntry(UnmodifiableCommentedConfig.Entry entry) {
+				this.entry = entry;
+				this.path = Collections.singletonList(entry.getKey());
+			}
+
+			@Override
+			public String getKey() {
+				return entry.getKey();
+			}
+
+			@Override
+			public <T> T getRawValue() {
+				return (T)view(fullPath(path), entry.getRawValue());
+			}
+
+			@Override
+			public String getComment() {
+				return entry.getComment();
+			}
+
+			@Override
+			public <T> T setValue(Object value) {
+				return set(path, value);
+			}
+
+			@Override
+			public String setComment(String comment) {
+				return Level.this.setComment(path, comment);
+			}
+
+			@Override
+			public String removeComment() {
+				return Level.this.removeComment(path);
+			}
+		}
+	}
+}
\ No newline at end of file
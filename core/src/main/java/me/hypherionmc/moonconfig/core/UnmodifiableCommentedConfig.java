@@ -1,9 +1,10 @@
 package me.hypherionmc.moonconfig.core;
 
 import me.hypherionmc.moonconfig.core.utils.FakeUnmodifiableCommentedConfig;
-import me.hypherionmc.moonconfig.core.utils.StringUtils;
+import me.hypherionmc.moonconfig.core.utils.PathCache;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 
 import static me.hypherionmc.moonconfig.core.utils.StringUtils.split;
 
@@ -20,7 +21,7 @@ public interface UnmodifiableCommentedConfig extends UnmodifiableConfig {
 	 * @return the comment at the given path, or {@code null} if there is none.
 	 */
 	default String getComment(String path) {
-		return getComment(StringUtils.split(path, '.'));
+		return getComment(PathCache.split(path));
 	}
 
 	/**
@@ -39,7 +40,7 @@ public interface UnmodifiableCommentedConfig extends UnmodifiableConfig {
 	 * there is no such comment.
 	 */
 	default Optional<String> getOptionalComment(String path) {
-		return getOptionalComment(StringUtils.split(path, '.'));
+		return getOptionalComment(PathCache.split(path));
 	}
 
 	/**
@@ -60,7 +61,7 @@ public interface UnmodifiableCommentedConfig extends UnmodifiableConfig {
 	 * @return {@code true} if the path is associated with a comment, {@code false} if it's not.
 	 */
 	default boolean containsComment(String path) {
-		return containsComment(StringUtils.split(path, '.'));
+		return containsComment(PathCache.split(path));
 	}
 
 	/**
@@ -99,10 +100,7 @@ public interface UnmodifiableCommentedConfig extends UnmodifiableConfig {
 	 * @param destination the map where to put the comments.
 	 */
 	default void getComments(Map<String, CommentNode> destination) {
-		for (Entry entry : entrySet()) {
-			String key = entry.getKey();
-			String comment = entry.getComment();
-			Object value = entry.getValue();
+		forEachCommentedEntry((key, value, comment) -> {
 			if (comment != null || value instanceof UnmodifiableCommentedConfig) {
 				Map<String, CommentNode> children = (value instanceof UnmodifiableCommentedConfig)
 													? ((UnmodifiableCommentedConfig)value).getComments()
@@ -110,7 +108,25 @@ public interface UnmodifiableCommentedConfig extends UnmodifiableConfig {
 				CommentNode node = new CommentNode(comment, children);
 				destination.put(key, node);
 			}
-		}
+		});
+	}
+
+	/**
+	 * Calls an action for each top-level entry of the config, with the entry's key, raw value and
+	 * comment. Like {@link #forEachEntry(BiConsumer)}, this doesn't create an object per entry.
+	 * <p>
+	 * The config must not be modified by the action.
+	 *
+	 * @param action the action to call for each entry
+	 */
+	default void forEachCommentedEntry(CommentedEntryAction action) {
+		final Map<String, String> comments = commentMap();
+		forEachEntry((key, value) -> action.accept(key, value, comments.get(key)));
+	}
+
+	@Override
+	default UnmodifiableCommentedConfig compact() {
+		return CompactConfig.of(this);
 	}
 
 	final class CommentNode {
@@ -152,6 +168,17 @@ public interface UnmodifiableCommentedConfig extends UnmodifiableConfig {
 	@Override
 	Set<? extends Entry> entrySet();
 
+	/**
+	 * An action that receives the key, the raw value and the comment (which may be null) of an
+	 * entry.
+	 *
+	 * @see #forEachCommentedEntry(CommentedEntryAction)
+	 */
+	@FunctionalInterface
+	interface CommentedEntryAction {
+		void accept(String key, Object value, String comment);
+	}
+
 	/**
 	 * An unmodifiable commented config entry.
 	 */
@@ -1,16 +1,22 @@
 package me.hypherionmc.moonconfig.core;
 
-import me.hypherionmc.moonconfig.core.utils.StringUtils;
+import me.hypherionmc.moonconfig.core.utils.PathCache;
 
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.DoubleSupplier;
 import java.util.function.IntSupplier;
 import java.util.function.LongSupplier;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static me.hypherionmc.moonconfig.core.utils.StringUtils.split;
 
 /**
  * An unmodifiable (read-only) configuration that contains key/value mappings.
+ * <p>
+ * The paths that are used often should be compiled once to a {@link ConfigPath}, which can be
+ * given to all the methods that take a {@code List<String>} path.
  *
  * @author TheElectronWill
  */
@@ -23,7 +29,7 @@ public interface UnmodifiableConfig {
 	 * @return the value at the given path, or {@code null} if there is no such value.
 	 */
 	default <T> T get(String path) {
-		return get(StringUtils.split(path, '.'));
+		return get(PathCache.split(path));
 	}
 
 	/**
@@ -46,7 +52,7 @@ public interface UnmodifiableConfig {
 	 * @return the value at the given path, or {@code null} if there is no such value.
 	 */
 	default <T> T getRaw(String path) {
-		return getRaw(StringUtils.split(path, '.'));
+		return getRaw(PathCache.split(path));
 	}
 
 	/**
@@ -67,7 +73,7 @@ public interface UnmodifiableConfig {
 	 * there is no such value.
 	 */
 	default <T> Optional<T> getOptional(String path) {
-		return getOptional(StringUtils.split(path, '.'));
+		return getOptional(PathCache.split(path));
 	}
 
 	/**
@@ -91,7 +97,7 @@ public interface UnmodifiableConfig {
 	 * @return the value at the given path, or the default value if not found.
 	 */
 	default <T> T getOrElse(String path, T defaultValue) {
-		return getOrElse(StringUtils.split(path, '.'), defaultValue);
+		return getOrElse(PathCache.split(path), defaultValue);
 	}
 
 	/**
@@ -129,7 +135,7 @@ public interface UnmodifiableConfig {
 	 * @return the value at the given path, or the default value if not found.
 	 */
 	default <T> T getOrElse(String path, Supplier<T> defaultValueSupplier) {
-		return getOrElse(StringUtils.split(path, '.'), defaultValueSupplier);
+		return getOrElse(PathCache.split(path), defaultValueSupplier);
 	}
 
 	// ---- Enum getters ----
@@ -147,7 +153,7 @@ public interface UnmodifiableConfig {
 	 *                                  an enum constant, like a List
 	 */
 	default <T extends Enum<T>> T getEnum(String path, Class<T> enumType, EnumGetMethod method) {
-		return getEnum(StringUtils.split(path, '.'), enumType, method);
+		return getEnum(PathCache.split(path), enumType, method);
 	}
 
 	/**
@@ -155,7 +161,7 @@ public interface UnmodifiableConfig {
 	 * {@link EnumGetMethod#NAME_IGNORECASE}.
 	 */
 	default <T extends Enum<T>> T getEnum(String path, Class<T> enumType) {
-		return getEnum(StringUtils.split(path, '.'), enumType, EnumGetMethod.NAME_IGNORECASE);
+		return getEnum(PathCache.split(path), enumType, EnumGetMethod.NAME_IGNORECASE);
 	}
 
 	/**
@@ -198,7 +204,7 @@ public interface UnmodifiableConfig {
 	 *                                  an enum constant, like a List
 	 */
 	default <T extends Enum<T>> Optional<T> getOptionalEnum(String path, Class<T> enumType, EnumGetMethod method) {
-		return getOptionalEnum(StringUtils.split(path, '.'), enumType, method);
+		return getOptionalEnum(PathCache.split(path), enumType, method);
 	}
 
 	/**
@@ -248,7 +254,7 @@ public interface UnmodifiableConfig {
 	 *                                  an enum constant, like a List
 	 */
 	default <T extends Enum<T>> T getEnumOrElse(String path, T defaultValue, EnumGetMethod method) {
-		return getEnumOrElse(StringUtils.split(path, '.'), defaultValue, method);
+		return getEnumOrElse(PathCache.split(path), defaultValue, method);
 	}
 
 	/**
@@ -302,7 +308,7 @@ public interface UnmodifiableConfig {
 												Class<T> enumType,
 												EnumGetMethod method,
 												Supplier<T> defaultValueSupplier) {
-		return getEnumOrElse(StringUtils.split(path, '.'), enumType, method, defaultValueSupplier);
+		return getEnumOrElse(PathCache.split(path), enumType, method, defaultValueSupplier);
 	}
 
 	/**
@@ -369,7 +375,7 @@ public interface UnmodifiableConfig {
 	 * {@link Number} or null or nonexistant.
 	 */
 	default OptionalInt getOptionalInt(String path) {
-		return getOptionalInt(StringUtils.split(path, '.'));
+		return getOptionalInt(PathCache.split(path));
 	}
 
 	/**
@@ -386,7 +392,7 @@ public interface UnmodifiableConfig {
 	 * The config's value must be a {@link Number} or null or nonexistant.
 	 */
 	default int getIntOrElse(String path, int defaultValue) {
-		return getIntOrElse(StringUtils.split(path, '.'), defaultValue);
+		return getIntOrElse(PathCache.split(path), defaultValue);
 	}
 
 	/**
@@ -403,7 +409,7 @@ public interface UnmodifiableConfig {
 	 * The config's value must be a {@link Number} or null or nonexistant.
 	 */
 	default int getIntOrElse(String path, IntSupplier defaultValueSupplier) {
-		return getIntOrElse(StringUtils.split(path, '.'), defaultValueSupplier);
+		return getIntOrElse(PathCache.split(path), defaultValueSupplier);
 	}
 
 	/**
@@ -437,7 +443,7 @@ public interface UnmodifiableConfig {
 	 * {@link Number} or null or nonexistant.
 	 */
 	default OptionalLong getOptionalLong(String path) {
-		return getOptionalLong(StringUtils.split(path, '.'));
+		return getOptionalLong(PathCache.split(path));
 	}
 
 	/**
@@ -454,7 +460,7 @@ public interface UnmodifiableConfig {
 	 * The config's value must be a {@link Number} or null or nonexistant.
 	 */
 	default long getLongOrElse(String path, long defaultValue) {
-		return getLongOrElse(StringUtils.split(path, '.'), defaultValue);
+		return getLongOrElse(PathCache.split(path), defaultValue);
 	}
 
 	/**
@@ -471,7 +477,7 @@ public interface UnmodifiableConfig {
 	 * The config's value must be a {@link Number} or null or nonexistant.
 	 */
 	default long getLongOrElse(String path, LongSupplier defaultValueSupplier) {
-		return getLongOrElse(StringUtils.split(path, '.'), defaultValueSupplier);
+		return getLongOrElse(PathCache.split(path), defaultValueSupplier);
 	}
 
 	/**
@@ -483,6 +489,108 @@ public interface UnmodifiableConfig {
 		return (n == null) ? defaultValueSupplier.getAsLong() : n.longValue();
 	}
 
+	// ---- Primitive getters: double ----
+	/**
+	 * Like {@link #get(String)} but returns a primitive double. The config's value must be a
+	 * {@link Number}.
+	 */
+	default double getDouble(String path) {
+		return getDouble(PathCache.split(path));
+	}
+
+	/**
+	 * Like {@link #get(List)} but returns a primitive double. The config's value must be a
+	 * {@link Number}.
+	 */
+	default double getDouble(List<String> path) {
+		return this.<Number>getRaw(path).doubleValue();
+	}
+
+	/**
+	 * Like {@link #getOptional(String)} but returns a primitive double. The config's value must
+	 * be a {@link Number} or null or nonexistant.
+	 */
+	default OptionalDouble getOptionalDouble(String path) {
+		return getOptionalDouble(PathCache.split(path));
+	}
+
+	/**
+	 * Like {@link #getOptional(List)} but returns a primitive double. The config's value must be
+	 * a {@link Number} or null or nonexistant.
+	 */
+	default OptionalDouble getOptionalDouble(List<String> path) {
+		Number n = get(path);
+		return (n == null) ? OptionalDouble.empty() : OptionalDouble.of(n.doubleValue());
+	}
+
+	/**
+	 * Like {@link #getOrElse(String, Object)} but returns a primitive double.
+	 * The config's value must be a {@link Number} or null or nonexistant.
+	 */
+	default double getDoubleOrElse(String path, double defaultValue) {
+		return getDoubleOrElse(PathCache.split(path), defaultValue);
+	}
+
+	/**
+	 * Like {@link #getOrElse(List, Object)} but returns a primitive double.
+	 * The config's value must be a {@link Number} or null or nonexistant.
+	 */
+	default double getDoubleOrElse(List<String> path, double defaultValue) {
+		Number n = get(path);
+		return (n == null) ? defaultValue : n.doubleValue();
+	}
+
+	/**
+	 * Like {@link #getOrElse(String, Supplier)} but returns a primitive double.
+	 * The config's value must be a {@link Number} or null or nonexistant.
+	 */
+	default double getDoubleOrElse(String path, DoubleSupplier defaultValueSupplier) {
+		return getDoubleOrElse(PathCache.split(path), defaultValueSupplier);
+	}
+
+	/**
+	 * Like {@link #getOrElse(List, Supplier)} but returns a primitive double.
+	 * The config's value must be a {@link Number} or null or nonexistant.
+	 */
+	default double getDoubleOrElse(List<String> path, DoubleSupplier defaultValueSupplier) {
+		Number n = get(path);
+		return (n == null) ? defaultValueSupplier.getAsDouble() : n.doubleValue();
+	}
+
+	// ---- Primitive getters: boolean ----
+	/**
+	 * Like {@link #get(String)} but returns a primitive boolean. The config's value must be a
+	 * {@link Boolean}.
+	 */
+	default boolean getBoolean(String path) {
+		return getBoolean(PathCache.split(path));
+	}
+
+	/**
+	 * Like {@link #get(List)} but returns a primitive boolean. The config's value must be a
+	 * {@link Boolean}.
+	 */
+	default boolean getBoolean(List<String> path) {
+		return this.<Boolean>getRaw(path);
+	}
+
+	/**
+	 * Like {@link #getOrElse(String, Object)} but returns a primitive boolean.
+	 * The config's value must be a {@link Boolean} or null or nonexistant.
+	 */
+	default boolean getBooleanOrElse(String path, boolean defaultValue) {
+		return getBooleanOrElse(PathCache.split(path), defaultValue);
+	}
+
+	/**
+	 * Like {@link #getOrElse(List, Object)} but returns a primitive boolean.
+	 * The config's value must be a {@link Boolean} or null or nonexistant.
+	 */
+	default boolean getBooleanOrElse(List<String> path, boolean defaultValue) {
+		Boolean b = get(path);
+		return (b == null) ? defaultValue : b;
+	}
+
 	// ---- Primitive getters: byte ----
 	default byte getByte(String path) {
 		return this.<Number>getRaw(path).byteValue();
@@ -493,7 +601,7 @@ public interface UnmodifiableConfig {
 	}
 
 	default byte getByteOrElse(String path, byte defaultValue) {
-		return getByteOrElse(StringUtils.split(path, '.'), defaultValue);
+		return getByteOrElse(PathCache.split(path), defaultValue);
 	}
 
 	default byte getByteOrElse(List<String> path, byte defaultValue) {
@@ -511,7 +619,7 @@ public interface UnmodifiableConfig {
 	}
 
 	default short getShortOrElse(String path, short defaultValue) {
-		return getShortOrElse(StringUtils.split(path, '.'), defaultValue);
+		return getShortOrElse(PathCache.split(path), defaultValue);
 	}
 
 	default short getShortOrElse(List<String> path, short defaultValue) {
@@ -569,7 +677,7 @@ public interface UnmodifiableConfig {
 	 * @return the value, as a single char
 	 */
 	default char getCharOrElse(String path, char defaultValue) {
-		return getCharOrElse(StringUtils.split(path, '.'), defaultValue);
+		return getCharOrElse(PathCache.split(path), defaultValue);
 	}
 
 	/**
@@ -606,7 +714,7 @@ public interface UnmodifiableConfig {
 	 * @return {@code true} if the path is associated with a value, {@code false} if it's not.
 	 */
 	default boolean contains(String path) {
-		return contains(StringUtils.split(path, '.'));
+		return contains(PathCache.split(path));
 	}
 
 	/**
@@ -625,7 +733,7 @@ public interface UnmodifiableConfig {
 	 * {@code false} if it's associated with another value or with no value.
 	 */
 	default boolean isNull(String path) {
-		return isNull(StringUtils.split(path, '.'));
+		return isNull(PathCache.split(path));
 	}
 
 	/**
@@ -639,6 +747,23 @@ public interface UnmodifiableConfig {
 		return getRaw(path) == NullObject.NULL_OBJECT;
 	}
 
+	/**
+	 * Selects the values that match a pattern, which may contain wildcards. For instance,
+	 * {@code select("servers.*.port")} returns the port of each server. See {@link ConfigQuery}
+	 * for the syntax of the patterns.
+	 * <p>
+	 * The pattern is compiled each time this method is called. To run the same query several
+	 * times, compile it once with {@link ConfigQuery#compile(String)}.
+	 *
+	 * @param pattern the pattern, each part separated by a dot. Example "servers.*.port"
+	 * @param <T>     the type of the values
+	 * @return a sequential Stream of the matching values
+	 * @throws IllegalArgumentException if the pattern is invalid
+	 */
+	default <T> Stream<T> select(String pattern) {
+		return ConfigQuery.compile(pattern).select(this);
+	}
+
 	/**
 	 * Gets the size of the config.
 	 *
@@ -656,6 +781,27 @@ public interface UnmodifiableConfig {
 		return size() == 0;
 	}
 
+	/**
+	 * Returns the version of the config, a number that increases each time the config is
+	 * modified. If two calls return the same version, the config hasn't been modified in between:
+	 * this allows to cache values derived from the config, and to invalidate them by comparing a
+	 * long instead of comparing the configs.
+	 * <p>
+	 * The configs that don't track their modifications return a negative number, which must not
+	 * be used to detect changes.
+	 * <p>
+	 * Only the modifications made through the methods of the config are counted. The writes made
+	 * directly on the {@link #valueMap()}, on the entries of the {@link #entrySet()}, or on a
+	 * sub-config that doesn't know its container (for instance a sub-config that was put in the
+	 * valueMap by a parser) may not change the version. Don't rely on the version alone when the
+	 * config may be modified in these ways.
+	 *
+	 * @return the version of the config, or a negative number if it isn't tracked
+	 */
+	default long version() {
+		return -1;
+	}
+
 	/**
 	 * Returns a Map view of the config's values. If the config is unmodifiable then the returned
 	 * map is unmodifiable too.
@@ -672,6 +818,31 @@ public interface UnmodifiableConfig {
 	 */
 	Set<? extends Entry> entrySet();
 
+	/**
+	 * Calls an action for each top-level entry of the config, with the entry's key and raw value
+	 * (a null value is represented by {@link NullObject#NULL_OBJECT}). Unlike an iteration over
+	 * {@link #entrySet()}, this doesn't create an {@link Entry} object per entry, and the
+	 * built-in configs don't create an Iterator either.
+	 * <p>
+	 * The config must not be modified by the action.
+	 *
+	 * @param action the action to call for each entry
+	 */
+	default void forEachEntry(BiConsumer<? super String, Object> action) {
+		valueMap().forEach(action);
+	}
+
+	/**
+	 * Walks the whole config tree, depth-first, and calls the visitor for each sub-config and each
+	 * value. The lists are values, their elements aren't visited. Like
+	 * {@link #forEachEntry(BiConsumer)}, this doesn't create an object per entry.
+	 *
+	 * @param visitor the visitor to call
+	 */
+	default void walk(ConfigVisitor visitor) {
+		new ConfigWalker(visitor).walk(this);
+	}
+
 	/**
 	 * An unmodifiable config entry.
 	 */
@@ -816,6 +987,21 @@ public interface UnmodifiableConfig {
 		}
 	}
 
+	/**
+	 * Returns an immutable and compact copy of this config. The copy stores its entries in
+	 * arrays instead of maps, which takes less memory and makes the lookups fast. It is meant
+	 * for the configurations that are read often but never modified after they have been loaded.
+	 * <p>
+	 * The returned config can be used like any other UnmodifiableConfig, for instance it can be
+	 * written with a {@link me.hypherionmc.moonconfig.core.io.ConfigWriter}. The comments, if any,
+	 * are kept.
+	 *
+	 * @return an immutable compact copy of this config
+	 */
+	default UnmodifiableConfig compact() {
+		return CompactConfig.of(this);
+	}
+
 	/**
 	 * Returns the config's format.
 	 *
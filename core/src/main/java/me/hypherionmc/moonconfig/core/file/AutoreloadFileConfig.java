@@ -1,10 +1,14 @@
 package me.hypherionmc.moonconfig.core.file;
 
+import me.hypherionmc.moonconfig.core.UnmodifiableConfig;
 import me.hypherionmc.moonconfig.core.utils.ConfigWrapper;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * @author TheElectronWill
@@ -21,6 +25,26 @@ final class AutoreloadFileConfig<C extends FileConfig> extends ConfigWrapper<C>
 		}
 	}
 
+	@Override
+	public <T> T compute(List<String> path, Function<? super T, ? extends T> remappingFunction) {
+		return config.compute(path, remappingFunction);
+	}
+
+	@Override
+	public void putAll(UnmodifiableConfig config) {
+		this.config.putAll(config);
+	}
+
+	@Override
+	public void removeAll(UnmodifiableConfig config) {
+		this.config.removeAll(config);
+	}
+
+	@Override
+	public void setAll(Map<? extends List<String>, ?> values) {
+		config.setAll(values);
+	}
+
 	@Override
 	public File getFile() {
 		return config.getFile();
@@ -34,6 +34,12 @@ final class AutosaveCommentedFileConfig extends CommentedConfigWrapper<Commented
 		return result;
 	}
 
+	@Override
+	public void setAll(Map<? extends List<String>, ?> values) {
+		config.setAll(values);
+		save();// once for the whole batch
+	}
+
 	@Override
 	public <T> T remove(List<String> path) {
 		T result = super.remove(path);
@@ -65,6 +71,11 @@ final class AutosaveCommentedFileConfig extends CommentedConfigWrapper<Commented
 		return new ObservedMap<>(super.commentMap(), this::save);
 	}
 
+	@Override
+	public long version() {
+		return fileConfig.version();// includes the reloads
+	}
+
 	@Override
 	public File getFile() {
 		return fileConfig.getFile();
@@ -30,6 +30,12 @@ final class AutosaveFileConfig<C extends FileConfig> extends ConfigWrapper<C> im
 		return result;
 	}
 
+	@Override
+	public void setAll(Map<? extends List<String>, ?> values) {
+		config.setAll(values);
+		save();// once for the whole batch
+	}
+
 	@Override
 	public <T> T remove(List<String> path) {
 		T result = super.remove(path);
@@ -69,6 +69,12 @@ class CheckedCommentedFileConfig extends CommentedConfigWrapper<CommentedFileCon
 		return super.add(path, checkedValue(value));
 	}
 
+	@Override
+	public void setAll(Map<? extends List<String>, ?> values) {
+		values.values().forEach(this::checkValue);
+		config.setAll(values);
+	}
+
 	@Override
 	public Map<String, Object> valueMap() {
 		return new TransformingMap<>(super.valueMap(), v -> v, this::checkedValue, o -> o);
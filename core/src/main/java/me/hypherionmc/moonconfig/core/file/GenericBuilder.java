@@ -2,6 +2,7 @@ package me.hypherionmc.moonconfig.core.file;
 
 import me.hypherionmc.moonconfig.core.Config;
 import me.hypherionmc.moonconfig.core.ConfigFormat;
+import me.hypherionmc.moonconfig.core.SnapshotConfig;
 import me.hypherionmc.moonconfig.core.io.*;
 
 import java.io.File;
@@ -20,14 +21,18 @@ import java.util.function.Supplier;
  * <li>Charset: UTF-8 - change it with {@link #charset(Charset)}</li>
  * <li>WritingMode: REPLACE - change it with {@link #writingMode(WritingMode)}</li>
  * <li>ParsingMode: REPLACE - change it with {@link #parsingMode(ParsingMode)}</li>
+ * <li>ReadingMode: STREAM - change it with {@link #readingMode(ReadingMode)}</li>
  * <li>FileNotFoundAction: CREATE_EMPTY - change it with {@link #onFileNotFound(FileNotFoundAction)}</li>
  * <li>Asynchronous writing, ie config.save() returns quickly and operates in the background -
  * change it with {@link #sync()}</li>
  * <li>Not autosaved - change it with {@link #autosave()}</li>
  * <li>Not autoreloaded - change it with {@link #autoreload()}</li>
  * <li>Not thread-safe - change it with {@link #concurrent()}</li>
+ * <li>Not snapshotted - change it with {@link #snapshots()}</li>
  * <li>Values' insertion order preserved if {@link Config#isInsertionOrderPreserved()}
  * returns true when the builder is constructed.</li>
+ * <li>Parser options, for instance the lazy JSON parsing: those of the parser created by the
+ * format given to the builder, like {@code JsonFormat.lazyInstance()}</li>
  * </ul>
  *
  * @author TheElectronWill
@@ -41,8 +46,10 @@ public abstract class GenericBuilder<Base extends Config, Result extends FileCon
 	protected Charset charset = StandardCharsets.UTF_8;
 	protected WritingMode writingMode = WritingMode.REPLACE;
 	protected ParsingMode parsingMode = ParsingMode.REPLACE;
+	protected ReadingMode readingMode = ReadingMode.STREAM;
 	protected FileNotFoundAction nefAction = FileNotFoundAction.CREATE_EMPTY;
 	protected boolean sync = false, autosave = false, autoreload = false, concurrent = false;
+	protected boolean snapshots = false;
 	protected boolean insertionOrder = Config.isInsertionOrderPreserved();
 	protected Supplier<Map<String, Object>> mapCreator = null;
 
@@ -83,6 +90,17 @@ public abstract class GenericBuilder<Base extends Config, Result extends FileCon
 		return this;
 	}
 
+	/**
+	 * Sets the ReadingMode used for {@link FileConfig#load()}. {@link ReadingMode#MEMORY_MAPPED}
+	 * is faster for big files.
+	 *
+	 * @return this builder
+	 */
+	public GenericBuilder<Base, Result> readingMode(ReadingMode readingMode) {
+		this.readingMode = readingMode;
+		return this;
+	}
+
 	/**
 	 * Sets the action to execute when the config's file is not found.
 	 *
@@ -183,6 +201,18 @@ public abstract class GenericBuilder<Base extends Config, Result extends FileCon
 		return this;
 	}
 
+	/**
+	 * Makes the configuration a {@link SnapshotConfig}: each modification and each load publishes
+	 * a new immutable version of the config, which the readers can get without blocking. This is
+	 * useful for configurations that are read by many threads and rarely modified.
+	 *
+	 * @return this builder
+	 */
+	public GenericBuilder<Base, Result> snapshots() {
+		snapshots = true;
+		return this;
+	}
+
 	/**
 	 * Makes the configuration preserve the insertion order of its values.
 	 *
@@ -218,7 +248,7 @@ public abstract class GenericBuilder<Base extends Config, Result extends FileCon
 		FileConfig fileConfig;
 		if (sync) {
 			fileConfig = new WriteSyncFileConfig<>(getConfig(), file, charset, writer, writingMode,
-				parser, parsingMode, nefAction);
+				parser, parsingMode, nefAction, readingMode);
 		} else {
 			if (autoreload) {
 				concurrent();
@@ -226,7 +256,7 @@ public abstract class GenericBuilder<Base extends Config, Result extends FileCon
 				// This isn't needed with WriteSyncFileConfig because it synchronizes loads and writes.
 			}
 			fileConfig = new WriteAsyncFileConfig<>(getConfig(), file, charset, writer, writingMode,
-				parser, parsingMode, nefAction);
+				parser, parsingMode, nefAction, readingMode);
 		}
 		if (autoreload) {
 			if (Files.notExists(file)) {
@@ -251,6 +281,7 @@ public abstract class GenericBuilder<Base extends Config, Result extends FileCon
 
 	protected abstract Result buildNormal(FileConfig chain);
 
+	@SuppressWarnings("unchecked")
 	protected final Base getConfig() {
 		if (config == null) {
 			if (mapCreator == null) {
@@ -258,6 +289,9 @@ public abstract class GenericBuilder<Base extends Config, Result extends FileCon
 			}
 			config = format.createConfig(mapCreator);
 		}
+		if (snapshots && !(config instanceof SnapshotConfig)) {
+			config = (Base)new SnapshotConfig(config);
+		}
 		return config;
 	}
 }
\ No newline at end of file
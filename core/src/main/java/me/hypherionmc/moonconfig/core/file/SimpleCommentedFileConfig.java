@@ -1,10 +1,14 @@
 package me.hypherionmc.moonconfig.core.file;
 
 import me.hypherionmc.moonconfig.core.CommentedConfig;
+import me.hypherionmc.moonconfig.core.UnmodifiableConfig;
 import me.hypherionmc.moonconfig.core.utils.CommentedConfigWrapper;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * @author TheElectronWill
@@ -18,6 +22,31 @@ class SimpleCommentedFileConfig extends CommentedConfigWrapper<CommentedConfig>
 		this.fileConfig = fileConfig;
 	}
 
+	@Override
+	public <T> T compute(List<String> path, Function<? super T, ? extends T> remappingFunction) {
+		return config.compute(path, remappingFunction);
+	}
+
+	@Override
+	public void putAll(UnmodifiableConfig config) {
+		this.config.putAll(config);
+	}
+
+	@Override
+	public void removeAll(UnmodifiableConfig config) {
+		this.config.removeAll(config);
+	}
+
+	@Override
+	public void setAll(Map<? extends List<String>, ?> values) {
+		config.setAll(values);
+	}
+
+	@Override
+	public long version() {
+		return fileConfig.version();// includes the reloads
+	}
+
 	@Override
 	public File getFile() {
 		return fileConfig.getFile();
@@ -1,6 +1,8 @@
 package me.hypherionmc.moonconfig.core.file;
 
 import me.hypherionmc.moonconfig.core.Config;
+import me.hypherionmc.moonconfig.core.SnapshotConfig;
+import me.hypherionmc.moonconfig.core.UnmodifiableConfig;
 import me.hypherionmc.moonconfig.core.io.*;
 import me.hypherionmc.moonconfig.core.utils.ConfigWrapper;
 
@@ -12,8 +14,13 @@ import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.CompletionHandler;
 import java.nio.charset.Charset;
 import java.nio.file.OpenOption;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 import static java.nio.file.StandardOpenOption.*;
 
@@ -43,6 +50,10 @@ final class WriteAsyncFileConfig<C extends Config> extends ConfigWrapper<C> impl
 	 * True if the config has changed during the write operation, and thus must be written again.
 	 */
 	private final AtomicBoolean mustWriteAgain = new AtomicBoolean();
+	/**
+	 * The number of reloads, counted in the version of the config.
+	 */
+	private final AtomicLong reloads = new AtomicLong();
 
 	private final ConfigWriter writer;
 	private final WriteCompletedHandler writeCompletedHandler;
@@ -51,10 +62,12 @@ final class WriteAsyncFileConfig<C extends Config> extends ConfigWrapper<C> impl
 	private final ConfigParser<?> parser;
 	private final FileNotFoundAction nefAction;
 	private final ParsingMode parsingMode;
+	private final ReadingMode readingMode;
 
 	WriteAsyncFileConfig(C config, Path nioPath, Charset charset, ConfigWriter writer,
                          WritingMode writingMode, ConfigParser<?> parser,
-                         ParsingMode parsingMode, FileNotFoundAction nefAction) {
+                         ParsingMode parsingMode, FileNotFoundAction nefAction,
+                         ReadingMode readingMode) {
 		super(config);
 		this.nioPath = nioPath;
 		this.charset = charset;
@@ -62,6 +75,7 @@ final class WriteAsyncFileConfig<C extends Config> extends ConfigWrapper<C> impl
 		this.parser = parser;
 		this.parsingMode = parsingMode;
 		this.nefAction = nefAction;
+		this.readingMode = readingMode;
 		if (writingMode == WritingMode.APPEND) {
 			this.openOptions = new OpenOption[]{WRITE, CREATE};
 		} else {
@@ -70,6 +84,32 @@ final class WriteAsyncFileConfig<C extends Config> extends ConfigWrapper<C> impl
 		this.writeCompletedHandler = new WriteCompletedHandler();
 	}
 
+	@Override
+	public <T> T compute(List<String> path, Function<? super T, ? extends T> remappingFunction) {
+		return config.compute(path, remappingFunction);
+	}
+
+	@Override
+	public void putAll(UnmodifiableConfig config) {
+		this.config.putAll(config);
+	}
+
+	@Override
+	public void removeAll(UnmodifiableConfig config) {
+		this.config.removeAll(config);
+	}
+
+	@Override
+	public void setAll(Map<? extends List<String>, ?> values) {
+		config.setAll(values);
+	}
+
+	@Override
+	public long version() {
+		long version = config.version();
+		return (version < 0) ? version : version + reloads.get();
+	}
+
 	@Override
 	public File getFile() {
 		return nioPath.toFile();
@@ -135,7 +175,20 @@ final class WriteAsyncFileConfig<C extends Config> extends ConfigWrapper<C> impl
 			throw new IllegalStateException("Cannot (re)load a closed FileConfig");
 		}
 		if (!currentlyWriting.get()) { // Skips load when writing
-			parser.parse(nioPath, config, parsingMode, nefAction);//blocking read, not async
+			if (config instanceof SnapshotConfig) {// publishes the reloaded content at once
+				SnapshotConfig snapshots = (SnapshotConfig)config;
+				if (parsingMode == ParsingMode.REPLACE && Files.exists(nioPath)) {
+					// The current content would be discarded, so it's not worth copying
+					snapshots.replace(
+						c -> parser.parse(nioPath, c, parsingMode, nefAction, charset, readingMode));
+				} else {
+					snapshots.update(
+						c -> parser.parse(nioPath, c, parsingMode, nefAction, charset, readingMode));
+				}
+			} else {
+				parser.parse(nioPath, config, parsingMode, nefAction, charset, readingMode);//blocking read, not async
+			}
+			reloads.incrementAndGet();// the parser may have modified the maps directly
 		}
 	}
 
@@ -1,15 +1,22 @@
 package me.hypherionmc.moonconfig.core.file;
 
 import me.hypherionmc.moonconfig.core.Config;
+import me.hypherionmc.moonconfig.core.SnapshotConfig;
+import me.hypherionmc.moonconfig.core.UnmodifiableConfig;
 import me.hypherionmc.moonconfig.core.io.ConfigParser;
 import me.hypherionmc.moonconfig.core.io.ConfigWriter;
 import me.hypherionmc.moonconfig.core.io.ParsingMode;
+import me.hypherionmc.moonconfig.core.io.ReadingMode;
 import me.hypherionmc.moonconfig.core.io.WritingMode;
 import me.hypherionmc.moonconfig.core.utils.ConfigWrapper;
 
 import java.io.File;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 /**
  * @author TheElectronWill
@@ -25,12 +32,15 @@ final class WriteSyncFileConfig<C extends Config> extends ConfigWrapper<C> imple
 	private final ConfigParser<?> parser;
 	private final FileNotFoundAction nefAction;
 	private final ParsingMode parsingMode;
+	private final ReadingMode readingMode;
 
 	private volatile boolean currentlyWriting = false;
+	private volatile long reloads = 0;// modified while holding the lock
 
 	WriteSyncFileConfig(C config, Path nioPath, Charset charset, ConfigWriter writer,
 						 WritingMode writingMode, ConfigParser<?> parser,
-						 ParsingMode parsingMode, FileNotFoundAction nefAction) {
+						 ParsingMode parsingMode, FileNotFoundAction nefAction,
+						 ReadingMode readingMode) {
 		super(config);
 		this.nioPath = nioPath;
 		this.charset = charset;
@@ -38,9 +48,36 @@ final class WriteSyncFileConfig<C extends Config> extends ConfigWrapper<C> imple
 		this.parser = parser;
 		this.parsingMode = parsingMode;
 		this.nefAction = nefAction;
+		this.readingMode = readingMode;
 		this.writingMode = writingMode;
 	}
 
+	@Override
+	public <T> T compute(List<String> path, Function<? super T, ? extends T> remappingFunction) {
+		return config.compute(path, remappingFunction);
+	}
+
+	@Override
+	public void putAll(UnmodifiableConfig config) {
+		this.config.putAll(config);
+	}
+
+	@Override
+	public void removeAll(UnmodifiableConfig config) {
+		this.config.removeAll(config);
+	}
+
+	@Override
+	public void setAll(Map<? extends List<String>, ?> values) {
+		config.setAll(values);
+	}
+
+	@Override
+	public long version() {
+		long version = config.version();
+		return (version < 0) ? version : version + reloads;
+	}
+
 	@Override
 	public File getFile() {
 		return nioPath.toFile();
@@ -70,7 +107,20 @@ final class WriteSyncFileConfig<C extends Config> extends ConfigWrapper<C> imple
 				if (closed) {
 					throw new IllegalStateException("Cannot (re)load a closed FileConfig");
 				}
-				parser.parse(nioPath, config, parsingMode, nefAction);
+				if (config instanceof SnapshotConfig) {// publishes the reloaded content at once
+					SnapshotConfig snapshots = (SnapshotConfig)config;
+					if (parsingMode == ParsingMode.REPLACE && Files.exists(nioPath)) {
+						// The current content would be discarded, so it's not worth copying
+						snapshots.replace(
+							c -> parser.parse(nioPath, c, parsingMode, nefAction, charset, readingMode));
+					} else {
+						snapshots.update(
+							c -> parser.parse(nioPath, c, parsingMode, nefAction, charset, readingMode));
+					}
+				} else {
+					parser.parse(nioPath, config, parsingMode, nefAction, charset, readingMode);
+				}
+				reloads++;// the parser may have modified the maps directly
 			}
 		}
 	}
@@ -44,6 +44,16 @@ public final class ArrayInput extends AbstractInput {
 		this.limit = limit;
 	}
 
+	/**
+	 * Returns the index, in the underlying array, of the next character that will be read. The
+	 * characters that have been peeked or pushed back are taken into account.
+	 *
+	 * @return the position of the input in the array
+	 */
+	public int position() {
+		return cursor - deque.size();
+	}
+
 	@Override
 	protected int directRead() {
 		if (cursor >= limit) {
@@ -0,0 +1,234 @@
+package me.hypherionmc.moonconfig.core.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * An implementation of {@link CharacterInput} based on a {@link Reader}, that reads the data by
+ * large blocks into a reusable buffer. The read, peek and pushBack operations only move an index
+ * in the buffer, and {@link #readUntil(char[])} and {@link #readCharsUntil(char[])} scan the
+ * buffer directly.
+ * <p>
+ * To avoid copying the data, the CharsWrappers returned by {@link #readUntil(char[])} and
+ * {@link #readCharsUntil(char[])} are views of the buffer. They stay valid until the next call
+ * to a method of this input, because the buffer may then be refilled. If the result must be kept
+ * longer, copy it, for instance with {@link CharsWrapper#toString()}. The other methods return
+ * independent CharsWrappers.
+ * <p>
+ * The buffer grows when a single operation needs more data than it can contain, for example to
+ * read a very long line with readUntil.
+ */
+public final class BufferedInput implements CharacterInput {
+	/**
+	 * The default size of the buffer, in characters.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private final Reader reader;
+	private char[] buffer;
+	private int position, limit;
+	private int peekLimit;// the index after the last peeked or pushed back character
+	private boolean endReached;
+
+	/**
+	 * Creates a new BufferedInput with the default buffer size.
+	 *
+	 * @param reader the Reader to read the data from
+	 */
+	public BufferedInput(Reader reader) {
+		this(reader, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Creates a new BufferedInput.
+	 *
+	 * @param reader     the Reader to read the data from
+	 * @param bufferSize the initial size of the buffer, in characters
+	 */
+	public BufferedInput(Reader reader, int bufferSize) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("The buffer size must be positive.");
+		}
+		this.reader = reader;
+		this.buffer = new char[bufferSize];
+	}
+
+	/**
+	 * Ensures that at least {@code count} characters are available after the position, by reading
+	 * more data if needed. The characters before the position may be discarded.
+	 *
+	 * @return true if there are enough characters, false if the end of the data has been reached
+	 */
+	private boolean ensure(int count) {
+		if (limit - position >= count) {
+			return true;
+		}
+		if (endReached) {
+			return false;
+		}
+		if (position + count > buffer.length) {
+			// Moves the remaining data to the beginning of the buffer, or to a bigger buffer
+			final int remaining = limit - position;
+			final char[] destination;
+			if (count > buffer.length) {
+				destination = new char[Math.max(count, buffer.length * 2)];
+			} else {
+				destination = buffer;
+			}
+			System.arraycopy(buffer, position, destination, 0, remaining);
+			buffer = destination;
+			peekLimit -= position;
+			limit = remaining;
+			position = 0;
+		}
+		try {
+			while (limit - position < count) {
+				int read = reader.read(buffer, limit, buffer.length - limit);
+				if (read == -1) {
+					endReached = true;
+					return false;
+				}
+				limit += read;
+			}
+		} catch (IOException e) {
+			throw ParsingException.readFailed(e);
+		}
+		return true;
+	}
+
+	@Override
+	public int read() {
+		if (position < limit || ensure(1)) {
+			return buffer[position++];
+		}
+		return -1;
+	}
+
+	@Override
+	public char readChar() {
+		if (position < limit || ensure(1)) {
+			return buffer[position++];
+		}
+		throw ParsingException.notEnoughData();
+	}
+
+	@Override
+	public CharsWrapper read(int n) {
+		ensure(n);
+		final int size = Math.min(n, limit - position);
+		final char[] array = Arrays.copyOfRange(buffer, position, position + size);
+		position += size;
+		return new CharsWrapper(array);
+	}
+
+	@Override
+	public CharsWrapper readChars(int n) {
+		if (!ensure(n)) {
+			throw ParsingException.notEnoughData();
+		}
+		final char[] array = Arrays.copyOfRange(buffer, position, position + n);
+		position += n;
+		return new CharsWrapper(array);
+	}
+
+	@Override
+	public CharsWrapper readUntil(char[] stop) {
+		int i = position;
+		while (true) {
+			for (; i < limit; i++) {
+				if (Utils.arrayContains(stop, buffer[i])) {
+					return consumeView(i);
+				}
+			}
+			final int scanned = i - position;
+			if (!ensure(scanned + 1)) {
+				return consumeView(limit);
+			}
+			i = position + scanned;// the data may have been moved
+		}
+	}
+
+	@Override
+	public CharsWrapper readCharsUntil(char[] stop) {
+		int i = position;
+		while (true) {
+			for (; i < limit; i++) {
+				if (Utils.arrayContains(stop, buffer[i])) {
+					return consumeView(i);
+				}
+			}
+			final int scanned = i - position;
+			if (!ensure(scanned + 1)) {
+				throw ParsingException.notEnoughData();
+			}
+			i = position + scanned;
+		}
+	}
+
+	/**
+	 * Returns a view of the characters between the position and {@code end}, and moves the
+	 * position to {@code end}. Like with the other inputs, the stop character is considered as
+	 * peeked.
+	 */
+	private CharsWrapper consumeView(int end) {
+		CharsWrapper view = new CharsWrapper(buffer, position, end);
+		position = end;
+		peekLimit = Math.max(peekLimit, Math.min(end + 1, limit));
+		return view;
+	}
+
+	@Override
+	public int peek() {
+		return peek(0);
+	}
+
+	@Override
+	public int peek(int n) {
+		if (!ensure(n + 1)) {
+			peekLimit = limit;
+			return -1;
+		}
+		peekLimit = Math.max(peekLimit, position + n + 1);
+		return buffer[position + n];
+	}
+
+	@Override
+	public char peekChar() {
+		return peekChar(0);
+	}
+
+	@Override
+	public char peekChar(int n) {
+		int c = peek(n);
+		if (c == -1) {
+			throw ParsingException.notEnoughData();
+		}
+		return (char)c;
+	}
+
+	@Override
+	public void skipPeeks() {
+		position = Math.max(position, Math.min(peekLimit, limit));
+	}
+
+	@Override
+	public void pushBack(char c) {
+		if (position > 0 && buffer[position - 1] == c) {
+			position--;// the usual case: the character that has just been read
+		} else {
+			// Inserts the character without modifying the data before the position, which may
+			// be used by a view
+			if (limit == buffer.length) {
+				buffer = Arrays.copyOf(buffer, buffer.length * 2);
+			}
+			System.arraycopy(buffer, position, buffer, position + 1, limit - position);
+			buffer[position] = c;
+			limit++;
+			if (peekLimit > position) {
+				peekLimit++;
+			}
+		}
+		peekLimit = Math.max(peekLimit, position + 1);
+	}
+}
\ No newline at end of file
@@ -179,10 +179,28 @@ public interface ConfigParser<C extends Config> {
 	 * @throws ParsingException if an error occurs
 	 */
 	default C parse(Path file, FileNotFoundAction nefAction, Charset charset) {
+		return parse(file, nefAction, charset, ReadingMode.STREAM);
+	}
+
+	/**
+	 * Parses a configuration.
+	 *
+	 * @param file        the nio Path to parse
+	 * @param readingMode the way to read the file
+	 * @return a Config
+	 * @throws ParsingException if an error occurs
+	 */
+	default C parse(Path file, FileNotFoundAction nefAction, Charset charset,
+					ReadingMode readingMode) {
 		try {
 			if(Files.notExists(file) && !nefAction.run(file, getFormat())) {
 				return getFormat().createConfig();
 			}
+			if (readingMode == ReadingMode.MEMORY_MAPPED) {
+				try (Reader reader = new MappedFileReader(file, charset)) {
+					return parse(reader);
+				}
+			}
 			try (InputStream input = Files.newInputStream(file)) {
 				return parse(input, charset);
 			}
@@ -211,10 +229,29 @@ public interface ConfigParser<C extends Config> {
 	 */
 	default void parse(Path file, Config destination, ParsingMode parsingMode,
 					   FileNotFoundAction nefAction, Charset charset) {
+		parse(file, destination, parsingMode, nefAction, charset, ReadingMode.STREAM);
+	}
+
+	/**
+	 * Parses a configuration.
+	 *
+	 * @param file        the nio Path to parse
+	 * @param destination the config where to put the data
+	 * @param readingMode the way to read the file
+	 * @throws ParsingException if an error occurs
+	 */
+	default void parse(Path file, Config destination, ParsingMode parsingMode,
+					   FileNotFoundAction nefAction, Charset charset, ReadingMode readingMode) {
 		try {
 			if (Files.notExists(file) && !nefAction.run(file, getFormat())) {
 				return;
 			}
+			if (readingMode == ReadingMode.MEMORY_MAPPED) {
+				try (Reader reader = new MappedFileReader(file, charset)) {
+					parse(reader, destination, parsingMode);
+				}
+				return;
+			}
 			try (InputStream input = Files.newInputStream(file)) {
 				parse(input, destination, parsingMode, charset);
 			}
@@ -0,0 +1,218 @@
+package me.hypherionmc.moonconfig.core.io;
+
+import java.math.BigInteger;
+
+/**
+ * Parses decimal numbers to doubles without creating any object. The common cases are handled
+ * by the algorithm of Clinger, and by the algorithm of Eisel and Lemire, which is always
+ * correctly rounded when it gives a result. The rare cases where it can't decide, and the
+ * syntaxes that aren't plain decimal numbers, like "NaN" or hexadecimal numbers, are given to
+ * {@link Double#parseDouble(String)}.
+ *
+ * @see <a href="https://arxiv.org/abs/2101.11408">Number Parsing at a Gigabyte per Second</a>
+ */
+final class DoubleParser {
+	private DoubleParser() {}
+
+	private static final int MIN_EXPONENT = -342, MAX_EXPONENT = 308;
+	private static final double[] EXACT_POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15,
+		1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	/**
+	 * Parses the characters between begin (inclusive) and end (exclusive).
+	 *
+	 * @throws NumberFormatException if the characters don't represent a double
+	 */
+	static double parse(char[] chars, int begin, int end) {
+		int i = begin;
+		boolean negative = false;
+		if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+			negative = (chars[i] == '-');
+			i++;
+		}
+		// Reads at most 19 significant digits, as an unsigned long, and counts the others in the
+		// exponent
+		long digits = 0;
+		int digitCount = 0, exponent = 0;
+		boolean truncated = false, anyDigit = false;
+		for (; i < end && isDigit(chars[i]); i++) {
+			anyDigit = true;
+			if (digitCount < 19) {
+				digits = digits * 10 + (chars[i] - '0');
+				if (digits != 0) {
+					digitCount++;
+				}
+			} else {
+				truncated |= (chars[i] != '0');
+				exponent++;
+			}
+		}
+		if (i < end && chars[i] == '.') {
+			for (i++; i < end && isDigit(chars[i]); i++) {
+				anyDigit = true;
+				if (digitCount < 19) {
+					digits = digits * 10 + (chars[i] - '0');
+					exponent--;
+					if (digits != 0) {
+						digitCount++;
+					}
+				} else {
+					truncated |= (chars[i] != '0');
+				}
+			}
+		}
+		if (!anyDigit) {
+			return fallback(chars, begin, end);
+		}
+		if (i < end && (chars[i] == 'e' || chars[i] == 'E')) {
+			i++;
+			boolean negativeExponent = false;
+			if (i < end && (chars[i] == '-' || chars[i] == '+')) {
+				negativeExponent = (chars[i] == '-');
+				i++;
+			}
+			if (i == end || !isDigit(chars[i])) {
+				return fallback(chars, begin, end);
+			}
+			int explicitExponent = 0;
+			for (; i < end && isDigit(chars[i]); i++) {
+				if (explicitExponent < 100_000) {// big enough to give 0 or infinity
+					explicitExponent = explicitExponent * 10 + (chars[i] - '0');
+				}
+			}
+			exponent += negativeExponent ? -explicitExponent : explicitExponent;
+		}
+		if (i != end) {// other syntax, like a suffix or spaces
+			return fallback(chars, begin, end);
+		}
+		double result;
+		if (digits == 0) {
+			result = 0.0;
+		} else if (!truncated && exponent >= -22 && exponent <= 22
+				   && Long.compareUnsigned(digits, 1L << 53) <= 0) {
+			// Clinger's fast path: the digits and the power of ten are exact doubles
+			double d = (double)digits;
+			result = (exponent < 0) ? d / EXACT_POWERS_OF_TEN[-exponent]
+									: d * EXACT_POWERS_OF_TEN[exponent];
+		} else {
+			long bits = eiselLemire(digits, exponent);
+			if (truncated && bits != -1 && bits != eiselLemire(digits + 1, exponent)) {
+				bits = -1;// the ignored digits may change the result
+			}
+			if (bits == -1) {
+				return fallback(chars, begin, end);
+			}
+			result = Double.longBitsToDouble(bits);
+		}
+		return negative ? -result : result;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static double fallback(char[] chars, int begin, int end) {
+		return Double.parseDouble(new String(chars, begin, end - begin));
+	}
+
+	/**
+	 * Computes the bits of the double that is the closest to {@code w * 10^q}, with w > 0.
+	 *
+	 * @return the bits of the positive double, or -1 if the algorithm can't decide
+	 */
+	private static long eiselLemire(long w, int q) {
+		if (q < MIN_EXPONENT) {
+			return 0;
+		}
+		if (q > MAX_EXPONENT) {
+			return 0x7FFL << 52;// infinity
+		}
+		final int lz = Long.numberOfLeadingZeros(w);
+		w <<= lz;
+		final int index = 2 * (q - MIN_EXPONENT);
+		final long high5 = PowersOfFive.TABLE[index], low5 = PowersOfFive.TABLE[index + 1];
+		// 128-bits product of w and the 128-bits approximation of 5^q
+		long high = multiplyHigh(w, high5);
+		long low = w * high5;
+		if ((high & 0x1FF) == 0x1FF) {// the approximation may be too imprecise
+			long secondHigh = multiplyHigh(w, low5);
+			low += secondHigh;
+			if (Long.compareUnsigned(secondHigh, low) > 0) {
+				high++;
+			}
+		}
+		if (low == -1L && (q < -27 || q > 55)) {
+			return -1;
+		}
+		final int upperBit = (int)(high >>> 63);
+		final int shift = upperBit + 9;
+		long mantissa = high >>> shift;
+		int power2 = (((152170 + 65536) * q) >> 16) + 63 + upperBit - lz + 1023;
+		if (power2 <= 0) {// subnormal
+			if (-power2 + 1 >= 64) {
+				return 0;
+			}
+			mantissa >>>= -power2 + 1;
+			mantissa += (mantissa & 1);
+			mantissa >>>= 1;
+			power2 = (mantissa < (1L << 52)) ? 0 : 1;
+			return ((long)power2 << 52) | (mantissa & ~(1L << 52));
+		}
+		if ((low == 0 || low == 1) && q >= -4 && q <= 23 && (mantissa & 3) == 1
+			&& (mantissa << shift) == high) {
+			mantissa &= ~1;// exactly halfway: rounds to even
+		}
+		mantissa += (mantissa & 1);
+		mantissa >>>= 1;
+		if (mantissa >= (2L << 52)) {
+			mantissa = (1L << 52);
+			power2++;
+		}
+		mantissa &= ~(1L << 52);
+		if (power2 >= 0x7FF) {
+			return 0x7FFL << 52;// infinity
+		}
+		return ((long)power2 << 52) | mantissa;
+	}
+
+	/**
+	 * @return the high 64 bits of the unsigned 128-bits product of a and b
+	 */
+	static long multiplyHigh(long a, long b) {
+		final long mask = 0xFFFFFFFFL;
+		long aHigh = a >>> 32, aLow = a & mask, bHigh = b >>> 32, bLow = b & mask;
+		long lowLow = aLow * bLow, lowHigh = aLow * bHigh, highLow = aHigh * bLow;
+		long middle = (lowLow >>> 32) + (lowHigh & mask) + (highLow & mask);
+		return aHigh * bHigh + (lowHigh >>> 32) + (highLow >>> 32) + (middle >>> 32);
+	}
+
+	/**
+	 * The 128-bits approximations of the powers of five from 5^-342 to 5^308, normalized so that
+	 * their most significant bit is set. Computed once, when the fast path is first needed.
+	 */
+	private static final class PowersOfFive {
+		static final long[] TABLE = new long[2 * (MAX_EXPONENT - MIN_EXPONENT + 1)];
+
+		static {
+			final BigInteger five = BigInteger.valueOf(5);
+			final BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+			for (int q = MIN_EXPONENT; q <= MAX_EXPONENT; q++) {
+				BigInteger c;
+				if (q < 0) {
+					BigInteger power5 = five.pow(-q);
+					int z = power5.bitLength();// 2^(z-1) < 5^-q < 2^z
+					int b = (q >= -27) ? z + 127 : 2 * z + 128;
+					c = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+				} else {
+					c = five.pow(q);
+				}
+				c = c.shiftRight(c.bitLength() - 128);// keeps the 128 most significant bits
+				int index = 2 * (q - MIN_EXPONENT);
+				TABLE[index] = c.shiftRight(64).longValue();
+				TABLE[index + 1] = c.and(mask).longValue();
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+package me.hypherionmc.moonconfig.core.io;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.*;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A Reader that decodes a memory-mapped file. The characters are decoded from the mapped bytes
+ * directly into the arrays given to {@link #read(char[], int, int)}, without intermediate
+ * buffers.
+ * <p>
+ * Like InputStreamReader, the malformed input is replaced by the charset's replacement
+ * character. The well-formed UTF-8 sequences are decoded by an inlined loop, and the other
+ * bytes by the charset's decoder.
+ */
+final class MappedFileReader extends Reader {
+	/**
+	 * The maximum number of bytes mapped at once.
+	 */
+	private static final long WINDOW_SIZE = 1 << 30;
+
+	private final FileChannel channel;
+	private final long fileSize;
+	private final CharsetDecoder decoder;
+	private final boolean utf8;
+	private MappedByteBuffer bytes;
+	private long windowStart;
+	private boolean lastWindow, flushed;
+	private char pendingChar;// the second char of a pair that didn't fit in the destination
+	private boolean hasPending;
+
+	MappedFileReader(Path file, Charset charset) throws IOException {
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		this.decoder = charset.newDecoder()
+							  .onMalformedInput(CodingErrorAction.REPLACE)
+							  .onUnmappableCharacter(CodingErrorAction.REPLACE);
+		this.utf8 = charset.equals(StandardCharsets.UTF_8);
+		try {
+			this.fileSize = channel.size();
+			map(0);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	private void map(long start) throws IOException {
+		long size = Math.min(fileSize - start, WINDOW_SIZE);
+		bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+		windowStart = start;
+		lastWindow = (start + size == fileSize);
+	}
+
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException {
+		if (bytes == null) {
+			throw new IOException("Stream closed");
+		}
+		if (len == 0) {
+			return 0;
+		}
+		int n = 0;
+		if (hasPending) {
+			cbuf[off] = pendingChar;
+			hasPending = false;
+			n = 1;
+		}
+		while (n < len) {
+			if (utf8) {
+				n = decodeUtf8(cbuf, off + n, off + len) - off;
+				if (n == len) {
+					break;
+				}
+			}
+			if (flushed) {// end of the file
+				break;
+			}
+			// Irregular bytes, end of the window or end of the file: uses the standard decoder
+			CharBuffer out = CharBuffer.wrap(cbuf, off + n, len - n);
+			CoderResult result = decoder.decode(bytes, out, lastWindow);
+			n = out.position() - off;
+			if (result.isUnderflow()) {
+				if (!lastWindow) {
+					map(windowStart + bytes.position());
+					continue;
+				}
+				decoder.flush(out);
+				flushed = true;
+				n = out.position() - off;
+				break;
+			}
+			if (n < len) {// the next character is a pair that doesn't fit in the remaining space
+				CharBuffer pair = CharBuffer.allocate(2);
+				decoder.decode(bytes, pair, lastWindow);
+				cbuf[off + n++] = pair.get(0);
+				if (pair.position() == 2) {
+					pendingChar = pair.get(1);
+					hasPending = true;
+				}
+			}
+			break;
+		}
+		return (n == 0) ? -1 : n;
+	}
+
+	/**
+	 * Decodes the well-formed UTF-8 sequences. Stops at the first irregular sequence, at the end
+	 * of the window or when the destination is full.
+	 *
+	 * @return the index after the last decoded char
+	 */
+	private int decodeUtf8(char[] dst, int o, int end) {
+		final MappedByteBuffer bytes = this.bytes;
+		final int limit = bytes.limit();
+		int p = bytes.position();
+		while (o < end && p < limit) {
+			final int b = bytes.get(p);
+			if (b >= 0) {// ASCII
+				dst[o++] = (char)b;
+				p++;
+				continue;
+			}
+			if ((b & 0xE0) == 0xC0 && p + 1 < limit) {
+				int b1 = bytes.get(p + 1);
+				if ((b & 0x1E) != 0 && (b1 & 0xC0) == 0x80) {
+					dst[o++] = (char)(((b & 0x1F) << 6) | (b1 & 0x3F));
+					p += 2;
+					continue;
+				}
+			} else if ((b & 0xF0) == 0xE0 && p + 2 < limit) {
+				int b1 = bytes.get(p + 1), b2 = bytes.get(p + 2);
+				int c = ((b & 0x0F) << 12) | ((b1 & 0x3F) << 6) | (b2 & 0x3F);
+				if ((b1 & 0xC0) == 0x80 && (b2 & 0xC0) == 0x80 && c >= 0x800
+					&& !Character.isSurrogate((char)c)) {
+					dst[o++] = (char)c;
+					p += 3;
+					continue;
+				}
+			} else if ((b & 0xF8) == 0xF0 && p + 3 < limit && o + 1 < end) {
+				int b1 = bytes.get(p + 1), b2 = bytes.get(p + 2), b3 = bytes.get(p + 3);
+				int c = ((b & 0x07) << 18) | ((b1 & 0x3F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F);
+				if ((b1 & 0xC0) == 0x80 && (b2 & 0xC0) == 0x80 && (b3 & 0xC0) == 0x80
+					&& c >= 0x10000 && c <= Character.MAX_CODE_POINT) {
+					dst[o++] = Character.highSurrogate(c);
+					dst[o++] = Character.lowSurrogate(c);
+					p += 4;
+					continue;
+				}
+			}
+			break;
+		}
+		bytes.position(p);
+		return o;
+	}
+
+	@Override
+	public void close() throws IOException {
+		bytes = null;// the mapping is released when it's garbage-collected
+		channel.close();
+	}
+}
\ No newline at end of file
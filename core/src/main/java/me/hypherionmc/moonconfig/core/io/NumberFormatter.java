@@ -0,0 +1,518 @@
+package me.hypherionmc.moonconfig.core.io;
+
+import java.math.BigInteger;
+
+import static me.hypherionmc.moonconfig.core.io.DoubleParser.multiplyHigh;
+
+/**
+ * Writes numbers to a {@link CharacterOutput} without creating any String. The digits are
+ * generated in a per-thread buffer and written in one call.
+ * <p>
+ * The integers are written like {@link Long#toString(long)}. The floating-point numbers are
+ * written with the syntax of {@link Double#toString(double)}, and with the shortest decimal that
+ * rounds to the exact same value, computed by the Schubfach algorithm of Raffaello Giulietti.
+ * This is also what Double.toString and Float.toString give since Java 19. Older versions of
+ * Java sometimes print more digits than necessary, like "9.999999999999999E22" for {@code 1e23}.
+ */
+public final class NumberFormatter {
+	private NumberFormatter() {}
+
+	private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[32]);
+
+	private static final long[] POWERS_OF_TEN = {
+		1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+		1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+		10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+		10_000_000_000_000_000L, 100_000_000_000_000_000L
+	};
+
+	// Double constants: precision, minimum exponent, smallest normal significand
+	private static final int D_PRECISION = 53, D_MIN_EXPONENT = -1074;
+	private static final long D_MIN_SIGNIFICAND = 1L << 52;
+	private static final int D_DIGITS = 17;
+
+	// Float constants
+	private static final int F_PRECISION = 24, F_MIN_EXPONENT = -149;
+	private static final int F_MIN_SIGNIFICAND = 1 << 23;
+	private static final int F_DIGITS = 9;
+
+	private static final int MASK_28 = (1 << 28) - 1;
+
+	/**
+	 * Writes a number. Integers, longs, shorts, bytes, floats and doubles are written without
+	 * allocation. The other types of numbers, like BigDecimal, are written with their toString
+	 * method.
+	 *
+	 * @param value  the number to write
+	 * @param output the output to write to
+	 */
+	public static void write(Number value, CharacterOutput output) {
+		if (value instanceof Integer || value instanceof Long
+			|| value instanceof Short || value instanceof Byte) {
+			writeLong(value.longValue(), output);
+		} else if (value instanceof Double) {
+			writeDouble(value.doubleValue(), output);
+		} else if (value instanceof Float) {
+			writeFloat(value.floatValue(), output);
+		} else {
+			output.write(value.toString());
+		}
+	}
+
+	/**
+	 * Writes an integer, like {@link Long#toString(long)}.
+	 *
+	 * @param value  the value to write
+	 * @param output the output to write to
+	 */
+	public static void writeLong(long value, CharacterOutput output) {
+		final char[] buffer = BUFFER.get();
+		final int start = formatLong(value, buffer);
+		output.write(buffer, start, buffer.length - start);
+	}
+
+	/**
+	 * Writes a double with the shortest decimal that represents it exactly, with the syntax of
+	 * {@link Double#toString(double)}.
+	 *
+	 * @param value  the value to write
+	 * @param output the output to write to
+	 */
+	public static void writeDouble(double value, CharacterOutput output) {
+		final char[] buffer = BUFFER.get();
+		final int length = formatDouble(value, buffer);
+		output.write(buffer, 0, length);
+	}
+
+	/**
+	 * Writes a float with the shortest decimal that represents it exactly, with the syntax of
+	 * {@link Float#toString(float)}.
+	 *
+	 * @param value  the value to write
+	 * @param output the output to write to
+	 */
+	public static void writeFloat(float value, CharacterOutput output) {
+		final char[] buffer = BUFFER.get();
+		final int length = formatFloat(value, buffer);
+		output.write(buffer, 0, length);
+	}
+
+	/**
+	 * Writes the digits of a long at the end of the buffer.
+	 *
+	 * @return the index of the first character
+	 */
+	static int formatLong(long value, char[] buffer) {
+		int pos = buffer.length;
+		long q = (value > 0) ? -value : value;// negative, to support Long.MIN_VALUE
+		do {
+			long next = q / 10;
+			buffer[--pos] = (char)('0' + (next * 10 - q));
+			q = next;
+		} while (q != 0);
+		if (value < 0) {
+			buffer[--pos] = '-';
+		}
+		return pos;
+	}
+
+	/**
+	 * Writes a double at the beginning of the buffer.
+	 *
+	 * @return the number of characters
+	 */
+	static int formatDouble(double value, char[] buffer) {
+		final long bits = Double.doubleToRawLongBits(value);
+		final long t = bits & (D_MIN_SIGNIFICAND - 1);
+		final int bq = (int)(bits >>> 52) & 0x7FF;
+		if (bq == 0x7FF) {
+			return special((t != 0) ? "NaN" : (bits > 0) ? "Infinity" : "-Infinity", buffer);
+		}
+		int pos = 0;
+		if (bits < 0) {
+			buffer[pos++] = '-';
+		}
+		if (bq != 0) {// normal value
+			final int mq = -D_MIN_EXPONENT + 1 - bq;
+			final long c = D_MIN_SIGNIFICAND | t;
+			if (0 < mq && mq < D_PRECISION) {// maybe an integer: the value is c * 2^-mq
+				final long f = c >> mq;
+				if (f << mq == c) {
+					return doubleChars(f, 0, buffer, pos);
+				}
+			}
+			return doubleToDecimal(-mq, c, 0, buffer, pos);
+		}
+		if (t != 0) {// subnormal value
+			return (t < 3) ? doubleToDecimal(D_MIN_EXPONENT, 10 * t, -1, buffer, pos)
+						   : doubleToDecimal(D_MIN_EXPONENT, t, 0, buffer, pos);
+		}
+		return zero(buffer, pos);
+	}
+
+	/**
+	 * Writes a float at the beginning of the buffer.
+	 *
+	 * @return the number of characters
+	 */
+	static int formatFloat(float value, char[] buffer) {
+		final int bits = Float.floatToRawIntBits(value);
+		final int t = bits & (F_MIN_SIGNIFICAND - 1);
+		final int bq = (bits >>> 23) & 0xFF;
+		if (bq == 0xFF) {
+			return special((t != 0) ? "NaN" : (bits > 0) ? "Infinity" : "-Infinity", buffer);
+		}
+		int pos = 0;
+		if (bits < 0) {
+			buffer[pos++] = '-';
+		}
+		if (bq != 0) {// normal value
+			final int mq = -F_MIN_EXPONENT + 1 - bq;
+			final int c = F_MIN_SIGNIFICAND | t;
+			if (0 < mq && mq < F_PRECISION) {
+				final int f = c >> mq;
+				if (f << mq == c) {
+					return floatChars(f, 0, buffer, pos);
+				}
+			}
+			return floatToDecimal(-mq, c, 0, buffer, pos);
+		}
+		if (t != 0) {// subnormal value
+			return (t < 8) ? floatToDecimal(F_MIN_EXPONENT, 10 * t, -1, buffer, pos)
+						   : floatToDecimal(F_MIN_EXPONENT, t, 0, buffer, pos);
+		}
+		return zero(buffer, pos);
+	}
+
+	private static int special(String s, char[] buffer) {
+		s.getChars(0, s.length(), buffer, 0);
+		return s.length();
+	}
+
+	private static int zero(char[] buffer, int pos) {
+		buffer[pos++] = '0';
+		buffer[pos++] = '.';
+		buffer[pos++] = '0';
+		return pos;
+	}
+
+	/**
+	 * Finds the shortest decimal in the rounding interval of the double {@code c * 2^q}, and
+	 * writes it. If several decimals have the shortest length, the closest one is chosen.
+	 *
+	 * @return the index after the last character
+	 */
+	private static int doubleToDecimal(int q, long c, int dk, char[] buffer, int pos) {
+		final int out = (int)c & 1;
+		final long cb = c << 2;
+		final long cbr = cb + 2;
+		final long cbl;
+		final int k;
+		if (c != D_MIN_SIGNIFICAND || q == D_MIN_EXPONENT) {
+			cbl = cb - 2;
+			k = floorLog10Pow2(q);
+		} else {// the interval is asymmetric at the powers of two
+			cbl = cb - 1;
+			k = floorLog10ThreeQuartersPow2(q);
+		}
+		final int h = q + floorLog2Pow10(-k) + 2;
+		final int index = 2 * (k - PowersOfTen.MIN_K);
+		final long g1 = PowersOfTen.TABLE[index], g0 = PowersOfTen.TABLE[index + 1];
+
+		final long vb = roundOdd(g1, g0, cb << h);
+		final long vbl = roundOdd(g1, g0, cbl << h);
+		final long vbr = roundOdd(g1, g0, cbr << h);
+
+		final long s = vb >> 2;
+		if (s >= 100) {
+			// Tries the multiples of ten around the value: they have one digit less
+			final long sp10 = 10 * multiplyHigh(s, 115_292_150_460_684_698L << 4);
+			final long tp10 = sp10 + 10;
+			final boolean upin = vbl + out <= sp10 << 2;
+			final boolean wpin = (tp10 << 2) + out <= vbr;
+			if (upin != wpin) {
+				return doubleChars(upin ? sp10 : tp10, k, buffer, pos);
+			}
+		}
+		final long t = s + 1;
+		final boolean uin = vbl + out <= s << 2;
+		final boolean win = (t << 2) + out <= vbr;
+		if (uin != win) {
+			return doubleChars(uin ? s : t, k + dk, buffer, pos);
+		}
+		// Both s and t are in the interval: chooses the closest one, or the even one
+		final long cmp = vb - (s + t << 1);
+		return doubleChars(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk, buffer, pos);
+	}
+
+	/**
+	 * Like {@link #doubleToDecimal(int, long, int, char[], int)}, for floats.
+	 */
+	private static int floatToDecimal(int q, int c, int dk, char[] buffer, int pos) {
+		final int out = c & 1;
+		final long cb = (long)c << 2;
+		final long cbr = cb + 2;
+		final long cbl;
+		final int k;
+		if (c != F_MIN_SIGNIFICAND || q == F_MIN_EXPONENT) {
+			cbl = cb - 2;
+			k = floorLog10Pow2(q);
+		} else {
+			cbl = cb - 1;
+			k = floorLog10ThreeQuartersPow2(q);
+		}
+		final int h = q + floorLog2Pow10(-k) + 33;
+		final long g = PowersOfTen.TABLE[2 * (k - PowersOfTen.MIN_K)] + 1;
+
+		final int vb = roundOdd(g, cb << h);
+		final int vbl = roundOdd(g, cbl << h);
+		final int vbr = roundOdd(g, cbr << h);
+
+		final int s = vb >> 2;
+		if (s >= 100) {
+			final int sp10 = 10 * (int)(s * 1_717_986_919L >>> 34);
+			final int tp10 = sp10 + 10;
+			final boolean upin = vbl + out <= sp10 << 2;
+			final boolean wpin = (tp10 << 2) + out <= vbr;
+			if (upin != wpin) {
+				return floatChars(upin ? sp10 : tp10, k, buffer, pos);
+			}
+		}
+		final int t = s + 1;
+		final boolean uin = vbl + out <= s << 2;
+		final boolean win = (t << 2) + out <= vbr;
+		if (uin != win) {
+			return floatChars(uin ? s : t, k + dk, buffer, pos);
+		}
+		final int cmp = vb - (s + t << 1);
+		return floatChars(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk, buffer, pos);
+	}
+
+	/**
+	 * @return floor(q * log10(2))
+	 */
+	private static int floorLog10Pow2(int q) {
+		return (int)(q * 661_971_961_083L >> 41);
+	}
+
+	/**
+	 * @return floor(log10(3/4 * 2^q))
+	 */
+	private static int floorLog10ThreeQuartersPow2(int q) {
+		return (int)(q * 661_971_961_083L - 274_743_187_321L >> 41);
+	}
+
+	/**
+	 * @return floor(e * log2(10))
+	 */
+	private static int floorLog2Pow10(int e) {
+		return (int)(e * 913_124_641_741L >> 38);
+	}
+
+	/**
+	 * Multiplies cp by the 126-bits approximation {@code g1 * 2^63 + g0}, and shifts the product
+	 * right by 127 bits. The last bit of the result is set if the discarded bits aren't all zero.
+	 */
+	private static long roundOdd(long g1, long g0, long cp) {
+		final long x1 = multiplyHigh(g0, cp);
+		final long y0 = g1 * cp;
+		final long y1 = multiplyHigh(g1, cp);
+		final long z = (y0 >>> 1) + x1;
+		final long vbp = y1 + (z >>> 63);
+		return vbp | (z & Long.MAX_VALUE) + Long.MAX_VALUE >>> 63;
+	}
+
+	/**
+	 * Like {@link #roundOdd(long, long, long)} with the 63-bits approximation g, for floats.
+	 */
+	private static int roundOdd(long g, long cp) {
+		final long x1 = multiplyHigh(g, cp);
+		final long vbp = x1 >>> 31;
+		return (int)(vbp | (x1 & 0xFFFFFFFFL) + 0xFFFFFFFFL >>> 32);
+	}
+
+	/**
+	 * Writes the decimal {@code f * 10^e}, with f having at most 17 digits.
+	 *
+	 * @return the index after the last character
+	 */
+	private static int doubleChars(long f, int e, char[] buffer, int pos) {
+		int len = floorLog10Pow2(64 - Long.numberOfLeadingZeros(f));
+		if (f >= POWERS_OF_TEN[len]) {
+			len++;
+		}
+		// Scales f to exactly 17 digits, h.mmmmmmmmllllllll, so that the value is 0.f * 10^e
+		f *= POWERS_OF_TEN[D_DIGITS - len];
+		e += len;
+		final long hm = multiplyHigh(f, 193_428_131_138_340_668L) >>> 20;// f / 10^8
+		final int l = (int)(f - 100_000_000L * hm);
+		final int h = (int)(hm * 1_441_151_881L >>> 57);// hm / 10^8
+		final int m = (int)(hm - 100_000_000 * h);
+		if (0 < e && e <= 7) {// plain notation without leading zeros
+			pos = plainDigits(h, m, e, buffer, pos);
+			if (l != 0) {
+				pos = append8Digits(l, buffer, pos);
+			}
+			return removeTrailingZeros(buffer, pos);
+		} else if (-3 < e && e <= 0) {// plain notation with leading zeros
+			pos = leadingZeros(e, buffer, pos);
+			buffer[pos++] = (char)('0' + h);
+			pos = append8Digits(m, buffer, pos);
+			if (l != 0) {
+				pos = append8Digits(l, buffer, pos);
+			}
+			return removeTrailingZeros(buffer, pos);
+		} else {// scientific notation
+			buffer[pos++] = (char)('0' + h);
+			buffer[pos++] = '.';
+			pos = append8Digits(m, buffer, pos);
+			if (l != 0) {
+				pos = append8Digits(l, buffer, pos);
+			}
+			pos = removeTrailingZeros(buffer, pos);
+			return exponent(e - 1, buffer, pos);
+		}
+	}
+
+	/**
+	 * Writes the decimal {@code f * 10^e}, with f having at most 9 digits.
+	 *
+	 * @return the index after the last character
+	 */
+	private static int floatChars(int f, int e, char[] buffer, int pos) {
+		int len = floorLog10Pow2(32 - Integer.numberOfLeadingZeros(f));
+		if (f >= POWERS_OF_TEN[len]) {
+			len++;
+		}
+		// Scales f to exactly 9 digits, h.llllllll
+		f *= (int)POWERS_OF_TEN[F_DIGITS - len];
+		e += len;
+		final int h = (int)(f * 1_441_151_881L >>> 57);// f / 10^8
+		final int l = f - 100_000_000 * h;
+		if (0 < e && e <= 7) {
+			pos = plainDigits(h, l, e, buffer, pos);
+			return removeTrailingZeros(buffer, pos);
+		} else if (-3 < e && e <= 0) {
+			pos = leadingZeros(e, buffer, pos);
+			buffer[pos++] = (char)('0' + h);
+			pos = append8Digits(l, buffer, pos);
+			return removeTrailingZeros(buffer, pos);
+		} else {
+			buffer[pos++] = (char)('0' + h);
+			buffer[pos++] = '.';
+			pos = append8Digits(l, buffer, pos);
+			pos = removeTrailingZeros(buffer, pos);
+			return exponent(e - 1, buffer, pos);
+		}
+	}
+
+	/**
+	 * Writes the digit h and the 8 digits of m, with a dot after the first e digits.
+	 */
+	private static int plainDigits(int h, int m, int e, char[] buffer, int pos) {
+		buffer[pos++] = (char)('0' + h);
+		int y = y(m);
+		for (int i = 1; i <= 8; i++) {
+			if (i == e) {
+				buffer[pos++] = '.';
+			}
+			int t = 10 * y;
+			buffer[pos++] = (char)('0' + (t >>> 28));
+			y = t & MASK_28;
+		}
+		return pos;
+	}
+
+	/**
+	 * Writes "0." followed by -e zeros.
+	 */
+	private static int leadingZeros(int e, char[] buffer, int pos) {
+		buffer[pos++] = '0';
+		buffer[pos++] = '.';
+		for (; e < 0; e++) {
+			buffer[pos++] = '0';
+		}
+		return pos;
+	}
+
+	/**
+	 * Writes the 8 digits of m, with leading zeros. The digits are extracted from left to right,
+	 * as the integer parts of a 28-bits fixed-point fraction.
+	 */
+	private static int append8Digits(int m, char[] buffer, int pos) {
+		int y = y(m);
+		for (int i = 0; i < 8; i++) {
+			int t = 10 * y;
+			buffer[pos++] = (char)('0' + (t >>> 28));
+			y = t & MASK_28;
+		}
+		return pos;
+	}
+
+	/**
+	 * @return floor((a + 1) * 2^28 / 10^8) - 1, the fraction a / 10^8 in 28-bits fixed point
+	 */
+	private static int y(int a) {
+		return (int)(multiplyHigh((long)(a + 1) << 28, 193_428_131_138_340_668L) >>> 20) - 1;
+	}
+
+	/**
+	 * Removes the trailing zeros, but keeps the one just after the dot.
+	 */
+	private static int removeTrailingZeros(char[] buffer, int pos) {
+		while (buffer[pos - 1] == '0') {
+			pos--;
+		}
+		return (buffer[pos - 1] == '.') ? pos + 1 : pos;
+	}
+
+	private static int exponent(int e, char[] buffer, int pos) {
+		buffer[pos++] = 'E';
+		if (e < 0) {
+			buffer[pos++] = '-';
+			e = -e;
+		}
+		if (e >= 100) {
+			final int d = e * 1_311 >>> 17;// e / 100
+			buffer[pos++] = (char)('0' + d);
+			e -= 100 * d;
+			buffer[pos++] = (char)('0' + (e * 103 >>> 10));// e / 10
+		} else if (e >= 10) {
+			buffer[pos++] = (char)('0' + (e * 103 >>> 10));
+		}
+		buffer[pos++] = (char)('0' + e % 10);
+		return pos;
+	}
+
+	/**
+	 * The 126-bits approximations of the powers of ten from 10^-292 to 10^324, used to find the
+	 * decimals in the rounding interval. Computed once, when the first floating-point number is
+	 * written.
+	 * <p>
+	 * For each k, {@code 10^-k = beta * 2^r} with {@code 2^125 <= beta < 2^126}, and
+	 * {@code g = floor(beta) + 1} is split into its 63 high bits and 63 low bits.
+	 */
+	private static final class PowersOfTen {
+		static final int MIN_K = -324, MAX_K = 292;
+		static final long[] TABLE = new long[2 * (MAX_K - MIN_K + 1)];
+
+		static {
+			final BigInteger mask = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+			for (int k = MIN_K; k <= MAX_K; k++) {
+				BigInteger g;
+				if (k <= 0) {
+					BigInteger power10 = BigInteger.TEN.pow(-k);
+					int r = power10.bitLength() - 126;
+					g = (r > 0) ? power10.shiftRight(r) : power10.shiftLeft(-r);
+				} else {
+					BigInteger power10 = BigInteger.TEN.pow(k);
+					g = BigInteger.ONE.shiftLeft(125 + power10.bitLength()).divide(power10);
+				}
+				g = g.add(BigInteger.ONE);
+				int index = 2 * (k - MIN_K);
+				TABLE[index] = g.shiftRight(63).longValue();
+				TABLE[index + 1] = g.and(mask).longValue();
+			}
+		}
+	}
+}
\ No newline at end of file
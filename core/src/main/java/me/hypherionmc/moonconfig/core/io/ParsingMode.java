@@ -1,7 +1,7 @@
 package me.hypherionmc.moonconfig.core.io;
 
 import me.hypherionmc.moonconfig.core.Config;
-import me.hypherionmc.moonconfig.core.utils.StringUtils;
+import me.hypherionmc.moonconfig.core.utils.PathCache;
 
 import java.util.List;
 import java.util.Map;
@@ -84,7 +84,7 @@ public enum ParsingMode {
 		Object put(Config config, List<String> key, Object value);
 
 		default Object put(Config config, String key, Object value) {
-			return put(config, StringUtils.split(key, '.'), value);
+			return put(config, PathCache.split(key), value);
 		}
 	}
 
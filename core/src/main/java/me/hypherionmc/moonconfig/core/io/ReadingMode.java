@@ -0,0 +1,23 @@
+package me.hypherionmc.moonconfig.core.io;
+
+/**
+ * The way the {@link ConfigParser} reads a configuration file.
+ */
+public enum ReadingMode {
+	/**
+	 * Reads the file with an InputStream, and decodes it with an InputStreamReader.
+	 */
+	STREAM,
+
+	/**
+	 * Maps the file into memory, and decodes the characters directly from the mapped bytes. This
+	 * avoids the copies made by the InputStream and the InputStreamReader, and is faster for big
+	 * files. UTF-8 files are decoded with a specialized decoder, the other charsets use their
+	 * standard decoder.
+	 * <p>
+	 * The mapping is released when it is garbage-collected. On some systems, notably Windows, the
+	 * file can't be truncated nor deleted until then, so this mode should be avoided for files that
+	 * are written soon after being read.
+	 */
+	MEMORY_MAPPED
+}
\ No newline at end of file
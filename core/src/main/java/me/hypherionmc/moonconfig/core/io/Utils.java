@@ -1,5 +1,7 @@
 package me.hypherionmc.moonconfig.core.io;
 
+import java.math.BigInteger;
+
 /**
  * Serialization utilities.
  *
@@ -47,29 +49,43 @@ public final class Utils {
 	 * @param chars the CharsWrapper representing a long
 	 * @param base  the base of the number
 	 * @return the long value represented by the CharsWrapper
+	 *
+	 * @throws ParsingException if the CharsWrapper contains an invalid digit, or if the value
+	 *                          doesn't fit in a long
 	 */
 	public static long parseLong(CharsWrapper chars, int base) {
-		// Optimized lightweight parsing
-		int offset = chars.offset;
+		// Optimized lightweight parsing, without creating a String. Like Long.parseLong, the
+		// value is accumulated negatively so that Long.MIN_VALUE can be parsed.
+		final char[] array = chars.chars;
+		final int end = chars.limit;
+		int i = chars.offset;
 		boolean negative = false;
-		char firstChar = chars.charAt(0);
-		if (firstChar == '-') {
-			negative = true;
-			offset += 1;
-		} else if (firstChar == '+') {
-			offset += 1;
+		if (i < end && (array[i] == '-' || array[i] == '+')) {
+			negative = (array[i] == '-');
+			i++;
+		}
+		if (i == end) {
+			throw new ParsingException("Invalid value: " + chars);
 		}
-		long value = 0, coefficient = 1;
-		char[] array = chars.chars;
-		for (int i = chars.limit - 1; i >= offset; i--) {
-			int digitValue = Character.digit(array[i], base);
-			if (digitValue == -1) {//invalid digit in the specified base
+		final long min = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		final long minBeforeMultiply = min / base;
+		long value = 0;
+		for (; i < end; i++) {
+			char c = array[i];
+			int digitValue = (c >= '0' && c <= '9') ? c - '0' : Character.digit(c, base);
+			if (digitValue < 0 || digitValue >= base) {//invalid digit in the specified base
 				throw new ParsingException("Invalid value: " + chars);
 			}
-			value += digitValue * coefficient;
-			coefficient *= base;
+			if (value < minBeforeMultiply) {
+				throw new ParsingException("Integer value out of range: " + chars);
+			}
+			value *= base;
+			if (value < min + digitValue) {
+				throw new ParsingException("Integer value out of range: " + chars);
+			}
+			value -= digitValue;
 		}
-		return negative ? -value : value;
+		return negative ? value : -value;
 	}
 
 	/**
@@ -78,9 +94,48 @@ public final class Utils {
 	 * @param chars the CharsWrapper representing an int
 	 * @param base  the base of the number
 	 * @return the int value represented by the CharsWrapper
+	 *
+	 * @throws ParsingException if the CharsWrapper contains an invalid digit, or if the value
+	 *                          doesn't fit in an int
 	 */
 	public static int parseInt(CharsWrapper chars, int base) {
-		return (int)parseLong(chars, base);
+		long value = parseLong(chars, base);
+		int small = (int)value;
+		if (value != small) {
+			throw new ParsingException("Integer value out of range: " + chars);
+		}
+		return small;
+	}
+
+	/**
+	 * Parses a CharsWrapper that represents an integer of any size, in the specified base. The
+	 * result is an Integer if the value fits in an int, a Long if it fits in a long, and a
+	 * BigInteger otherwise.
+	 *
+	 * @param chars the CharsWrapper representing an integer
+	 * @param base  the base of the number
+	 * @return the Integer, Long or BigInteger represented by the CharsWrapper
+	 *
+	 * @throws ParsingException if the CharsWrapper contains an invalid digit
+	 */
+	public static Number parseInteger(CharsWrapper chars, int base) {
+		long value;
+		try {
+			value = parseLong(chars, base);
+		} catch (ParsingException notALong) {
+			// Either an invalid number or a value that doesn't fit in a long: only the latter
+			// is accepted by BigInteger.
+			try {
+				return new BigInteger(chars.toString(), base);
+			} catch (NumberFormatException invalid) {
+				throw new ParsingException("Invalid value: " + chars);
+			}
+		}
+		int small = (int)value;
+		if (value == small) {// small value => return an int instead of a long
+			return small;
+		}
+		return value;
 	}
 
 	/**
@@ -90,6 +145,22 @@ public final class Utils {
 	 * @return the double value represented by the CharsWrapper
 	 */
 	public static double parseDouble(CharsWrapper chars) {
-		return Double.parseDouble(chars.toString());
+		return DoubleParser.parse(chars.chars, chars.offset, chars.limit);
+	}
+
+	/**
+	 * Parses the characters that represent a double value, in the same format as
+	 * {@link Double#parseDouble(String)}. The decimal numbers are parsed without creating any
+	 * object.
+	 *
+	 * @param chars the array containing the characters
+	 * @param begin the index of the first character, inclusive
+	 * @param end   the index after the last character, exclusive
+	 * @return the double value represented by the characters
+	 *
+	 * @throws NumberFormatException if the characters don't represent a double
+	 */
+	public static double parseDouble(char[] chars, int begin, int end) {
+		return DoubleParser.parse(chars, begin, end);
 	}
 }
\ No newline at end of file
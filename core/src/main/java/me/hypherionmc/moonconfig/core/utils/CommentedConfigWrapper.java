@@ -47,6 +47,11 @@ public abstract class CommentedConfigWrapper<C extends CommentedConfig> extends
 		return config.entrySet();
 	}
 
+	@Override
+	public void forEachCommentedEntry(CommentedEntryAction action) {
+		config.forEachCommentedEntry(action);
+	}
+
 	@Override
 	public void clearComments() {
 		config.clearComments();
@@ -53,6 +53,11 @@ public final class FakeUnmodifiableCommentedConfig
 		return new TransformingSet<>(config.entrySet(), FakeCommentedEntry::new, o -> null, o -> o);
 	}
 
+	@Override
+	public void forEachCommentedEntry(CommentedEntryAction action) {
+		config.forEachEntry((key, value) -> action.accept(key, value, null));
+	}
+
 	private static final class FakeCommentedEntry implements UnmodifiableCommentedConfig.Entry {
 		private final UnmodifiableConfig.Entry entry;
 
@@ -0,0 +1,155 @@
+package me.hypherionmc.moonconfig.core.utils;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A global pool of config keys, consulted by the built-in parsers when they create keys. When
+ * many configs with the same structure are parsed, for instance one config per user or per
+ * server, the pool makes them share the same key strings instead of keeping one copy of each key
+ * per config.
+ * <p>
+ * The pool only holds weak references, therefore the keys that aren't used by any config anymore
+ * can be garbage collected. It is split in several segments to limit the contention between
+ * threads that parse configs at the same time.
+ * <p>
+ * The pool is enabled by default. It can be disabled with the {@code nightconfig.keyPool}
+ * system property (set it to "false" or "0") or by calling {@link #setEnabled(boolean)}.
+ */
+public final class KeyPool {
+	private static final int SEGMENTS = 16;// must be a power of two
+	private static final Segment[] segments = new Segment[SEGMENTS];
+	private static final LongAdder lookups = new LongAdder(), hits = new LongAdder();
+	private static final LongAdder bytesSaved = new LongAdder();
+	private static volatile boolean enabled;
+
+	static {
+		for (int i = 0; i < SEGMENTS; i++) {
+			segments[i] = new Segment();
+		}
+		String prop = System.getProperty("nightconfig.keyPool");
+		enabled = (prop == null) || !(prop.equals("false") || prop.equals("0"));
+	}
+
+	private KeyPool() {}// Utility class that can't be constructed
+
+	/**
+	 * Returns the pooled instance of a key. If the pool doesn't contain an equal key, the given
+	 * key is added to the pool and returned. If the pool is disabled, the key is returned as it
+	 * is.
+	 *
+	 * @param key the key
+	 * @return a String equal to the key, shared with the other configs
+	 */
+	public static String intern(String key) {
+		if (!enabled || key == null) {
+			return key;
+		}
+		int h = key.hashCode();
+		Segment segment = segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+		String pooled = segment.intern(key);
+		lookups.increment();
+		if (pooled != key) {
+			hits.increment();
+			bytesSaved.add(estimatedSize(key));
+		}
+		return pooled;
+	}
+
+	/**
+	 * Estimates the memory used by a String, with two bytes per character: 24 bytes for the
+	 * String object and 16 bytes for the header of its array, aligned to 8 bytes.
+	 */
+	private static long estimatedSize(String s) {
+		return 24 + ((16 + 2L * s.length() + 7) & ~7);
+	}
+
+	/**
+	 * @return true if the pool is enabled
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enables or disables the pool. Disabling it also empties it.
+	 *
+	 * @param enabled true to enable the pool, false to disable it
+	 */
+	public static void setEnabled(boolean enabled) {
+		KeyPool.enabled = enabled;
+		if (!enabled) {
+			for (Segment segment : segments) {
+				segment.clear();
+			}
+		}
+	}
+
+	/**
+	 * @return the number of keys currently in the pool, including the ones that are no longer
+	 * used but haven't been garbage collected yet
+	 */
+	public static int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+
+	/**
+	 * @return the number of keys that have been given to {@link #intern(String)}
+	 */
+	public static long lookupCount() {
+		return lookups.sum();
+	}
+
+	/**
+	 * @return the number of keys that have been replaced by an existing instance
+	 */
+	public static long hitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns an estimation of the memory saved by the pool, that is, the total size of the keys
+	 * that have been replaced by an existing instance (and can therefore be garbage collected).
+	 *
+	 * @return the estimated number of bytes saved
+	 */
+	public static long bytesSaved() {
+		return bytesSaved.sum();
+	}
+
+	/**
+	 * Resets the statistics of the pool. The pooled keys are kept.
+	 */
+	public static void resetStatistics() {
+		lookups.reset();
+		hits.reset();
+		bytesSaved.reset();
+	}
+
+	private static final class Segment {
+		private final WeakHashMap<String, WeakReference<String>> map = new WeakHashMap<>();
+
+		synchronized String intern(String key) {
+			WeakReference<String> ref = map.get(key);
+			String pooled = (ref == null) ? null : ref.get();
+			if (pooled == null) {
+				map.put(key, new WeakReference<>(key));
+				return key;
+			}
+			return pooled;
+		}
+
+		synchronized int size() {
+			return map.size();
+		}
+
+		synchronized void clear() {
+			map.clear();
+		}
+	}
+}
\ No newline at end of file
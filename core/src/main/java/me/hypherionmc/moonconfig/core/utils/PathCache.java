@@ -0,0 +1,134 @@
+package me.hypherionmc.moonconfig.core.utils;
+
+import me.hypherionmc.moonconfig.core.ConfigPath;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An optional, bounded and thread-safe cache in front of {@link StringUtils#split(String, char)},
+ * used by all the methods that take a dotted String path. When the cache is enabled, splitting a
+ * path that has already been seen returns a shared, immutable {@link ConfigPath} instead of
+ * creating a new list.
+ * <p>
+ * The cache is disabled by default. It can be enabled with the {@code nightconfig.pathCacheSize}
+ * system property or by calling {@link #setMaxSize(int)}. When the cache is full, a quarter of
+ * its entries are evicted at once to make room for the new paths, so its memory usage stays
+ * bounded even if the paths are dynamic.
+ * <p>
+ * The eviction isn't LRU: it removes the first entries in the iteration order of the underlying
+ * ConcurrentHashMap, which depends on the hash of the paths and not on their use. A frequently
+ * used path may therefore be evicted, and is cached again the next time it's split. The cache
+ * works best when its maximum size is larger than the number of distinct paths in use.
+ */
+public final class PathCache {
+	private static final ConcurrentHashMap<String, ConfigPath> cache = new ConcurrentHashMap<>();
+	private static final LongAdder hits = new LongAdder(), misses = new LongAdder();
+	private static final LongAdder evictions = new LongAdder();
+	private static volatile int maxSize = Integer.getInteger("nightconfig.pathCacheSize", 0);
+
+	private PathCache() {}// Utility class that can't be constructed
+
+	/**
+	 * Splits a dotted path. If the cache is enabled the result is cached and shared, therefore it
+	 * is unmodifiable. If the cache is disabled this method behaves like
+	 * {@code StringUtils.split(path, '.')}.
+	 *
+	 * @param path the path, each part separated by a dot. Example "a.b.c"
+	 * @return a non-empty list of strings, which must not be modified
+	 */
+	public static List<String> split(String path) {
+		final int max = maxSize;
+		if (max <= 0) {
+			return StringUtils.split(path, '.');
+		}
+		ConfigPath cached = cache.get(path);
+		if (cached != null) {
+			hits.increment();
+			return cached;
+		}
+		misses.increment();
+		ConfigPath compiled = ConfigPath.of(path);
+		if (cache.size() >= max) {
+			evict(max);
+		}
+		cache.put(path, compiled);
+		return compiled;
+	}
+
+	/**
+	 * Removes entries to bring the size of the cache down to three quarters of its maximum
+	 * size. Removing several entries at once keeps the cost of the eviction low. The entries are
+	 * removed in the iteration order of the map, regardless of how recently they were used.
+	 */
+	private static void evict(int max) {
+		final int target = max - (max >> 2) - 1;
+		Iterator<String> it = cache.keySet().iterator();
+		while (cache.size() > target && it.hasNext()) {
+			it.next();
+			it.remove();
+			evictions.increment();
+		}
+	}
+
+	/**
+	 * @return the maximum number of cached paths, 0 if the cache is disabled
+	 */
+	public static int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Sets the maximum number of cached paths. A value of 0 (or less) disables the cache.
+	 *
+	 * @param size the maximum number of paths to keep in the cache
+	 */
+	public static void setMaxSize(int size) {
+		maxSize = size;
+		if (size <= 0) {
+			cache.clear();
+		} else if (cache.size() > size) {
+			evict(size);
+		}
+	}
+
+	/**
+	 * @return the number of paths currently in the cache
+	 */
+	public static int size() {
+		return cache.size();
+	}
+
+	/**
+	 * @return the number of lookups that have found their path in the cache
+	 */
+	public static long hitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of lookups that haven't found their path in the cache
+	 */
+	public static long missCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the number of paths that have been evicted to keep the cache bounded
+	 */
+	public static long evictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * Removes all the cached paths and resets the counters.
+	 */
+	public static void clear() {
+		cache.clear();
+		hits.reset();
+		misses.reset();
+		evictions.reset();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,293 @@
+package me.hypherionmc.moonconfig.core.utils;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * A Map optimized for a small number of entries, which is the case of most sub-configs. Up to
+ * {@link #MAX_SMALL_SIZE} entries, the keys and values are stored in a single array and found
+ * with a linear search, which uses much less memory than a HashMap and is as fast for so few
+ * entries. When the map grows beyond that size, it switches to a HashMap, or a LinkedHashMap if
+ * the insertion order must be preserved.
+ * <p>
+ * While it is small, the map always preserves the insertion order of its entries. This class
+ * isn't thread-safe. Like the iterators of HashMap, its iterators are fail-fast: they throw a
+ * {@link ConcurrentModificationException} if the map is structurally modified, or switches to a
+ * hash map, by something else than the iterator itself.
+ *
+ * @param <V> the type of the values
+ */
+@SuppressWarnings("unchecked")
+public final class SmallMap<V> extends AbstractMap<String, V> implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The maximum number of entries stored in the array. Beyond that, a hash map is used.
+	 */
+	public static final int MAX_SMALL_SIZE = 8;
+	private static final Object[] EMPTY_TABLE = {};
+
+	private final boolean insertionOrderPreserved;
+	private Object[] table = EMPTY_TABLE;// key0, value0, key1, value1, ...
+	private int size;
+	private Map<String, V> large;// non-null when the map has grown beyond MAX_SMALL_SIZE
+	private transient int modCount;// number of structural modifications, for the iterators
+	private transient EntrySet entrySet;
+
+	/**
+	 * Creates a new SmallMap that may not preserve the insertion order once it grows beyond
+	 * {@link #MAX_SMALL_SIZE} entries.
+	 */
+	public SmallMap() {
+		this(false);
+	}
+
+	/**
+	 * Creates a new SmallMap.
+	 *
+	 * @param insertionOrderPreserved true to preserve the insertion order of the entries even
+	 *                                when the map grows beyond {@link #MAX_SMALL_SIZE} entries
+	 */
+	public SmallMap(boolean insertionOrderPreserved) {
+		this.insertionOrderPreserved = insertionOrderPreserved;
+	}
+
+	/**
+	 * @return the index of the key in the table, or -1 if not found
+	 */
+	private int indexOf(Object key) {
+		final Object[] table = this.table;
+		final int end = size * 2;
+		for (int i = 0; i < end; i += 2) {
+			Object k = table[i];
+			if (k == key || (key != null && key.equals(k))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void removeAt(int i) {
+		final int end = size * 2;
+		System.arraycopy(table, i + 2, table, i, end - i - 2);
+		table[end - 2] = null;
+		table[end - 1] = null;
+		size--;
+		modCount++;
+	}
+
+	/**
+	 * Moves the entries to a hash map.
+	 */
+	private void upgrade() {
+		int capacity = (int)(MAX_SMALL_SIZE * 2 / 0.75f) + 1;
+		large = insertionOrderPreserved ? new LinkedHashMap<>(capacity) : new HashMap<>(capacity);
+		for (int i = 0; i < size * 2; i += 2) {
+			large.put((String)table[i], (V)table[i + 1]);
+		}
+		table = EMPTY_TABLE;
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public int size() {
+		return (large == null) ? size : large.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return (large == null) ? indexOf(key) >= 0 : large.containsKey(key);
+	}
+
+	@Override
+	public V get(Object key) {
+		if (large != null) {
+			return large.get(key);
+		}
+		int i = indexOf(key);
+		return (i < 0) ? null : (V)table[i + 1];
+	}
+
+	@Override
+	public V put(String key, V value) {
+		if (large != null) {
+			return large.put(key, value);
+		}
+		int i = indexOf(key);
+		if (i >= 0) {
+			V previous = (V)table[i + 1];
+			table[i + 1] = value;
+			return previous;
+		}
+		if (size == MAX_SMALL_SIZE) {
+			upgrade();
+			return large.put(key, value);
+		}
+		final int end = size * 2;
+		if (end == table.length) {
+			table = Arrays.copyOf(table, (size == 0) ? 4 : end * 2);
+		}
+		table[end] = key;
+		table[end + 1] = value;
+		size++;
+		modCount++;
+		return null;
+	}
+
+	@Override
+	public V remove(Object key) {
+		if (large != null) {
+			return large.remove(key);
+		}
+		int i = indexOf(key);
+		if (i < 0) {
+			return null;
+		}
+		V previous = (V)table[i + 1];
+		removeAt(i);
+		return previous;
+	}
+
+	@Override
+	public void clear() {
+		large = null;
+		table = EMPTY_TABLE;
+		size = 0;
+		modCount++;
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super String, ? super V> action) {
+		if (large != null) {
+			large.forEach(action);
+			return;
+		}
+		final Object[] table = this.table;
+		final int end = size * 2;
+		for (int i = 0; i < end; i += 2) {
+			action.accept((String)table[i], (V)table[i + 1]);
+		}
+	}
+
+	@Override
+	public Set<Map.Entry<String, V>> entrySet() {
+		if (entrySet == null) {
+			entrySet = new EntrySet();
+		}
+		return entrySet;
+	}
+
+	private final class EntrySet extends AbstractSet<Map.Entry<String, V>> {
+		@Override
+		public Iterator<Map.Entry<String, V>> iterator() {
+			return (large == null) ? new SmallIterator() : large.entrySet().iterator();
+		}
+
+		@Override
+		public int size() {
+			return SmallMap.this.size();
+		}
+
+		@Override
+		public void clear() {
+			SmallMap.this.clear();
+		}
+	}
+
+	private final class SmallIterator implements Iterator<Map.Entry<String, V>> {
+		private int next = 0;// index of the next key in the table
+		private boolean canRemove = false;
+		private int expectedModCount = modCount;
+
+		@Override
+		public boolean hasNext() {
+			return next < size * 2;
+		}
+
+		@Override
+		public Map.Entry<String, V> next() {
+			checkForComodification();
+			if (next >= size * 2) {
+				throw new NoSuchElementException();
+			}
+			SmallEntry entry = new SmallEntry((String)table[next], (V)table[next + 1]);
+			next += 2;
+			canRemove = true;
+			return entry;
+		}
+
+		@Override
+		public void remove() {
+			if (!canRemove) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			next -= 2;
+			removeAt(next);
+			expectedModCount = modCount;
+			canRemove = false;
+		}
+
+		private void checkForComodification() {
+			// The switch to a hash map counts as a modification, so it's detected here too.
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	/**
+	 * An entry of the small table. Setting its value writes through to the map.
+	 */
+	private final class SmallEntry implements Map.Entry<String, V> {
+		private final String key;
+		private V value;
+
+		SmallEntry(String key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		@Override
+		public String getKey() {
+			return key;
+		}
+
+		@Override
+		public V getValue() {
+			return value;
+		}
+
+		@Override
+		public V setValue(V value) {
+			this.value = value;
+			return put(key, value);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Map.Entry)) {
+				return false;
+			}
+			Map.Entry<?, ?> e = (Map.Entry<?, ?>)obj;
+			return Objects.equals(key, e.getKey()) && Objects.equals(value, e.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(key) ^ Objects.hashCode(value);
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
+}
\ No newline at end of file
@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 /**
  * @author TheElectronWill
@@ -34,6 +35,11 @@ public abstract class UnmodifiableConfigWrapper<C extends UnmodifiableConfig>
 		return config.entrySet();
 	}
 
+	@Override
+	public void forEachEntry(BiConsumer<? super String, Object> action) {
+		config.forEachEntry(action);
+	}
+
 	@Override
 	public boolean contains(List<String> path) {
 		return config.contains(path);
@@ -49,6 +55,11 @@ public abstract class UnmodifiableConfigWrapper<C extends UnmodifiableConfig>
 		return config.isEmpty();
 	}
 
+	@Override
+	public long version() {
+		return config.version();
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		return config.equals(obj);
@@ -0,0 +1,130 @@
+package me.hypherionmc.moonconfig.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that no update is lost when several threads modify a concurrent config at the same
+ * time, in particular when they create the same intermediate levels.
+ */
+public class ConcurrentConfigTest {
+	private static final int THREADS = 8;
+	private static final int ROUNDS = 2_000;
+
+	@Test
+	public void nestedSetsCreateEachLevelOnce() throws Exception {
+		Config config = Config.inMemoryConcurrent();
+		runConcurrently(thread -> {
+			for (int r = 0; r < ROUNDS; r++) {
+				// All the threads create the levels "r<r>.sub" at the same time
+				config.set("r" + r + ".sub.t" + thread, r);
+			}
+		});
+		for (int r = 0; r < ROUNDS; r++) {
+			for (int t = 0; t < THREADS; t++) {
+				assertEquals(r, config.getIntOrElse("r" + r + ".sub.t" + t, -1), "lost update");
+			}
+		}
+	}
+
+	@Test
+	public void computeIsAtomic() throws Exception {
+		Config config = Config.inMemoryConcurrent();
+		runConcurrently(thread -> {
+			for (int r = 0; r < ROUNDS; r++) {
+				config.<Integer>compute("counters.c" + (r % 16), v -> (v == null) ? 1 : v + 1);
+			}
+		});
+		int total = 0;
+		for (int c = 0; c < 16; c++) {
+			total += config.getInt("counters.c" + c);
+		}
+		assertEquals(THREADS * ROUNDS, total, "lost increment");
+	}
+
+	@Test
+	public void putAllDoesNotLoseConcurrentWrites() throws Exception {
+		Config config = Config.inMemoryConcurrent();
+		runConcurrently(thread -> {
+			for (int r = 0; r < ROUNDS; r++) {
+				if (thread % 2 == 0) {
+					Config batch = Config.inMemory();
+					batch.set("p" + thread + "_" + r, r);
+					batch.set("q" + thread + "_" + r, r);
+					config.putAll(batch);
+				} else {
+					config.set("s" + thread + "_" + r, r);
+					config.<Integer>compute("count", v -> (v == null) ? 1 : v + 1);
+				}
+			}
+		});
+		for (int t = 0; t < THREADS; t++) {
+			for (int r = 0; r < ROUNDS; r++) {
+				if (t % 2 == 0) {
+					assertEquals(r, config.getIntOrElse("p" + t + "_" + r, -1));
+					assertEquals(r, config.getIntOrElse("q" + t + "_" + r, -1));
+				} else {
+					assertEquals(r, config.getIntOrElse("s" + t + "_" + r, -1));
+				}
+			}
+		}
+		assertEquals(THREADS / 2 * ROUNDS, config.getIntOrElse("count", -1));
+	}
+
+	@Test
+	public void putAllBatchesDoNotInterleave() throws Exception {
+		final int keys = 256;
+		for (int round = 0; round < 200; round++) {
+			Config config = Config.inMemoryConcurrent();
+			runConcurrently(thread -> {
+				Config batch = Config.inMemory();
+				for (int k = 0; k < keys; k++) {
+					batch.set("k" + k, thread);
+				}
+				config.putAll(batch);
+			});
+			// The batches are applied one after the other, so the last one sets every key
+			int last = config.getInt("k0");
+			for (int k = 1; k < keys; k++) {
+				assertEquals(last, config.getIntOrElse("k" + k, -1), "interleaved putAll");
+			}
+		}
+	}
+
+	/**
+	 * Starts all the threads at the same time, waits for them, and rethrows their failures.
+	 */
+	private static void runConcurrently(ThreadTask task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			CyclicBarrier start = new CyclicBarrier(THREADS);
+			List<Future<?>> futures = new ArrayList<>(THREADS);
+			for (int t = 0; t < THREADS; t++) {
+				final int thread = t;
+				futures.add(executor.submit(() -> {
+					start.await();
+					task.run(thread);
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				try {
+					future.get(1, TimeUnit.MINUTES);
+				} catch (ExecutionException e) {
+					fail(e.getCause());
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private interface ThreadTask {
+		void run(int thread);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package me.hypherionmc.moonconfig.core.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that DoubleParser gives exactly the same results as {@link Double#parseDouble(String)},
+ * in particular in the cases that the fast paths can't decide.
+ */
+public class DoubleParserTest {
+	private static final int RANDOM_ROUNDS = 100_000;
+
+	@Test
+	public void simpleNumbers() {
+		check("0", "-0", "+0", "0.0", "-0.0", "1", "-1", "+1", "1.0", "0.1", "0.2", "0.3",
+			  "123.456", "1e10", "1E10", "1e+10", "1e-10", "-1.5e-3", ".5", "5.", "00012.5000",
+			  "1e22", "1e23", "9007199254740992", "9007199254740993e0", "3.141592653589793",
+			  "2.718281828459045");
+	}
+
+	@Test
+	public void halfwayCases() {
+		// 2^53 + 1 and 2^53 + 3 are exactly halfway between two doubles: they round to even
+		check("9007199254740993", "9007199254740995", "-9007199254740993");
+		// 1 + 2^-53 is exactly halfway between 1 and the next double
+		check("1.00000000000000011102230246251565404236316680908203125",
+			  "1.000000000000000111022302462515654042363166809082031250000000000001",
+			  "1.00000000000000011102230246251565404236316680908203124999999999999");
+		// halfway between Double.MAX_VALUE and the next power of two: rounds to infinity
+		String maxHalfway = "1797693134862315807937289714053034150799341327100378269361737789"
+							+ "8044496829276475094664901797758720709633028641669288791094655554"
+							+ "7851940402630657488671505820681908902000708383676273854845817711"
+							+ "5317644757302700698555713669596228429148198608349364752927190741"
+							+ "68444365510704342711559699508093042880177904174497792";
+		assertEquals(Double.POSITIVE_INFINITY, parse(maxHalfway));
+		assertEquals(Double.MAX_VALUE, parse(maxHalfway.substring(0, 300) + "e9"));
+		// exactly halfway between 0 and Double.MIN_VALUE: rounds to 0
+		String minHalfway = "2.47032822920623272088284396434110686182529901307162382212792841"
+							+ "2503377536351043759326499181808179961898982823477228588654633283"
+							+ "5517796989819938739800539093906315035659515570226392290858392449"
+							+ "1051844359318028499365361525003193704576782492193656236698636584"
+							+ "8075700158576926990370631192827955855133292783433840935197801553"
+							+ "1246597263579574622766465272827220056374006485499977096599470454"
+							+ "0208281662262378573934507363390079677619305775067401763246736009"
+							+ "6895134053553745851666113422376667860416215968046191446729184030"
+							+ "0530057530849048765391711386591646239524912623653881879636239373"
+							+ "2804238910186723484976682350898633885879256283027559956575244555"
+							+ "0725518931369083625477918694866799496832404970582102851318545139"
+							+ "6213837722826145437693412532098591327667236328125e-324";
+		assertEquals(0.0, parse(minHalfway));
+		assertEquals(Double.MIN_VALUE, parse(minHalfway.replace("e-324", "1e-324")));
+		check(maxHalfway, minHalfway);
+	}
+
+	@Test
+	public void subnormals() {
+		check("4.9e-324", "5e-324", "-4.9e-324", "2.4703282292062327e-324",
+			  "2.4703282292062328e-324", "1e-324", "3e-324", "1e-320", "1.5e-310",
+			  "2.2250738585072009e-308", "2.2250738585072011e-308", "2.2250738585072012e-308",
+			  "2.2250738585072014e-308", "4.4501477170144023e-308", "1e-400",
+			  "0.0000000000000000000000000000001e-300");
+	}
+
+	@Test
+	public void largeNumbers() {
+		check("1.7976931348623157e308", "1.7976931348623158e308", "1.7976931348623159e308",
+			  "1e308", "1e309", "-1e309", "1e100000", "1e2147483648", "123456789e300");
+	}
+
+	@Test
+	public void longMantissas() {
+		check("1234567890123456789", "12345678901234567890", "123456789012345678901234567890",
+			  "0.1000000000000000055511151231257827021181583404541015625",
+			  "0.10000000000000000555111512312578270211815834045410156250000001",
+			  "0.1000000000000000055511151231257827021181583404541015624999999",
+			  "3.14159265358979323846264338327950288419716939937510582097494459",
+			  "18446744073709551615", "18446744073709551616", "99999999999999999999e-20",
+			  "7.2057594037927933e16", "0.000000000000000000000000000000123456789012345678901",
+			  "1000000000000000000000000000000000000000000000000000000000000000000000000000001",
+			  "1.00000000000000000000000000000000000000000000000000000000000000000000000000001",
+			  "9999999999999999999", "10000000000000000000000.000000000000000000000001");
+	}
+
+	@Test
+	public void otherSyntaxes() {
+		check("NaN", "-NaN", "Infinity", "-Infinity", "+Infinity", "0x1p3", "0x1.8p1", "1d", "1f",
+			  "1.5D", " 1", "1 ");
+		for (String invalid : new String[] {"", "-", "+", ".", "e5", "1e", "1e+", "-.e1", "1.2.3",
+											"1e5e5", "abc", "--1", "1_000"}) {
+			assertThrows(NumberFormatException.class, () -> Double.parseDouble(invalid), invalid);
+			assertThrows(NumberFormatException.class, () -> parse(invalid), invalid);
+		}
+	}
+
+	@Test
+	public void withinLargerArray() {
+		char[] chars = "[12.5,-3e2,0.1]".toCharArray();
+		assertEquals(12.5, DoubleParser.parse(chars, 1, 5));
+		assertEquals(-300.0, DoubleParser.parse(chars, 6, 10));
+		assertEquals(0.1, DoubleParser.parse(chars, 11, 14));
+	}
+
+	@Test
+	public void randomDoubles() {
+		Random random = new Random(42);
+		for (int i = 0; i < RANDOM_ROUNDS; i++) {
+			double d = Double.longBitsToDouble(random.nextLong());
+			check(Double.toString(d));
+			if (i % 10 == 0 && !Double.isNaN(d) && !Double.isInfinite(d)) {
+				check(new BigDecimal(d).toString());// the exact value, with many digits
+			}
+		}
+	}
+
+	@Test
+	public void randomDecimals() {
+		Random random = new Random(43);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < RANDOM_ROUNDS; i++) {
+			sb.setLength(0);
+			int digits = 1 + random.nextInt(30);
+			int point = random.nextInt(digits + 1);
+			for (int d = 0; d < digits; d++) {
+				if (d == point) {
+					sb.append('.');
+				}
+				sb.append((char)('0' + random.nextInt(10)));
+			}
+			sb.append('e').append(random.nextInt(700) - 350);
+			check(sb.toString());
+		}
+	}
+
+	private static double parse(String s) {
+		return DoubleParser.parse(s.toCharArray(), 0, s.length());
+	}
+
+	private static void check(String... numbers) {
+		for (String s : numbers) {
+			assertEquals(Double.parseDouble(s), parse(s), s);
+		}
+	}
+}
\ No newline at end of file
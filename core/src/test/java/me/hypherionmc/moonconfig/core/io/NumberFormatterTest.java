@@ -0,0 +1,186 @@
+package me.hypherionmc.moonconfig.core.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that NumberFormatter writes the shortest decimal that parses back to the same value,
+ * with the syntax of {@link Double#toString(double)} and {@link Float#toString(float)}.
+ */
+public class NumberFormatterTest {
+	private static final int RANDOM_ROUNDS = 200_000;
+
+	@Test
+	public void knownDoubles() {
+		assertEquals("0.0", format(0.0));
+		assertEquals("-0.0", format(-0.0));
+		assertEquals("1.0", format(1.0));
+		assertEquals("-1.5", format(-1.5));
+		assertEquals("0.1", format(0.1));
+		assertEquals("0.30000000000000004", format(0.1 + 0.2));
+		assertEquals("0.001", format(0.001));
+		assertEquals("9.999E-4", format(9.999E-4));
+		assertEquals("9999999.0", format(9999999.0));
+		assertEquals("1.0E7", format(1e7));
+		assertEquals("1.2345678E7", format(12345678.0));
+		assertEquals("9.007199254740992E15", format(9007199254740992.0));
+		assertEquals("9.223372036854776E18", format((double)Long.MAX_VALUE));
+		assertEquals("3.141592653589793", format(Math.PI));
+		assertEquals("NaN", format(Double.NaN));
+		assertEquals("Infinity", format(Double.POSITIVE_INFINITY));
+		assertEquals("-Infinity", format(Double.NEGATIVE_INFINITY));
+		assertEquals("4.9E-324", format(Double.MIN_VALUE));
+		assertEquals("9.9E-324", format(2 * Double.MIN_VALUE));// closer than 1.0E-323
+		assertEquals("1.5E-323", format(3 * Double.MIN_VALUE));
+		assertEquals("2.225073858507201E-308", format(Double.MIN_NORMAL - Double.MIN_VALUE));
+		assertEquals("2.2250738585072014E-308", format(Double.MIN_NORMAL));
+		assertEquals("1.7976931348623157E308", format(Double.MAX_VALUE));
+	}
+
+	@Test
+	public void shortestDoubles() {
+		// Java 8 to 18 print more digits than necessary for these values
+		assertEquals("1.0E23", format(1e23));
+		assertEquals("2.0E23", format(2e23));
+		assertEquals("2.82879384806159E17", format(2.82879384806159E17));
+		assertEquals("1.387364135037754E18", format(1.387364135037754E18));
+		assertEquals("1.45800632428665E17", format(1.45800632428665E17));
+		assertEquals("5.684341886080802E-14", format(5.684341886080802E-14));
+		assertEquals("1.9400994884341945E25", format(1.9400994884341945E25));
+	}
+
+	@Test
+	public void knownFloats() {
+		assertEquals("0.0", format(0.0f));
+		assertEquals("-0.0", format(-0.0f));
+		assertEquals("0.1", format(0.1f));
+		assertEquals("1.0000001", format(1.0000001f));
+		assertEquals("1.0E10", format(1e10f));
+		assertEquals("1.0E-7", format(1e-7f));
+		assertEquals("1.6777216E7", format(16777216f));
+		assertEquals("8.41E21", format(8.41E21f));
+		assertEquals("1.4E-45", format(Float.MIN_VALUE));
+		assertEquals("4.2E-45", format(3 * Float.MIN_VALUE));
+		assertEquals("1.1754944E-38", format(Float.MIN_NORMAL));// Java 8 to 18: 1.17549435E-38
+		assertEquals("3.4028235E38", format(Float.MAX_VALUE));
+		assertEquals("NaN", format(Float.NaN));
+		assertEquals("-Infinity", format(Float.NEGATIVE_INFINITY));
+	}
+
+	@Test
+	public void floatsAreNotWrittenAsDoubles() {
+		// The same value needs more digits as a double than as a float
+		assertEquals("0.1", format(0.1f));
+		assertEquals("0.10000000149011612", format((double)0.1f));
+		assertEquals("3.4028235E38", format(Float.MAX_VALUE));
+		assertEquals("3.4028234663852886E38", format((double)Float.MAX_VALUE));
+		assertEquals("0.1", write(Float.valueOf(0.1f)));
+		assertEquals("0.10000000149011612", write(Double.valueOf(0.1f)));
+	}
+
+	@Test
+	public void powersOfTwo() {
+		for (int e = -1074; e <= 1023; e++) {
+			check(Math.scalb(1.0, e));
+			check(-Math.scalb(1.0, e));
+		}
+		for (int e = -149; e <= 127; e++) {
+			check(Math.scalb(1.0f, e));
+		}
+	}
+
+	@Test
+	public void randomDoubles() {
+		Random random = new Random(42);
+		for (int i = 0; i < RANDOM_ROUNDS; i++) {
+			check(Double.longBitsToDouble(random.nextLong()));
+		}
+	}
+
+	@Test
+	public void randomFloats() {
+		Random random = new Random(43);
+		for (int i = 0; i < RANDOM_ROUNDS; i++) {
+			check(Float.intBitsToFloat(random.nextInt()));
+		}
+	}
+
+	@Test
+	public void integers() {
+		assertEquals("0", write(0));
+		assertEquals("-1", write(-1));
+		assertEquals("2147483647", write(Integer.MAX_VALUE));
+		assertEquals("-2147483648", write(Integer.MIN_VALUE));
+		assertEquals("9223372036854775807", write(Long.MAX_VALUE));
+		assertEquals("-9223372036854775808", write(Long.MIN_VALUE));
+		assertEquals("-128", write((byte)-128));
+		assertEquals("32767", write((short)32767));
+		assertEquals("123456789012345678901234567890",
+					 write(new BigInteger("123456789012345678901234567890")));
+		assertEquals("1.50", write(new BigDecimal("1.50")));
+		Random random = new Random(44);
+		for (int i = 0; i < RANDOM_ROUNDS; i++) {
+			long l = random.nextLong() >> random.nextInt(64);
+			assertEquals(Long.toString(l), write(l));
+		}
+	}
+
+	/**
+	 * Checks that the double is written with a decimal that parses back to the same value, and
+	 * that it isn't longer than the one of {@link Double#toString(double)}. Like in Java 19+, two
+	 * digits are written when they are closer to the value than the shortest decimal of one
+	 * digit, for instance "9.9E-324" instead of "1.0E-323".
+	 */
+	private static void check(double d) {
+		String s = format(d);
+		assertEquals(d, Double.parseDouble(s), s);
+		String expected = Double.toString(d);
+		assertTrue(digitCount(s) <= Math.max(2, digitCount(expected)),
+				   s + " longer than " + expected);
+	}
+
+	private static void check(float f) {
+		String s = format(f);
+		assertEquals(f, Float.parseFloat(s), s);
+		String expected = Float.toString(f);
+		assertTrue(digitCount(s) <= Math.max(2, digitCount(expected)),
+				   s + " longer than " + expected);
+	}
+
+	/**
+	 * @return the number of significant digits of a decimal written by Double.toString
+	 */
+	private static int digitCount(String s) {
+		int e = s.indexOf('E');
+		String digits = ((e < 0) ? s : s.substring(0, e)).replace("-", "").replace(".", "");
+		int begin = 0, end = digits.length();
+		while (begin < end && digits.charAt(begin) == '0') {
+			begin++;
+		}
+		while (end > begin && digits.charAt(end - 1) == '0') {
+			end--;
+		}
+		return Math.max(1, end - begin);
+	}
+
+	private static String format(double d) {
+		char[] buffer = new char[32];
+		return new String(buffer, 0, NumberFormatter.formatDouble(d, buffer));
+	}
+
+	private static String format(float f) {
+		char[] buffer = new char[32];
+		return new String(buffer, 0, NumberFormatter.formatFloat(f, buffer));
+	}
+
+	private static String write(Number n) {
+		CharsWrapper.Builder builder = new CharsWrapper.Builder(32);
+		NumberFormatter.write(n, builder);
+		return builder.toString();
+	}
+}
\ No newline at end of file
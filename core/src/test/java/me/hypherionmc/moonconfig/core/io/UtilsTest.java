@@ -0,0 +1,102 @@
+package me.hypherionmc.moonconfig.core.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the integer parsing of {@link Utils}, in particular the bounds of each type and the
+ * invalid numbers.
+ */
+public class UtilsTest {
+	@Test
+	public void parseLong() {
+		assertEquals(0L, Utils.parseLong(new CharsWrapper("0"), 10));
+		assertEquals(0L, Utils.parseLong(new CharsWrapper("-0"), 10));
+		assertEquals(42L, Utils.parseLong(new CharsWrapper("+42"), 10));
+		assertEquals(-42L, Utils.parseLong(new CharsWrapper("-42"), 10));
+		assertEquals(Long.MAX_VALUE, Utils.parseLong(new CharsWrapper("9223372036854775807"), 10));
+		assertEquals(Long.MIN_VALUE, Utils.parseLong(new CharsWrapper("-9223372036854775808"), 10));
+		assertEquals(Long.MAX_VALUE, Utils.parseLong(new CharsWrapper("7fffffffffffffff"), 16));
+		assertEquals(Long.MIN_VALUE, Utils.parseLong(new CharsWrapper("-8000000000000000"), 16));
+		assertEquals(0xCAFEL, Utils.parseLong(new CharsWrapper("CaFe"), 16));
+		assertEquals(5L, Utils.parseLong(new CharsWrapper("101"), 2));
+		assertEquals(123L, Utils.parseLong(new CharsWrapper("[123]").subView(1, 4), 10));
+		for (int i = -1000; i <= 1000; i += 7) {
+			assertEquals(i, Utils.parseLong(new CharsWrapper(Integer.toString(i)), 10));
+		}
+	}
+
+	@Test
+	public void parseLongOverflow() {
+		String[] outOfRange = {"9223372036854775808", "-9223372036854775809",
+							   "10000000000000000000", "92233720368547758070",
+							   "-92233720368547758080", "99999999999999999999999999999"};
+		for (String s : outOfRange) {
+			assertThrows(ParsingException.class, () -> Utils.parseLong(new CharsWrapper(s), 10), s);
+		}
+		assertThrows(ParsingException.class,
+					 () -> Utils.parseLong(new CharsWrapper("8000000000000000"), 16));
+		assertThrows(ParsingException.class,
+					 () -> Utils.parseLong(new CharsWrapper("ffffffffffffffff"), 16));
+	}
+
+	@Test
+	public void parseLongInvalid() {
+		String[] invalid = {"", "-", "+", "--1", "+-1", "1-", "1.0", "1e3", " 1", "1 ", "12a",
+							"0x10"};
+		for (String s : invalid) {
+			assertThrows(ParsingException.class, () -> Utils.parseLong(new CharsWrapper(s), 10), s);
+		}
+		assertThrows(ParsingException.class, () -> Utils.parseLong(new CharsWrapper("102"), 2));
+		assertThrows(ParsingException.class, () -> Utils.parseLong(new CharsWrapper("g"), 16));
+	}
+
+	@Test
+	public void parseInt() {
+		assertEquals(Integer.MAX_VALUE, Utils.parseInt(new CharsWrapper("2147483647"), 10));
+		assertEquals(Integer.MIN_VALUE, Utils.parseInt(new CharsWrapper("-2147483648"), 10));
+		assertEquals(-1, Utils.parseInt(new CharsWrapper("-1"), 10));
+		assertEquals(0xFF, Utils.parseInt(new CharsWrapper("ff"), 16));
+		String[] outOfRange = {"2147483648", "-2147483649", "4294967296", "9223372036854775807",
+							   "9223372036854775808"};
+		for (String s : outOfRange) {
+			assertThrows(ParsingException.class, () -> Utils.parseInt(new CharsWrapper(s), 10), s);
+		}
+		assertThrows(ParsingException.class, () -> Utils.parseInt(new CharsWrapper("-"), 10));
+		assertThrows(ParsingException.class, () -> Utils.parseInt(new CharsWrapper("+"), 10));
+		assertThrows(ParsingException.class, () -> Utils.parseInt(new CharsWrapper(""), 10));
+	}
+
+	@Test
+	public void parseInteger() {
+		assertEquals(0, parseInteger("0"));
+		assertEquals(Integer.MAX_VALUE, parseInteger("2147483647"));
+		assertEquals(Integer.MIN_VALUE, parseInteger("-2147483648"));
+		assertEquals(2147483648L, parseInteger("2147483648"));
+		assertEquals(-2147483649L, parseInteger("-2147483649"));
+		assertEquals(Long.MAX_VALUE, parseInteger("9223372036854775807"));
+		assertEquals(Long.MIN_VALUE, parseInteger("-9223372036854775808"));
+		assertEquals(new BigInteger("9223372036854775808"), parseInteger("9223372036854775808"));
+		assertEquals(new BigInteger("-9223372036854775809"), parseInteger("-9223372036854775809"));
+		assertEquals(new BigInteger("123456789012345678901234567890"),
+					 parseInteger("+123456789012345678901234567890"));
+		assertEquals(new BigInteger("ffffffffffffffff", 16),
+					 Utils.parseInteger(new CharsWrapper("ffffffffffffffff"), 16));
+	}
+
+	@Test
+	public void parseIntegerInvalid() {
+		String[] invalid = {"", "-", "+", "--1", "1.5", "12a", "99999999999999999999x",
+							"-99999999999999999999-"};
+		for (String s : invalid) {
+			assertThrows(ParsingException.class, () -> parseInteger(s), s);
+		}
+	}
+
+	private static Number parseInteger(String s) {
+		return Utils.parseInteger(new CharsWrapper(s), 10);
+	}
+}
\ No newline at end of file
@@ -6,6 +6,7 @@ import me.hypherionmc.moonconfig.core.ConfigFormat;
 import me.hypherionmc.moonconfig.core.io.ConfigParser;
 import me.hypherionmc.moonconfig.core.io.ParsingException;
 import me.hypherionmc.moonconfig.core.io.ParsingMode;
+import me.hypherionmc.moonconfig.core.utils.KeyPool;
 import com.typesafe.config.*;
 
 import java.io.Reader;
@@ -56,6 +57,7 @@ public final class HoconParser implements ConfigParser<CommentedConfig> {
 							ParsingMode parsingMode) {
 		for (Map.Entry<String, ConfigValue> entry : typesafeConfig.entrySet()) {
 			List<String> path = ConfigUtil.splitPath(entry.getKey());
+			path.replaceAll(KeyPool::intern);
 			parsingMode.put(destination, path, unwrap(entry.getValue().unwrapped()));
 		}
 	}
@@ -63,7 +65,7 @@ public final class HoconParser implements ConfigParser<CommentedConfig> {
 	private static void put(ConfigObject typesafeConfig, CommentedConfig destination,
 							ParsingMode parsingMode) {
 		for (Map.Entry<String, ConfigValue> entry : typesafeConfig.entrySet()) {
-			List<String> path = Collections.singletonList(entry.getKey());
+			List<String> path = Collections.singletonList(KeyPool.intern(entry.getKey()));
 			ConfigValue value = entry.getValue();
 			if (value instanceof ConfigObject) {
 				CommentedConfig subConfig = destination.createSubConfig();
@@ -84,7 +86,7 @@ public final class HoconParser implements ConfigParser<CommentedConfig> {
 			Map<String, ?> map = (Map)o;
 			Map<String, Object> unwrappedMap = new HashMap<>(map.size());
 			for (Map.Entry<String, ?> entry : map.entrySet()) {
-				unwrappedMap.put(entry.getKey(), unwrap(entry.getValue()));
+				unwrappedMap.put(KeyPool.intern(entry.getKey()), unwrap(entry.getValue()));
 			}
 			return Config.wrap(unwrappedMap, HoconFormat.instance());
 		} else if (o instanceof List) {
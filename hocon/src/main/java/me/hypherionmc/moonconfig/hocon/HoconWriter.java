@@ -9,7 +9,6 @@ import me.hypherionmc.moonconfig.core.utils.StringUtils;
 import java.io.Writer;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.List;
 import java.util.function.Predicate;
 
 import static me.hypherionmc.moonconfig.core.NullObject.NULL_OBJECT;
@@ -68,23 +67,13 @@ public final class HoconWriter implements ConfigWriter {
 		if (newlineAfterObjectStart) {
 			output.write(newline);
 		}
-		final Iterator<? extends UnmodifiableCommentedConfig.Entry> it = config.entrySet().iterator();
 		final boolean indentElements = indentObjectElementsPredicate.test(config);
 		if (indentElements) {
 			output.write(newline);
 			increaseIndentLevel();
 		}
-		do {
-			final UnmodifiableCommentedConfig.Entry entry = it.next();
-			final String key = entry.getKey();
-			final Object value = entry.getValue();
-			final List<String> comments = StringUtils.splitLines(entry.getComment());
-			for (String comment : comments) {
-				writeIndent(output);
-				output.write(commentPrefix);
-				output.write(comment);
-				output.write(newline);
-			}
+		config.forEachCommentedEntry((key, value, comment) -> {
+			writeComment(comment, output);
 			if (indentElements) {
 				writeIndent(output);// Indents the line
 			}
@@ -101,7 +90,7 @@ public final class HoconWriter implements ConfigWriter {
 			} else {
 				output.write(',');
 			}
-		} while (it.hasNext());
+		});
 		if (indentElements) {
 			decreaseIndentLevel();
 			writeIndent(output);
@@ -111,6 +100,15 @@ public final class HoconWriter implements ConfigWriter {
 		}
 	}
 
+	private void writeComment(String comment, CharacterOutput output) {
+		for (String line : StringUtils.splitLines(comment)) {
+			writeIndent(output);
+			output.write(commentPrefix);
+			output.write(line);
+			output.write(newline);
+		}
+	}
+
 	private void writeValue(Object v, CharacterOutput output) {
 		if (v == null || v == NULL_OBJECT) {
 			output.write(NULL_CHARS);
@@ -119,7 +117,7 @@ public final class HoconWriter implements ConfigWriter {
 		} else if (v instanceof Enum) {
 			writeString(((Enum<?>)v).name(), output);
 		} else if (v instanceof Number) {
-			output.write(v.toString());
+			NumberFormatter.write((Number)v, output);
 		} else if (v instanceof UnmodifiableCommentedConfig) {
 			writeObject((UnmodifiableCommentedConfig)v, output, false);
 		} else if (v instanceof UnmodifiableConfig) {
@@ -38,40 +38,34 @@ public final class FancyJsonWriter implements ConfigWriter {
 			output.write(MinimalJsonWriter.EMPTY_OBJECT);
 			return;
 		}
-		Iterator<Map.Entry<String, Object>> it = config.valueMap().entrySet().iterator();
 		output.write('{');
 		if (newlineAfterObjectStart) {
 			output.write(newline);
 		}
-		boolean indentElements = indentObjectElementsPredicate.test(config);
+		final boolean indentElements = indentObjectElementsPredicate.test(config);
 		if (indentElements) {
 			output.write(newline);
 			increaseIndentLevel();
 		}
-		while (true) {
-			final Map.Entry<String, Object> entry = it.next();
-			final String key = entry.getKey();
-			final Object value = entry.getValue();
-
+		final boolean[] first = {true};
+		config.forEachEntry((key, value) -> {
+			if (first[0]) {
+				first[0] = false;
+			} else {
+				output.write(',');
+				if (indentElements) {
+					output.write(newline);
+				}
+			}
 			if (indentElements) {
 				writeIndent(output);// Indents the line
 			}
 			writeString(key, output);// key
 			output.write(ENTRY_SEPARATOR);// separator
 			writeValue(value, output);// value
-			if (it.hasNext()) {
-				output.write(',');
-				if (indentElements) {
-					output.write(newline);
-				}
-			} else {
-				if (indentElements) {
-					output.write(newline);
-				}
-				break;
-			}
-		}
+		});
 		if (indentElements) {
+			output.write(newline);
 			decreaseIndentLevel();
 			writeIndent(output);
 		}
@@ -92,7 +86,7 @@ public final class FancyJsonWriter implements ConfigWriter {
 		} else if (v instanceof Enum) {
 			writeString(((Enum<?>)v).name(), output);
 		} else if (v instanceof Number) {
-			output.write(v.toString());
+			NumberFormatter.write((Number)v, output);
 		} else if (v instanceof UnmodifiableConfig) {
 			writeObject((UnmodifiableConfig)v, output);
 		} else if (v instanceof Collection) {
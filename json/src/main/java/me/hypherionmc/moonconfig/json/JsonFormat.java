@@ -88,6 +88,46 @@ public abstract class JsonFormat<W extends ConfigWriter> implements ConfigFormat
 		};
 	}
 
+	/**
+	 * Returns an instance of JsonFormat with a lazy parser and a fancy writer. The nested objects
+	 * and arrays are parsed the first time they're accessed, see {@link JsonParser#setLazy(boolean)}.
+	 * A lazy file config can be created with
+	 * {@code FileConfig.builder(file, JsonFormat.lazyInstance())}.
+	 *
+	 * @return an instance of JsonFormat with a lazy parser and a fancy writer
+	 */
+	public static JsonFormat<FancyJsonWriter> lazyInstance() {
+		return new JsonFormat<FancyJsonWriter>() {
+			@Override
+			public FancyJsonWriter createWriter() {
+				return new FancyJsonWriter();
+			}
+
+			@Override
+			public ConfigParser<Config> createParser() {
+				return new JsonParser(this).setLazy(true);
+			}
+		};
+	}
+
+	/**
+	 * @return an instance of JsonFormat with a lazy parser and a minimal writer
+	 * @see #lazyInstance()
+	 */
+	public static JsonFormat<MinimalJsonWriter> minimalLazyInstance() {
+		return new JsonFormat<MinimalJsonWriter>() {
+			@Override
+			public MinimalJsonWriter createWriter() {
+				return new MinimalJsonWriter();
+			}
+
+			@Override
+			public ConfigParser<Config> createParser() {
+				return new JsonParser(this).setLazy(true);
+			}
+		};
+	}
+
 	/**
 	 * @return a new config with the format {@link JsonFormat#fancyInstance()}.
 	 */
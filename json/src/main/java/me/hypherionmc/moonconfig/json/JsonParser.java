@@ -4,9 +4,12 @@ import me.hypherionmc.moonconfig.core.Config;
 import me.hypherionmc.moonconfig.core.ConfigFormat;
 import me.hypherionmc.moonconfig.core.io.*;
 import me.hypherionmc.moonconfig.core.utils.FastStringReader;
+import me.hypherionmc.moonconfig.core.utils.KeyPool;
 
+import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -22,6 +25,7 @@ public final class JsonParser implements ConfigParser<Config> {
 
 	private final ConfigFormat<Config> configFormat;
 	private boolean emptyDataAccepted = false;
+	private boolean lazy = false;
 
 	public JsonParser() {
 		this(JsonFormat.fancyInstance());
@@ -55,6 +59,61 @@ public final class JsonParser implements ConfigParser<Config> {
 		return this;
 	}
 
+	/**
+	 * @return true if the parser parses the objects and arrays lazily, false otherwise (default)
+	 */
+	public boolean isLazy() {
+		return lazy;
+	}
+
+	/**
+	 * Enables or disables the lazy parsing. False by default. In lazy mode, the parser reads all
+	 * the data but doesn't parse the nested objects and arrays: it only records their position,
+	 * and each of them is parsed the first time its content is accessed. This makes loading a
+	 * big document much faster when only some parts of it are used.
+	 * <p>
+	 * The data is kept in memory until all the nested values have been parsed. The syntax
+	 * errors in a nested value are detected when it's parsed, therefore a ParsingException may
+	 * be thrown when accessing a value of the config.
+	 * <p>
+	 * The formats {@link JsonFormat#lazyInstance()} and {@link JsonFormat#minimalLazyInstance()}
+	 * create lazy parsers, which can be used by the file configs.
+	 *
+	 * @param lazy true to parse the nested values lazily, false to parse everything at once
+	 */
+	public JsonParser setLazy(boolean lazy) {
+		this.lazy = lazy;
+		return this;
+	}
+
+	/**
+	 * Reads all the data, if the parser is lazy.
+	 *
+	 * @return the data, or null if the parser isn't lazy
+	 */
+	private char[] readSource(Reader reader) {
+		if (!lazy) {
+			return null;
+		}
+		try {
+			char[] buffer = new char[8192];
+			int length = 0, read;
+			while ((read = reader.read(buffer, length, buffer.length - length)) != -1) {
+				length += read;
+				if (length == buffer.length) {
+					buffer = Arrays.copyOf(buffer, length * 2);
+				}
+			}
+			return Arrays.copyOf(buffer, length);
+		} catch (IOException e) {
+			throw ParsingException.readFailed(e);
+		}
+	}
+
+	private static CharacterInput input(Reader reader, char[] source) {
+		return (source == null) ? new BufferedInput(reader) : new ArrayInput(source);
+	}
+
 	/**
 	 * Parses a JSON document, either a JSON object (parsed to a JsonConfig) or a JSON array
 	 * (parsed to a List).
@@ -74,7 +133,8 @@ public final class JsonParser implements ConfigParser<Config> {
 	 * @return either a JsonConfig or a List, depending on the document's type
 	 */
 	public Object parseDocument(Reader reader) {
-		CharacterInput input = new ReaderInput(reader);
+		char[] source = readSource(reader);
+		CharacterInput input = input(reader, source);
 		if (input.peek() == -1) {
 			if (emptyDataAccepted) {
 				// If data is empty && we accept empty data => return empty config
@@ -85,10 +145,10 @@ public final class JsonParser implements ConfigParser<Config> {
 		}
 		char firstChar = input.readCharAndSkip(SPACES);
 		if (firstChar == '{') {
-			return parseObject(input, configFormat.createConfig(), ParsingMode.MERGE);
+			return parseObject(input, configFormat.createConfig(), ParsingMode.MERGE, source);
 		}
 		if (firstChar == '[') {
-			return parseArray(input, new ArrayList<>(), ParsingMode.MERGE);
+			return parseArray(input, new ArrayList<>(), ParsingMode.MERGE, null, source);
 		}
 		throw new ParsingException("Invalid first character for a json document: " + firstChar);
 	}
@@ -108,7 +168,8 @@ public final class JsonParser implements ConfigParser<Config> {
 	 */
 	@Override
 	public void parse(Reader reader, Config destination, ParsingMode parsingMode) {
-		CharacterInput input = new ReaderInput(reader);
+		char[] source = readSource(reader);
+		CharacterInput input = input(reader, source);
 		if (input.peek() == -1) {
 			if (emptyDataAccepted) {
 				// If data is empty && we accept empty data => let the config as it is
@@ -122,7 +183,7 @@ public final class JsonParser implements ConfigParser<Config> {
 			throw new ParsingException("Invalid first character for a json object: " + firstChar);
 		}
 		parsingMode.prepareParsing(destination);
-		parseObject(input, destination, parsingMode);
+		parseObject(input, destination, parsingMode, source);
 	}
 
 	/**
@@ -154,7 +215,8 @@ public final class JsonParser implements ConfigParser<Config> {
 	 * @param destination the List where to put the data
 	 */
 	public void parseList(Reader reader, List<?> destination, ParsingMode parsingMode) {
-		CharacterInput input = new ReaderInput(reader);
+		char[] source = readSource(reader);
+		CharacterInput input = input(reader, source);
 		if (input.peek() == -1) {
 			if (emptyDataAccepted) {
 				// If data is empty && we accept empty data => let the config as it is
@@ -167,17 +229,37 @@ public final class JsonParser implements ConfigParser<Config> {
 		if (firstChar != '[') {
 			throw new ParsingException("Invalid first character for a json array: " + firstChar);
 		}
-		parseArray(input, destination, parsingMode);
+		parseArray(input, destination, parsingMode, null, source);
 	}
 
-	private <T extends Config> T parseObject(CharacterInput input, T config, ParsingMode parsingMode) {
+	/**
+	 * Parses a lazy object recorded by {@link #parseValue}.
+	 */
+	Config parseLazyObject(char[] source, int start, int end, Config parent,
+						   ParsingMode parsingMode) {
+		Config config = (parent == null) ? configFormat.createConfig() : parent.createSubConfig();
+		return parseObject(new ArrayInput(source, start + 1, end), config, parsingMode, source);
+	}
+
+	/**
+	 * Parses a lazy array recorded by {@link #parseValue}. Its elements are parsed at once, so
+	 * that the lists compare equal to the lists of an eager parsing.
+	 */
+	List<Object> parseLazyArray(char[] source, int start, int end, Config parent,
+								ParsingMode parsingMode) {
+		ArrayInput input = new ArrayInput(source, start + 1, end);
+		return parseArray(input, new ArrayList<>(), parsingMode, parent, null);
+	}
+
+	private <T extends Config> T parseObject(CharacterInput input, T config, ParsingMode parsingMode,
+											 char[] source) {
 		char kfirst = input.readCharAndSkip(SPACES);
 		if (kfirst == '}') {
 			return config;
 		} else if (kfirst != '"') {
 			throw new ParsingException("Invalid beginning of a key: " + kfirst);
 		}
-		parseKVPair(input, config, parsingMode);
+		parseKVPair(input, config, parsingMode, source);
 		while (true) {
 			char vsep = input.readCharAndSkip(SPACES);
 			if (vsep == '}') {// end of the object
@@ -189,23 +271,25 @@ public final class JsonParser implements ConfigParser<Config> {
 			if (kfirst != '"') {
 				throw new ParsingException("Invalid beginning of a key: " + kfirst);
 			}
-			parseKVPair(input, config, parsingMode);
+			parseKVPair(input, config, parsingMode, source);
 		}
 	}
 
-	private void parseKVPair(CharacterInput input, Config config, ParsingMode parsingMode) {
-		String key = parseString(input);
+	private void parseKVPair(CharacterInput input, Config config, ParsingMode parsingMode,
+							 char[] source) {
+		String key = KeyPool.intern(parseString(input));
 		char sep = input.readCharAndSkip(SPACES);
 		if (sep != ':') {
 			throw new ParsingException("Invalid key-value separator: " + sep);
 		}
 
 		char vfirst = input.readCharAndSkip(SPACES);
-		Object value = parseValue(input, vfirst, parsingMode);
+		Object value = parseValue(input, vfirst, parsingMode, config, source);
 		parsingMode.put(config, key, value);
 	}
 
-	private <T> List<T> parseArray(CharacterInput input, List<T> list, ParsingMode parsingMode) {
+	private <T> List<T> parseArray(CharacterInput input, List<T> list, ParsingMode parsingMode,
+								   Config parent, char[] source) {
 		boolean first = true;
 		while (true) {
 			char valueFirst = input.readCharAndSkip(SPACES);// the first character of the value
@@ -213,7 +297,7 @@ public final class JsonParser implements ConfigParser<Config> {
 				return list;
 			}
 			first = false;
-			T value = (T)parseValue(input, valueFirst, parsingMode);
+			T value = (T)parseValue(input, valueFirst, parsingMode, parent, source);
 			list.add(value);
 			char next = input.readCharAndSkip(SPACES);// the next character, should be ']' or ','
 			if (next == ']') {// end of the array
@@ -224,14 +308,39 @@ public final class JsonParser implements ConfigParser<Config> {
 		}
 	}
 
-	private Object parseValue(CharacterInput input, char firstChar, ParsingMode parsingMode) {
+	/**
+	 * Parses a value. The objects are parsed to sub-configs of the parent config if there is one,
+	 * so that a config that stores its sub-configs in a special way (for instance a
+	 * {@link me.hypherionmc.moonconfig.core.PersistentConfig}) doesn't need to convert them.
+	 *
+	 * In lazy mode, the objects and arrays are skipped and recorded as {@link LazyJsonConfig}
+	 * and {@link LazyJsonList}.
+	 *
+	 * @param parent the config that contains the value, or null if there is none
+	 * @param source all the data if the parsing is lazy, null otherwise
+	 */
+	private Object parseValue(CharacterInput input, char firstChar, ParsingMode parsingMode,
+							  Config parent, char[] source) {
 		switch (firstChar) {
 			case '"':
 				return parseString(input);
 			case '{':
-				return parseObject(input, configFormat.createConfig(), parsingMode);
+				if (source != null) {
+					int start = ((ArrayInput)input).position() - 1;
+					skipContainer(input);
+					int end = ((ArrayInput)input).position();
+					return new LazyJsonConfig(this, source, start, end, parent, parsingMode);
+				}
+				Config sub = (parent == null) ? configFormat.createConfig() : parent.createSubConfig();
+				return parseObject(input, sub, parsingMode, null);
 			case '[':
-				return parseArray(input, new ArrayList<>(), parsingMode);
+				if (source != null) {
+					int start = ((ArrayInput)input).position() - 1;
+					skipContainer(input);
+					int end = ((ArrayInput)input).position();
+					return new LazyJsonList(this, source, start, end, parent, parsingMode);
+				}
+				return parseArray(input, new ArrayList<>(), parsingMode, parent, null);
 			case 't':
 				return parseTrue(input);
 			case 'f':
@@ -244,17 +353,39 @@ public final class JsonParser implements ConfigParser<Config> {
 		}
 	}
 
+	/**
+	 * Skips an object or an array, whose first character has already been read. The content
+	 * isn't checked, this is done when the value is actually parsed.
+	 */
+	private void skipContainer(CharacterInput input) {
+		int depth = 1;
+		boolean inString = false, escape = false;
+		while (depth > 0) {
+			char c = input.readChar();
+			if (inString) {
+				if (escape) {
+					escape = false;
+				} else if (c == '\\') {
+					escape = true;
+				} else if (c == '"') {
+					inString = false;
+				}
+			} else if (c == '"') {
+				inString = true;
+			} else if (c == '{' || c == '[') {
+				depth++;
+			} else if (c == '}' || c == ']') {
+				depth--;
+			}
+		}
+	}
+
 	private Number parseNumber(CharacterInput input) {
 		CharsWrapper chars = input.readCharsUntil(NUMBER_END);
 		if (chars.contains('.') || chars.contains('e') || chars.contains('E')) {// must be a double
 			return Utils.parseDouble(chars);
 		}
-		long l = Utils.parseLong(chars, 10);
-		int small = (int)l;
-		if (l == small) {// small value => return an int instead of a long
-			return small;
-		}
-		return l;
+		return Utils.parseInteger(chars, 10);
 	}
 
 	private boolean parseTrue(CharacterInput input) {
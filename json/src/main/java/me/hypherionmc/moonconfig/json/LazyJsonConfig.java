@@ -0,0 +1,165 @@
+package me.hypherionmc.moonconfig.json;
+
+import me.hypherionmc.moonconfig.core.AbstractConfig;
+import me.hypherionmc.moonconfig.core.Config;
+import me.hypherionmc.moonconfig.core.ConfigFormat;
+import me.hypherionmc.moonconfig.core.UnmodifiableConfig;
+import me.hypherionmc.moonconfig.core.io.ParsingMode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * A JSON object that hasn't been parsed yet. It only records where the object is in the source
+ * data, and parses it the first time its content is accessed. Its sub-objects and arrays are
+ * lazy too, so only the parts of the data that are actually used are parsed.
+ * <p>
+ * The parsing is done at most once, even if several threads access the config at the same time.
+ * After that, the config behaves like the config it has been parsed to, except for
+ * {@link #equals(Object)}: like the other configs, a LazyJsonConfig is only equal to a config of
+ * the same type, so that the equality stays symmetric.
+ */
+final class LazyJsonConfig implements Config {
+	private final JsonParser parser;
+	private final ParsingMode parsingMode;
+	private Config parent;// used to create the config, released after the parsing
+	private char[] source;// released after the parsing
+	private final int start, end;
+	private volatile Config config;
+
+	LazyJsonConfig(JsonParser parser, char[] source, int start, int end, Config parent,
+				   ParsingMode parsingMode) {
+		this.parser = parser;
+		this.source = source;
+		this.start = start;
+		this.end = end;
+		this.parent = parent;
+		this.parsingMode = parsingMode;
+	}
+
+	/**
+	 * @return the parsed config, after parsing it if needed
+	 */
+	private Config config() {
+		Config c = config;
+		if (c == null) {
+			synchronized (this) {
+				c = config;
+				if (c == null) {
+					c = parser.parseLazyObject(source, start, end, parent, parsingMode);
+					// Parsed after its parent, so it must be linked explicitly for its
+					// modifications to increment the version of the parent.
+					AbstractConfig.linkSubConfig(c, parent);
+					config = c;
+					source = null;
+					parent = null;
+				}
+			}
+		}
+		return c;
+	}
+
+	@Override
+	public <T> T getRaw(List<String> path) {
+		return config().getRaw(path);
+	}
+
+	@Override
+	public boolean contains(List<String> path) {
+		return config().contains(path);
+	}
+
+	@Override
+	public int size() {
+		return config().size();
+	}
+
+	@Override
+	public <T> T set(List<String> path, Object value) {
+		return config().set(path, value);
+	}
+
+	@Override
+	public boolean add(List<String> path, Object value) {
+		return config().add(path, value);
+	}
+
+	@Override
+	public <T> T compute(List<String> path, Function<? super T, ? extends T> remappingFunction) {
+		return config().compute(path, remappingFunction);
+	}
+
+	@Override
+	public void putAll(UnmodifiableConfig config) {
+		config().putAll(config);
+	}
+
+	@Override
+	public void removeAll(UnmodifiableConfig config) {
+		config().removeAll(config);
+	}
+
+	@Override
+	public <T> T remove(List<String> path) {
+		return config().remove(path);
+	}
+
+	@Override
+	public void clear() {
+		config().clear();
+	}
+
+	@Override
+	public long version() {
+		return config().version();
+	}
+
+	@Override
+	public Map<String, Object> valueMap() {
+		return config().valueMap();
+	}
+
+	@Override
+	public Set<? extends Config.Entry> entrySet() {
+		return config().entrySet();
+	}
+
+	@Override
+	public void forEachEntry(BiConsumer<? super String, Object> action) {
+		config().forEachEntry(action);
+	}
+
+	@Override
+	public Config createSubConfig() {
+		return config().createSubConfig();
+	}
+
+	@Override
+	public ConfigFormat<?> configFormat() {
+		return config().configFormat();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if (!(obj instanceof LazyJsonConfig)) {
+			return false;
+		}
+		return config().equals(((LazyJsonConfig)obj).config());
+	}
+
+	@Override
+	public int hashCode() {
+		return config().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return config().toString();
+	}
+}
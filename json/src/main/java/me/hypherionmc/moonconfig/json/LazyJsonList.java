@@ -0,0 +1,80 @@
+package me.hypherionmc.moonconfig.json;
+
+import me.hypherionmc.moonconfig.core.Config;
+import me.hypherionmc.moonconfig.core.io.ParsingMode;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A JSON array that hasn't been parsed yet. Like {@link LazyJsonConfig}, it is parsed at most
+ * once, the first time its content is accessed. Its elements are parsed at the same time.
+ */
+final class LazyJsonList extends AbstractList<Object> implements RandomAccess {
+	private final JsonParser parser;
+	private final ParsingMode parsingMode;
+	private Config parent;// used to create the sub-configs, released after the parsing
+	private char[] source;// released after the parsing
+	private final int start, end;
+	private volatile List<Object> list;
+
+	LazyJsonList(JsonParser parser, char[] source, int start, int end, Config parent,
+				 ParsingMode parsingMode) {
+		this.parser = parser;
+		this.source = source;
+		this.start = start;
+		this.end = end;
+		this.parent = parent;
+		this.parsingMode = parsingMode;
+	}
+
+	/**
+	 * @return the parsed list, after parsing it if needed
+	 */
+	private List<Object> list() {
+		List<Object> l = list;
+		if (l == null) {
+			synchronized (this) {
+				l = list;
+				if (l == null) {
+					l = parser.parseLazyArray(source, start, end, parent, parsingMode);
+					list = l;
+					source = null;
+					parent = null;
+				}
+			}
+		}
+		return l;
+	}
+
+	@Override
+	public Object get(int index) {
+		return list().get(index);
+	}
+
+	@Override
+	public int size() {
+		return list().size();
+	}
+
+	@Override
+	public Object set(int index, Object element) {
+		return list().set(index, element);
+	}
+
+	@Override
+	public void add(int index, Object element) {
+		list().add(index, element);
+	}
+
+	@Override
+	public Object remove(int index) {
+		return list().remove(index);
+	}
+
+	@Override
+	public void clear() {
+		list().clear();
+	}
+}
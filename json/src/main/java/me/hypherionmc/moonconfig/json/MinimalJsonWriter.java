@@ -4,6 +4,7 @@ import me.hypherionmc.moonconfig.core.UnmodifiableConfig;
 import me.hypherionmc.moonconfig.core.io.*;
 
 import java.io.Writer;
+import java.lang.reflect.Array;
 import java.util.*;
 
 import static me.hypherionmc.moonconfig.core.NullObject.NULL_OBJECT;
@@ -56,21 +57,18 @@ public final class MinimalJsonWriter implements ConfigWriter {
 			output.write(EMPTY_OBJECT);
 			return;
 		}
-		Iterator<Map.Entry<String, Object>> it = config.valueMap().entrySet().iterator();
 		output.write('{');
-		while (true) {
-			final Map.Entry<String, Object> entry = it.next();
-			final String key = entry.getKey();
-			final Object value = entry.getValue();
+		final boolean[] first = {true};
+		config.forEachEntry((key, value) -> {
+			if (first[0]) {
+				first[0] = false;
+			} else {
+				output.write(',');
+			}
 			writeString(key, output);// key
 			output.write(':');// separator
 			writeValue(value, output);// value
-			if (it.hasNext()) {
-				output.write(',');
-			} else {
-				break;
-			}
-		}
+		});
 		output.write('}');
 	}
 
@@ -82,7 +80,7 @@ public final class MinimalJsonWriter implements ConfigWriter {
 		} else if (v instanceof Enum) {
 			writeString(((Enum<?>)v).name(), output);
 		} else if (v instanceof Number) {
-			output.write(v.toString());
+			NumberFormatter.write((Number)v, output);
 		} else if (v instanceof UnmodifiableConfig) {
 			writeConfig((UnmodifiableConfig)v, output);
 		} else if (v instanceof Collection) {
@@ -92,23 +90,35 @@ public final class MinimalJsonWriter implements ConfigWriter {
 		} else if (v instanceof Object[]) {
 			List<Object> list = Arrays.asList((Object[])v);
 			writeCollection(list, output);
-		} else if (v instanceof long[]) {
-			output.write(Arrays.toString((long[])v));
-		} else if (v instanceof int[]) {
-			output.write(Arrays.toString((int[])v));
-		} else if (v instanceof double[]) {
-			output.write(Arrays.toString((double[])v));
-		} else if (v instanceof float[]) {
-			output.write(Arrays.toString((float[])v));
-		} else if (v instanceof short[]) {
-			output.write(Arrays.toString((short[])v));
-		} else if (v instanceof byte[]) {
-			output.write(Arrays.toString((byte[])v));
+		} else if (v instanceof long[] || v instanceof int[] || v instanceof double[]
+				   || v instanceof float[] || v instanceof short[] || v instanceof byte[]) {
+			writeNumbers(v, output);
 		} else {
 			throw new WritingException("Unsupported value type: " + v.getClass());
 		}
 	}
 
+	/**
+	 * Writes an array of primitive numbers, in the format of {@link Arrays#toString(long[])}.
+	 */
+	private void writeNumbers(Object array, CharacterOutput output) {
+		output.write('[');
+		for (int i = 0, length = Array.getLength(array); i < length; i++) {
+			if (i > 0) {
+				output.write(',');
+				output.write(' ');
+			}
+			if (array instanceof double[]) {
+				NumberFormatter.writeDouble(((double[])array)[i], output);
+			} else if (array instanceof float[]) {
+				NumberFormatter.writeFloat(((float[])array)[i], output);
+			} else {
+				NumberFormatter.writeLong(Array.getLong(array, i), output);
+			}
+		}
+		output.write(']');
+	}
+
 	private void writeCollection(Collection<?> collection, CharacterOutput output) {
 		if (collection.isEmpty()) {
 			output.write(EMPTY_ARRAY);
@@ -0,0 +1,663 @@
+package me.hypherionmc.moonconfig.json;
+
+import me.hypherionmc.moonconfig.core.Config;
+import me.hypherionmc.moonconfig.core.ConfigFormat;
+import me.hypherionmc.moonconfig.core.file.FileNotFoundAction;
+import me.hypherionmc.moonconfig.core.io.*;
+import me.hypherionmc.moonconfig.core.utils.KeyPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A JSON parser that reads UTF-8 bytes directly, without decoding them to characters first. The
+ * structure, the numbers and the literals are parsed from the bytes, and only the strings are
+ * decoded. The strings that contain only ASCII characters and no escape sequence are copied
+ * at once.
+ * <p>
+ * The bytes can be given as an array, as a {@link ByteBuffer} (including a mapped file), or read
+ * from an InputStream or a file when the charset is UTF-8. With
+ * {@link ReadingMode#MEMORY_MAPPED}, the file is parsed directly from the mapped memory. The
+ * other inputs, like Readers and non-UTF-8 data, are parsed by a {@link JsonParser}.
+ * <p>
+ * The documents are parsed like with a JsonParser, except that the lazy mode isn't supported.
+ * The malformed UTF-8 sequences in the strings are replaced by U+FFFD.
+ */
+public final class Utf8JsonParser implements ConfigParser<Config> {
+	private final ConfigFormat<Config> configFormat;
+	private final JsonParser charParser;
+	private boolean emptyDataAccepted = false;
+
+	public Utf8JsonParser() {
+		this(JsonFormat.fancyInstance());
+	}
+
+	Utf8JsonParser(ConfigFormat<Config> configFormat) {
+		this.configFormat = configFormat;
+		this.charParser = new JsonParser(configFormat);
+	}
+
+	@Override
+	public ConfigFormat<Config> getFormat() {
+		return configFormat;
+	}
+
+	/**
+	 * @return true if the parser accepts empty data as a valid input, false otherwise (default)
+	 */
+	public boolean isEmptyDataAccepted() {
+		return emptyDataAccepted;
+	}
+
+	/**
+	 * Enables or disables the acceptance of empty input data. False by default.
+	 *
+	 * @param emptyDataAccepted true to accept empty data as a valid input, false to reject it
+	 * @see JsonParser#setEmptyDataAccepted(boolean)
+	 */
+	public Utf8JsonParser setEmptyDataAccepted(boolean emptyDataAccepted) {
+		this.emptyDataAccepted = emptyDataAccepted;
+		charParser.setEmptyDataAccepted(emptyDataAccepted);
+		return this;
+	}
+
+	/**
+	 * Parses a JSON document, either a JSON object (parsed to a JsonConfig) or a JSON array
+	 * (parsed to a List).
+	 *
+	 * @param json the UTF-8 data to parse
+	 * @return either a JsonConfig or a List, depending on the document's type
+	 */
+	public Object parseDocument(byte[] json) {
+		return parseDocument(ByteBuffer.wrap(json));
+	}
+
+	/**
+	 * Parses a JSON document, either a JSON object (parsed to a JsonConfig) or a JSON array
+	 * (parsed to a List). The bytes between the buffer's position and its limit are parsed, and
+	 * the position isn't modified.
+	 *
+	 * @param json the UTF-8 data to parse
+	 * @return either a JsonConfig or a List, depending on the document's type
+	 */
+	public Object parseDocument(ByteBuffer json) {
+		Input input = new Input(json);
+		if (input.isEmpty()) {
+			if (emptyDataAccepted) {
+				return configFormat.createConfig();
+			} else {
+				throw new ParsingException("No json data: input is empty");
+			}
+		}
+		char firstChar = input.readNonSpaceChar();
+		if (firstChar == '{') {
+			return input.parseObject(configFormat.createConfig(), ParsingMode.MERGE);
+		}
+		if (firstChar == '[') {
+			return input.parseArray(new ArrayList<>(), ParsingMode.MERGE, null);
+		}
+		throw new ParsingException("Invalid first character for a json document: " + firstChar);
+	}
+
+	/**
+	 * Parses a JSON object to a Config.
+	 *
+	 * @param json the UTF-8 data to parse
+	 * @return a Config
+	 */
+	public Config parse(byte[] json) {
+		return parse(ByteBuffer.wrap(json));
+	}
+
+	/**
+	 * Parses a JSON object to a Config. The bytes between the buffer's position and its limit are
+	 * parsed, and the position isn't modified.
+	 *
+	 * @param json the UTF-8 data to parse
+	 * @return a Config
+	 */
+	public Config parse(ByteBuffer json) {
+		Config config = JsonFormat.minimalInstance().createConfig();
+		parse(json, config, ParsingMode.MERGE);
+		return config;
+	}
+
+	/**
+	 * Parses a JSON object to a Config.
+	 *
+	 * @param json        the UTF-8 data to parse
+	 * @param destination the config where to put the data
+	 */
+	public void parse(byte[] json, Config destination, ParsingMode parsingMode) {
+		parse(ByteBuffer.wrap(json), destination, parsingMode);
+	}
+
+	/**
+	 * Parses a JSON object to a Config. The bytes between the buffer's position and its limit are
+	 * parsed, and the position isn't modified.
+	 *
+	 * @param json        the UTF-8 data to parse
+	 * @param destination the config where to put the data
+	 */
+	public void parse(ByteBuffer json, Config destination, ParsingMode parsingMode) {
+		Input input = new Input(json);
+		if (input.isEmpty()) {
+			if (emptyDataAccepted) {
+				return;
+			} else {
+				throw new ParsingException("No json data: input is empty");
+			}
+		}
+		char firstChar = input.readNonSpaceChar();
+		if (firstChar != '{') {
+			throw new ParsingException("Invalid first character for a json object: " + firstChar);
+		}
+		parsingMode.prepareParsing(destination);
+		input.parseObject(destination, parsingMode);
+	}
+
+	/**
+	 * Parses a JSON array to a List.
+	 *
+	 * @param json the UTF-8 data to parse
+	 * @return a List with the content of the parsed array
+	 */
+	public <T> List<T> parseList(byte[] json) {
+		return parseList(ByteBuffer.wrap(json));
+	}
+
+	/**
+	 * Parses a JSON array to a List. The bytes between the buffer's position and its limit are
+	 * parsed, and the position isn't modified.
+	 *
+	 * @param json the UTF-8 data to parse
+	 * @return a List with the content of the parsed array
+	 */
+	public <T> List<T> parseList(ByteBuffer json) {
+		List<Object> list = new ArrayList<>();
+		parseList(json, list, ParsingMode.MERGE);
+		return (List<T>)list;
+	}
+
+	/**
+	 * Parses a JSON array to a List. The bytes between the buffer's position and its limit are
+	 * parsed, and the position isn't modified.
+	 *
+	 * @param json        the UTF-8 data to parse
+	 * @param destination the List where to put the data
+	 */
+	public void parseList(ByteBuffer json, List<?> destination, ParsingMode parsingMode) {
+		Input input = new Input(json);
+		if (input.isEmpty()) {
+			if (emptyDataAccepted) {
+				return;
+			} else {
+				throw new ParsingException("No json data: input is empty");
+			}
+		}
+		char firstChar = input.readNonSpaceChar();
+		if (firstChar != '[') {
+			throw new ParsingException("Invalid first character for a json array: " + firstChar);
+		}
+		input.parseArray(destination, parsingMode, null);
+	}
+
+	/**
+	 * Parses a JSON object to a Config, with a {@link JsonParser}.
+	 */
+	@Override
+	public Config parse(Reader reader) {
+		return charParser.parse(reader);
+	}
+
+	/**
+	 * Parses a JSON object to a Config, with a {@link JsonParser}.
+	 */
+	@Override
+	public void parse(Reader reader, Config destination, ParsingMode parsingMode) {
+		charParser.parse(reader, destination, parsingMode);
+	}
+
+	@Override
+	public Config parse(InputStream input, Charset charset) {
+		if (!charset.equals(StandardCharsets.UTF_8)) {
+			return ConfigParser.super.parse(input, charset);
+		}
+		return parse(readAll(input));
+	}
+
+	@Override
+	public void parse(InputStream input, Config destination, ParsingMode parsingMode,
+					  Charset charset) {
+		if (!charset.equals(StandardCharsets.UTF_8)) {
+			ConfigParser.super.parse(input, destination, parsingMode, charset);
+			return;
+		}
+		parse(readAll(input), destination, parsingMode);
+	}
+
+	@Override
+	public Config parse(Path file, FileNotFoundAction nefAction, Charset charset,
+						ReadingMode readingMode) {
+		if (readingMode != ReadingMode.MEMORY_MAPPED || !charset.equals(StandardCharsets.UTF_8)) {
+			return ConfigParser.super.parse(file, nefAction, charset, readingMode);
+		}
+		try {
+			if (Files.notExists(file) && !nefAction.run(file, getFormat())) {
+				return getFormat().createConfig();
+			}
+			return parse(map(file));
+		} catch (IOException e) {
+			throw new WritingException("An I/O error occured", e);
+		}
+	}
+
+	@Override
+	public void parse(Path file, Config destination, ParsingMode parsingMode,
+					  FileNotFoundAction nefAction, Charset charset, ReadingMode readingMode) {
+		if (readingMode != ReadingMode.MEMORY_MAPPED || !charset.equals(StandardCharsets.UTF_8)) {
+			ConfigParser.super.parse(file, destination, parsingMode, nefAction, charset, readingMode);
+			return;
+		}
+		try {
+			if (Files.notExists(file) && !nefAction.run(file, getFormat())) {
+				return;
+			}
+			parse(map(file), destination, parsingMode);
+		} catch (IOException e) {
+			throw new WritingException("An I/O error occured", e);
+		}
+	}
+
+	private static ByteBuffer map(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	private static ByteBuffer readAll(InputStream input) {
+		try {
+			byte[] buffer = new byte[8192];
+			int length = 0, read;
+			while ((read = input.read(buffer, length, buffer.length - length)) != -1) {
+				length += read;
+				if (length == buffer.length) {
+					buffer = Arrays.copyOf(buffer, length * 2);
+				}
+			}
+			return ByteBuffer.wrap(buffer, 0, length);
+		} catch (IOException e) {
+			throw ParsingException.readFailed(e);
+		}
+	}
+
+	/**
+	 * The state of a parsing: the bytes and the current position.
+	 */
+	private final class Input {
+		private final ByteBuffer bytes;
+		private final byte[] array;// the array of the buffer, or null if it has no accessible array
+		private final int arrayOffset;
+		private final int limit;
+		private int pos;
+		private char[] chars = new char[64];// contains the decoded strings and numbers
+
+		Input(ByteBuffer bytes) {
+			this.bytes = bytes;
+			this.pos = bytes.position();
+			this.limit = bytes.limit();
+			if (bytes.hasArray()) {
+				this.array = bytes.array();
+				this.arrayOffset = bytes.arrayOffset();
+			} else {
+				this.array = null;
+				this.arrayOffset = 0;
+			}
+		}
+
+		/**
+		 * Gets a byte. The array, if any, is used directly because it's faster than the buffer.
+		 */
+		private byte at(int index) {
+			return (array != null) ? array[arrayOffset + index] : bytes.get(index);
+		}
+
+		boolean isEmpty() {
+			return pos == limit;
+		}
+
+		/**
+		 * Reads the next byte that isn't a space.
+		 *
+		 * @throws ParsingException if the end of the data is reached
+		 */
+		int readNonSpace() {
+			while (pos < limit) {
+				int b = at(pos++);
+				if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+					return b;
+				}
+			}
+			throw ParsingException.notEnoughData();
+		}
+
+		/**
+		 * Reads the next character that isn't a space, for the error messages and the checks of
+		 * the first character.
+		 */
+		char readNonSpaceChar() {
+			int b = readNonSpace();
+			if (b >= 0) {
+				return (char)b;
+			}
+			pos--;
+			return readCodePointAsChar();
+		}
+
+		private char readCodePointAsChar() {
+			int start = pos;
+			int n = decodeNonAscii(0);
+			if (n == 0) {
+				pos = start + 1;
+				return '\uFFFD';
+			}
+			return chars[0];
+		}
+
+		<T extends Config> T parseObject(T config, ParsingMode parsingMode) {
+			int kfirst = readNonSpace();
+			if (kfirst == '}') {
+				return config;
+			} else if (kfirst != '"') {
+				throw new ParsingException("Invalid beginning of a key: " + unread(kfirst));
+			}
+			parseKVPair(config, parsingMode);
+			while (true) {
+				int vsep = readNonSpace();
+				if (vsep == '}') {// end of the object
+					return config;
+				} else if (vsep != ',') {
+					throw new ParsingException("Invalid value separator: " + unread(vsep));
+				}
+				kfirst = readNonSpace();
+				if (kfirst != '"') {
+					throw new ParsingException("Invalid beginning of a key: " + unread(kfirst));
+				}
+				parseKVPair(config, parsingMode);
+			}
+		}
+
+		private void parseKVPair(Config config, ParsingMode parsingMode) {
+			String key = KeyPool.intern(parseString());
+			int sep = readNonSpace();
+			if (sep != ':') {
+				throw new ParsingException("Invalid key-value separator: " + unread(sep));
+			}
+			int vfirst = readNonSpace();
+			Object value = parseValue(vfirst, parsingMode, config);
+			parsingMode.put(config, key, value);
+		}
+
+		<T> List<T> parseArray(List<T> list, ParsingMode parsingMode, Config parent) {
+			boolean first = true;
+			while (true) {
+				int valueFirst = readNonSpace();
+				if (first && valueFirst == ']') {
+					return list;
+				}
+				first = false;
+				T value = (T)parseValue(valueFirst, parsingMode, parent);
+				list.add(value);
+				int next = readNonSpace();
+				if (next == ']') {// end of the array
+					return list;
+				} else if (next != ',') {
+					throw new ParsingException("Invalid value separator: " + unread(valueFirst));
+				}
+			}
+		}
+
+		private Object parseValue(int firstByte, ParsingMode parsingMode, Config parent) {
+			switch (firstByte) {
+				case '"':
+					return parseString();
+				case '{':
+					Config sub = (parent == null) ? configFormat.createConfig() : parent.createSubConfig();
+					return parseObject(sub, parsingMode);
+				case '[':
+					return parseArray(new ArrayList<>(), parsingMode, parent);
+				case 't':
+					parseLiteral('t', "rue", "boolean true");
+					return true;
+				case 'f':
+					parseLiteral('f', "alse", "boolean false");
+					return false;
+				case 'n':
+					parseLiteral('n', "ull", "null");
+					return null;
+				default:
+					pos--;
+					return parseNumber();
+			}
+		}
+
+		/**
+		 * Returns a character for an error message about a byte that has just been read.
+		 */
+		private char unread(int b) {
+			if (b >= 0) {
+				return (char)b;
+			}
+			pos--;
+			return readCodePointAsChar();
+		}
+
+		private void parseLiteral(char first, String rest, String expected) {
+			final int length = rest.length();
+			if (limit - pos < length) {
+				throw ParsingException.notEnoughData();
+			}
+			boolean valid = true;
+			for (int i = 0; i < length; i++) {
+				if (at(pos + i) != rest.charAt(i)) {
+					valid = false;
+					break;
+				}
+			}
+			if (!valid) {
+				char[] read = new char[length];
+				for (int i = 0; i < length; i++) {
+					read[i] = (char)(at(pos + i) & 0xFF);
+				}
+				throw new ParsingException(
+					"Invalid value: " + first + new String(read) + " - expected " + expected);
+			}
+			pos += length;
+		}
+
+		private Number parseNumber() {
+			int n = 0;
+			boolean isDouble = false;
+			while (true) {
+				if (pos == limit) {
+					throw ParsingException.notEnoughData();
+				}
+				int b = at(pos);
+				if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\t' || b == '\n' || b == '\r') {
+					break;
+				}
+				if (b == '.' || b == 'e' || b == 'E') {
+					isDouble = true;
+				}
+				if (n == chars.length) {
+					chars = Arrays.copyOf(chars, n * 2);
+				}
+				chars[n++] = (char)(b & 0xFF);
+				pos++;
+			}
+			CharsWrapper number = new CharsWrapper(chars, 0, n);
+			if (isDouble) {
+				return Utils.parseDouble(number);
+			}
+			return Utils.parseInteger(number, 10);
+		}
+
+		/**
+		 * Parses a string whose opening quote has already been read.
+		 */
+		private String parseString() {
+			final int start = pos;
+			// Fast path: ASCII without escape sequences
+			while (pos < limit) {
+				int b = at(pos);
+				if (b == '"') {
+					pos++;
+					return asciiString(start, pos - 1 - start);
+				}
+				if (b == '\\' || b < 0) {
+					break;
+				}
+				pos++;
+			}
+			if (pos == limit) {
+				throw ParsingException.notEnoughData();
+			}
+			// Slow path: decodes the rest of the string
+			int n = pos - start;
+			ensureCapacity(n + 16);
+			for (int i = 0; i < n; i++) {
+				chars[i] = (char)at(start + i);
+			}
+			while (true) {
+				if (pos == limit) {
+					throw ParsingException.notEnoughData();
+				}
+				int b = at(pos);
+				if (b == '"') {
+					pos++;
+					return new String(chars, 0, n);
+				}
+				ensureCapacity(n + 2);
+				if (b == '\\') {
+					pos++;
+					chars[n++] = escape();
+				} else if (b >= 0) {
+					chars[n++] = (char)b;
+					pos++;
+				} else {
+					int decoded = decodeNonAscii(n);
+					if (decoded == 0) {// malformed sequence
+						chars[n++] = '\uFFFD';
+						pos++;
+					} else {
+						n += decoded;
+					}
+				}
+			}
+		}
+
+		private String asciiString(int start, int length) {
+			if (array != null) {
+				return new String(array, arrayOffset + start, length, StandardCharsets.ISO_8859_1);
+			}
+			ensureCapacity(length);
+			for (int i = 0; i < length; i++) {
+				chars[i] = (char)at(start + i);
+			}
+			return new String(chars, 0, length);
+		}
+
+		private void ensureCapacity(int capacity) {
+			if (capacity > chars.length) {
+				chars = Arrays.copyOf(chars, Math.max(capacity, chars.length * 2));
+			}
+		}
+
+		/**
+		 * Decodes a well-formed non-ASCII UTF-8 sequence at the current position into
+		 * {@code chars[index]} (and {@code chars[index + 1]} for a surrogate pair), which must be
+		 * big enough.
+		 *
+		 * @return the number of chars written, or 0 if the sequence is malformed
+		 */
+		private int decodeNonAscii(int index) {
+			final int b = at(pos);
+			if ((b & 0xE0) == 0xC0 && pos + 1 < limit) {
+				int b1 = at(pos + 1);
+				if ((b & 0x1E) != 0 && (b1 & 0xC0) == 0x80) {
+					chars[index] = (char)(((b & 0x1F) << 6) | (b1 & 0x3F));
+					pos += 2;
+					return 1;
+				}
+			} else if ((b & 0xF0) == 0xE0 && pos + 2 < limit) {
+				int b1 = at(pos + 1), b2 = at(pos + 2);
+				int c = ((b & 0x0F) << 12) | ((b1 & 0x3F) << 6) | (b2 & 0x3F);
+				if ((b1 & 0xC0) == 0x80 && (b2 & 0xC0) == 0x80 && c >= 0x800
+					&& !Character.isSurrogate((char)c)) {
+					chars[index] = (char)c;
+					pos += 3;
+					return 1;
+				}
+			} else if ((b & 0xF8) == 0xF0 && pos + 3 < limit) {
+				int b1 = at(pos + 1), b2 = at(pos + 2), b3 = at(pos + 3);
+				int c = ((b & 0x07) << 18) | ((b1 & 0x3F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F);
+				if ((b1 & 0xC0) == 0x80 && (b2 & 0xC0) == 0x80 && (b3 & 0xC0) == 0x80
+					&& c >= 0x10000 && c <= Character.MAX_CODE_POINT) {
+					chars[index] = Character.highSurrogate(c);
+					chars[index + 1] = Character.lowSurrogate(c);
+					pos += 4;
+					return 2;
+				}
+			}
+			return 0;
+		}
+
+		/**
+		 * Parses an escape sequence whose backslash has already been read.
+		 */
+		private char escape() {
+			if (pos == limit) {
+				throw ParsingException.notEnoughData();
+			}
+			int b = at(pos++);
+			switch (b) {
+				case '"':
+				case '\\':
+				case '/':
+					return (char)b;
+				case 'b':
+					return '\b';
+				case 'f':
+					return '\f';
+				case 'n':
+					return '\n';
+				case 'r':
+					return '\r';
+				case 't':
+					return '\t';
+				case 'u':
+					if (limit - pos < 4) {
+						throw ParsingException.notEnoughData();
+					}
+					char[] hex = new char[4];
+					for (int i = 0; i < 4; i++) {
+						hex[i] = (char)(at(pos++) & 0xFF);
+					}
+					return (char)Utils.parseInt(new CharsWrapper(hex), 16);
+				default:
+					throw new ParsingException("Invalid escapement: \\" + unread(b));
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package me.hypherionmc.moonconfig.json;
+
+import me.hypherionmc.moonconfig.core.Config;
+import me.hypherionmc.moonconfig.core.ConfigDiff;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that a config parsed lazily behaves like a config parsed eagerly, in particular that
+ * the modifications of its lazy sub-configs increment the version of the root.
+ */
+public class LazyJsonParserTest {
+	private static final String JSON = "{\"a\": {\"b\": 0, \"c\": {\"d\": \"text\"}}, \"e\": [1, {\"f\": 2}], \"g\": true}";
+
+	@Test
+	public void modificationsOfSubConfigs() {
+		check(root -> root.<Config>get("a").set("b", 1));
+		check(root -> root.<Config>get("a").<Config>get("c").set("d", "changed"));
+		check(root -> root.<Config>get("a").<Config>get("c").remove("d"));
+		check(root -> root.set("a.c.new", 3));
+		check(root -> root.<Config>get("a").add("added", 4));
+		check(root -> root.set("g", false));
+	}
+
+	@Test
+	public void successiveModifications() {
+		check(root -> {
+			Config a = root.get("a");
+			a.set("b", 1);
+			a.<Config>get("c").set("d", "changed");
+			a.set("b", 2);
+			root.set("a.c.d", "again");
+		});
+	}
+
+	/**
+	 * Applies the same modification to a config parsed eagerly and to a config parsed lazily,
+	 * and checks that they give the same versions and the same diff.
+	 */
+	private static void check(Consumer<Config> modification) {
+		Config original = parse(false);
+		Config eager = parse(false), lazy = parse(true);
+		long eagerVersion = eager.version(), lazyVersion = lazy.version();
+
+		modification.accept(eager);
+		modification.accept(lazy);
+
+		assertEquals(eager.version() - eagerVersion, lazy.version() - lazyVersion, "root version");
+		assertEquals(eager.<Config>get("a").version() > 0, lazy.<Config>get("a").version() > 0, "sub-config version");
+		assertEquals(ConfigDiff.between(original, eager).toString(),
+					 ConfigDiff.between(original, lazy).toString(), "diff");
+		assertEquals(eager.toString(), lazy.toString(), "content");
+	}
+
+	private static Config parse(boolean lazy) {
+		return new JsonParser().setLazy(lazy).parse(JSON);
+	}
+}
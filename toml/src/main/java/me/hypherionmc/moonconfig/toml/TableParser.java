@@ -4,6 +4,7 @@ import me.hypherionmc.moonconfig.core.CommentedConfig;
 import me.hypherionmc.moonconfig.core.io.CharacterInput;
 import me.hypherionmc.moonconfig.core.io.CharsWrapper;
 import me.hypherionmc.moonconfig.core.io.ParsingException;
+import me.hypherionmc.moonconfig.core.utils.KeyPool;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -64,7 +65,7 @@ final class TableParser {
 				return config;
 			}
 			if (after == '#') {
-				CharsWrapper comment = Toml.readLine(input);
+				CharsWrapper comment = Toml.readComment(input);
 				commentsList.add(comment);
 			} else if (after != '\n' && after != '\r') {
 				throw new ParsingException("Invalid character '"
@@ -126,7 +127,7 @@ final class TableParser {
 				}
 				char after = Toml.readNonSpaceChar(input, false);
 				if (after == '#') {// Comment
-					CharsWrapper comment = Toml.readLine(input);
+					CharsWrapper comment = Toml.readComment(input);
 					parser.setComment(comment);
 				} else if (after != '\n' && after != '\r') {
 					throw new ParsingException(
@@ -160,9 +161,9 @@ final class TableParser {
 		// Note that a key can't be multiline
 		// Empty keys are allowed if and only if they are quoted (with double or single quotes)
 		if (firstChar == '\"') {
-			return StringParser.parseBasic(input, parser);
+			return KeyPool.intern(StringParser.parseBasic(input, parser));
 		} else if (firstChar == '\'') {
-			return StringParser.parseLiteral(input, parser);
+			return KeyPool.intern(StringParser.parseLiteral(input, parser));
 		} else {
 			CharsWrapper restOfKey = input.readCharsUntil(KEY_END);
 			String bareKey = new CharsWrapper.Builder(restOfKey.length() + 1).append(firstChar)
@@ -175,7 +176,7 @@ final class TableParser {
 			if (!Toml.isValidBareKey(bareKey, parser.isLenientWithBareKeys())) {
 				throw new ParsingException("Invalid bare key: " + bareKey);
 			}
-			return bareKey;
+			return KeyPool.intern(bareKey);
 		}
 	}
 
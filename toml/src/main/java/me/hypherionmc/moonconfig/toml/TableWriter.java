@@ -1,6 +1,5 @@
 package me.hypherionmc.moonconfig.toml;
 
-import me.hypherionmc.moonconfig.core.Config;
 import me.hypherionmc.moonconfig.core.UnmodifiableCommentedConfig;
 import me.hypherionmc.moonconfig.core.UnmodifiableConfig;
 import me.hypherionmc.moonconfig.core.io.CharacterOutput;
@@ -25,19 +24,18 @@ final class TableWriter {
 
 	static void writeInline(UnmodifiableConfig config, CharacterOutput output, TomlWriter writer) {
 		output.write('{');
-		Iterator<Map.Entry<String, Object>> iterator = config.valueMap().entrySet().iterator();
-		while (iterator.hasNext()) {
-			final Map.Entry<String, Object> entry = iterator.next();
-			final String key = entry.getKey();
-			final Object value = entry.getValue();
+		final boolean[] first = {true};
+		config.forEachEntry((key, value) -> {
+			if (first[0]) {
+				first[0] = false;
+			} else {
+				output.write(INLINE_ENTRY_SEPARATOR);
+			}
 			// Comments aren't written in an inline table
 			writer.writeKey(key, output);
 			output.write(KEY_VALUE_SEPARATOR);
 			ValueWriter.write(value, output, writer);
-			if (iterator.hasNext()) {
-				output.write(INLINE_ENTRY_SEPARATOR);
-			}
-		}
+		});
 		output.write('}');
 	}
 
@@ -49,24 +47,21 @@ final class TableWriter {
 
 	private static void writeNormal(UnmodifiableCommentedConfig config, List<String> configPath,
 									CharacterOutput output, TomlWriter writer) {
-		List<UnmodifiableCommentedConfig.Entry> tablesEntries = new ArrayList<>();
-		List<UnmodifiableCommentedConfig.Entry> tableArraysEntries = new ArrayList<>();
+		final List<String> tablesKeys = new ArrayList<>();
+		final List<String> tableArraysKeys = new ArrayList<>();
 
 		// Writes the "simple" values:
 		writer.increaseIndentLevel();// Indent++
-		for (UnmodifiableCommentedConfig.Entry entry : config.entrySet()) {
-			final String key = entry.getKey();
-			final Object value = entry.getValue();
-			final String comment = entry.getComment();
+		config.forEachCommentedEntry((key, value, comment) -> {
 			if (value instanceof UnmodifiableConfig &&
 				!writer.writesInline((UnmodifiableConfig)value)) {
-				tablesEntries.add(entry);
-				continue;
+				tablesKeys.add(key);
+				return;
 			} else if (value instanceof List) {
 				List<?> list = (List<?>)value;
 				if (!list.isEmpty() && list.stream().allMatch(UnmodifiableConfig.class::isInstance)) {
-					tableArraysEntries.add(entry);
-					continue;
+					tableArraysKeys.add(key);
+					return;
 				}
 			}
 			writer.writeComment(comment, output);// Writes the comment above the key
@@ -75,36 +70,39 @@ final class TableWriter {
 			output.write(KEY_VALUE_SEPARATOR);
 			ValueWriter.write(value, output, writer);
 			writer.writeNewline(output);
-		}
+		});
 		writer.writeNewline(output);
 
+		final Map<String, Object> values = config.valueMap();
+		final Map<String, String> comments = config.commentMap();
+
 		// Writes the tables:
-		for (UnmodifiableCommentedConfig.Entry entry : tablesEntries) {
+		for (String key : tablesKeys) {
 			// Writes the comment, if there is one
-			writer.writeComment(entry.getComment(), output);
+			writer.writeComment(comments.get(key), output);
 
 			// Writes the table declaration
-			configPath.add(entry.getKey());// path level ++
+			configPath.add(key);// path level ++
 			writeTableName(configPath, output, writer);
 			writer.writeNewline(output);
 
 			// Writes the table's content
-			writeNormal(entry.<UnmodifiableConfig>getValue(), configPath, output, writer);
+			writeNormal((UnmodifiableConfig)values.get(key), configPath, output, writer);
 			configPath.remove(configPath.size() - 1);// path level --
 		}
 
 		// Writes the arrays of tables:
-		for (UnmodifiableCommentedConfig.Entry entry : tableArraysEntries) {
+		for (String key : tableArraysKeys) {
 			// Writes the comment, if there is one
-			writer.writeComment(entry.getComment(), output);
+			writer.writeComment(comments.get(key), output);
 
 			// Writes the tables
-			configPath.add(entry.getKey());// path level ++
-			List<Config> tableArray = entry.getValue();
-			for (UnmodifiableConfig table : tableArray) {
+			configPath.add(key);// path level ++
+			List<?> tableArray = (List<?>)values.get(key);
+			for (Object table : tableArray) {
 				writeTableArrayName(configPath, output, writer);
 				writer.writeNewline(output);
-				writeNormal(table, configPath, output, writer);
+				writeNormal((UnmodifiableConfig)table, configPath, output, writer);
 			}
 			configPath.remove(configPath.size() - 1);// path level --
 		}
@@ -33,7 +33,7 @@ final class Toml {
 	static int readUseful(CharacterInput input, List<CharsWrapper> commentsList) {
 		int next = input.readAndSkip(WHITESPACE_OR_NEWLINE);
 		while (next == '#') {
-			CharsWrapper comment = readLine(input);
+			CharsWrapper comment = readComment(input);
 			commentsList.add(comment);
 			next = input.readAndSkip(WHITESPACE_OR_NEWLINE);
 		}
@@ -68,6 +68,15 @@ final class Toml {
 		return chars;
 	}
 
+	/**
+	 * Reads the rest of a comment line. Unlike {@link #readLine(CharacterInput)}, the result is a
+	 * copy, which stays valid after the next reads.
+	 */
+	static CharsWrapper readComment(CharacterInput input) {
+		CharsWrapper line = readLine(input);
+		return line.subSequence(0, line.length());
+	}
+
 	static boolean isValidInBareKey(char c, boolean lenient) {
 		if (lenient) { return c > ' ' && !Utils.arrayContains(FORBIDDEN_IN_ALL_BARE_KEYS, c); }
 		return (c >= 'a' && c <= 'z')
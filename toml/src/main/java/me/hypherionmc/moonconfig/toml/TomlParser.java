@@ -41,7 +41,7 @@ public final class TomlParser implements ConfigParser<CommentedConfig> {
 	@Override
 	public CommentedConfig parse(Reader reader) {
 		configWasEmpty = true;
-		return parse(new ReaderInput(reader), TomlFormat.instance().createConfig(), ParsingMode.MERGE);
+		return parse(new BufferedInput(reader), TomlFormat.instance().createConfig(), ParsingMode.MERGE);
 	}
 
 	@Override
@@ -49,7 +49,7 @@ public final class TomlParser implements ConfigParser<CommentedConfig> {
 		if(parsingMode == ParsingMode.REPLACE) {
 			configWasEmpty = true;
 		}
-		parse(new ReaderInput(reader), destination, parsingMode);
+		parse(new BufferedInput(reader), destination, parsingMode);
 	}
 
 	private <T extends Config> T parse(CharacterInput input, T destination, ParsingMode parsingMode) {
@@ -126,9 +126,8 @@ public final class TomlParser implements ConfigParser<CommentedConfig> {
 		for (String key : path) {
 			Object value = currentConfig.valueMap().get(key);
 			if (value == null) {
-				Config sub = TomlFormat.instance().createConfig();
-				currentConfig.valueMap().put(key, sub);
-				currentConfig = sub;
+				currentConfig.valueMap().put(key, TomlFormat.instance().createConfig());
+				currentConfig = (Config)currentConfig.valueMap().get(key);// the config may store a copy
 			} else if (value instanceof Config) {
 				currentConfig = (Config)value;
 			} else if (value instanceof List) {
@@ -96,15 +96,15 @@ final class ValueParser {
 		// Parse integers
 		CharsWrapper numberChars = valueChars;
 		int base = 10;
-		if (valueChars.length() > 2) {
-			switch (valueChars.subView(0, 2).toString()) {
-				case "0x":
+		if (valueChars.length() > 2 && valueChars.get(0) == '0') {
+			switch (valueChars.get(1)) {// no String needed to detect the prefix
+				case 'x':
 					base = 16;
 					break;
-				case "0b":
+				case 'b':
 					base = 2;
 					break;
-				case "0o":
+				case 'o':
 					base = 8;
 					break;
 			}
@@ -140,6 +140,9 @@ final class ValueParser {
 		if (numberChars.charAt(numberChars.length() - 1) == '_') {
 			throw new ParsingException("Invalid trailing underscore in number " + numberChars);
 		}
+		if (numberChars.indexOf('_') == -1) {
+			return numberChars;// nothing to remove, no need to copy
+		}
 		CharsWrapper.Builder builder = new CharsWrapper.Builder(16);
 		boolean nextCannotBeUnderscore = false;
 		for (char c : numberChars) {
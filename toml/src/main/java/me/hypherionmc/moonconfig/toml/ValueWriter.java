@@ -1,7 +1,8 @@
 package me.hypherionmc.moonconfig.toml;
 
-import me.hypherionmc.moonconfig.core.Config;
+import me.hypherionmc.moonconfig.core.UnmodifiableConfig;
 import me.hypherionmc.moonconfig.core.io.CharacterOutput;
+import me.hypherionmc.moonconfig.core.io.NumberFormatter;
 import me.hypherionmc.moonconfig.core.io.WritingException;
 
 import java.time.temporal.Temporal;
@@ -25,15 +26,15 @@ final class ValueWriter {
 	 * Writes a value. This method calls the correct writing method based on the value's type.
 	 */
 	static void write(Object value, CharacterOutput output, TomlWriter writer) {
-		if (value instanceof Config) {
-			TableWriter.writeInline((Config)value, output, writer);
+		if (value instanceof UnmodifiableConfig) {
+			TableWriter.writeInline((UnmodifiableConfig)value, output, writer);
 		} else if (value instanceof List) {
 			List<?> list = (List<?>)value;
-			if (!list.isEmpty() && list.stream().allMatch(Config.class::isInstance)) {// Array of tables
+			if (!list.isEmpty() && list.stream().allMatch(UnmodifiableConfig.class::isInstance)) {// Array of tables
 				Iterator<?> iterator = list.iterator();
 				while (iterator.hasNext()) {
 					final Object table = iterator.next();
-					TableWriter.writeInline((Config)table, output, writer);
+					TableWriter.writeInline((UnmodifiableConfig)table, output, writer);
 					if (iterator.hasNext()) {
 						output.write(ArrayWriter.ELEMENT_SEPARATOR);
 					}
@@ -56,9 +57,11 @@ final class ValueWriter {
 			} else if (d == Double.NEGATIVE_INFINITY) {
 				output.write("-inf");
 			} else {
-				output.write(value.toString());
+				NumberFormatter.write((Number)value, output);
 			}
-		} else if (value instanceof Number || value instanceof Boolean) {
+		} else if (value instanceof Number) {
+			NumberFormatter.write((Number)value, output);
+		} else if (value instanceof Boolean) {
 			output.write(value.toString());
 		} else if (value == null || value == NULL_OBJECT) {
 			throw new WritingException("TOML doesn't support null values");
@@ -5,12 +5,13 @@ import me.hypherionmc.moonconfig.core.ConfigFormat;
 import me.hypherionmc.moonconfig.core.io.ConfigParser;
 import me.hypherionmc.moonconfig.core.io.ParsingException;
 import me.hypherionmc.moonconfig.core.io.ParsingMode;
-import me.hypherionmc.moonconfig.core.utils.TransformingList;
-import me.hypherionmc.moonconfig.core.utils.TransformingMap;
+import me.hypherionmc.moonconfig.core.utils.KeyPool;
 import org.yaml.snakeyaml.LoaderOptions;
 import org.yaml.snakeyaml.Yaml;
 
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -68,12 +69,25 @@ public final class YamlParser implements ConfigParser<Config> {
 		}
 	}
 
-	private Map<String, Object> wrap(Map<String, Object> map) {
-		return new TransformingMap<>(map, this::wrap, v -> v, v -> v);
+	/**
+	 * Converts a map loaded by SnakeYAML. The keys are pooled with {@link KeyPool}, and the
+	 * values are converted once, here, instead of being converted at each access.
+	 */
+	private Map<String, Object> wrap(Map<?, Object> map) {
+		Map<String, Object> wrapped = new LinkedHashMap<>((int)(map.size() / 0.75f) + 1);
+		for (Map.Entry<?, Object> entry : map.entrySet()) {
+			String key = KeyPool.intern(String.valueOf(entry.getKey()));
+			wrapped.put(key, wrap(entry.getValue()));
+		}
+		return wrapped;
 	}
 
 	private List<Object> wrapList(List<Object> list) {
-		return new TransformingList<>(list, this::wrap, v -> v, v -> v);
+		List<Object> wrapped = new ArrayList<>(list.size());
+		for (Object element : list) {
+			wrapped.add(wrap(element));
+		}
+		return wrapped;
 	}
 
 	private Object wrap(Object value) {